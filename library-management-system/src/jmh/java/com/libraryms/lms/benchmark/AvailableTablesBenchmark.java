@@ -0,0 +1,71 @@
+package com.libraryms.lms.benchmark;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.SeatDTO;
+import com.libraryms.lms.repository.StudyTableRepository;
+import com.libraryms.lms.service.DataVersion;
+import com.libraryms.lms.service.SeatLocks;
+import com.libraryms.lms.service.SeatOccupancyIndex;
+import com.libraryms.lms.service.SlotSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The mapping behind StudentController.getAvailableTables: free seats from the occupancy
+ * index to AvailableTableDTOs. Four rooms, every third table occupied.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AvailableTablesBenchmark {
+
+    @Param({"60", "1000", "10000"})
+    private int tables;
+
+    private SeatOccupancyIndex index;
+
+    @Setup
+    public void setUp() {
+        List<SeatDTO> seats = new ArrayList<>(tables);
+        int perRoom = Math.max(1, tables / 4);
+        for (int i = 0; i < tables; i++) {
+            int room = i / perRoom;
+            seats.add(new SeatDTO((long) i + 1, (long) room + 1, String.valueOf((char) ('A' + room)),
+                    "Room " + (room + 1), i % perRoom + 1, i % 3 == 0));
+        }
+        // The index only needs findAllSeats to load
+        StudyTableRepository repository = (StudyTableRepository) Proxy.newProxyInstance(
+                StudyTableRepository.class.getClassLoader(), new Class<?>[]{StudyTableRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findAllSeats")) {
+                        return seats;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        // An empty slot schedule, never loaded: freeTables does not consult it
+        index = new SeatOccupancyIndex(repository, new SlotSchedule(null), new SeatLocks(), new DataVersion());
+        index.load();
+    }
+
+    @Benchmark
+    public List<AvailableTableDTO> freeTables() {
+        return index.freeTables();
+    }
+}
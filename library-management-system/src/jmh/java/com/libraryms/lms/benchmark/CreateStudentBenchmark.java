@@ -0,0 +1,64 @@
+package com.libraryms.lms.benchmark;
+
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.service.DataCleanupService;
+import com.libraryms.lms.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end StudentService.createStudentWithTable against embedded H2: seat lookup, lock,
+ * transaction, inserts and the after-commit listeners. Each iteration starts from an empty
+ * room and fills its tables in order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CreateStudentBenchmark {
+
+    private StudentService studentService;
+    private DataCleanupService dataCleanupService;
+    private int nextTable;
+
+    @Setup
+    public void setUp(LibraryApplicationState app) {
+        studentService = app.bean(StudentService.class);
+        dataCleanupService = app.bean(DataCleanupService.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void emptyRoom() {
+        dataCleanupService.clearStudentData();
+        nextTable = 1;
+    }
+
+    @Benchmark
+    public String createStudentWithTable() {
+        if (nextTable > LibraryApplicationState.TABLES_IN_ROOM_A) {
+            // Rare: only when an iteration outruns the room
+            emptyRoom();
+        }
+        int table = nextTable++;
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName("Benchmark " + table);
+        dto.setContactNumber("9000000000");
+        dto.setRoomNumber("A");
+        dto.setTableNumber(table);
+        dto.setAmountPaid(500);
+        return studentService.createStudentWithTable(dto);
+    }
+}
@@ -0,0 +1,51 @@
+package com.libraryms.lms.benchmark;
+
+import com.libraryms.lms.LibraryManagementSystemApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * The full application (web server on a random port) on an in-memory H2 database,
+ * started once per fork.
+ * The layout is a single room A with {@link #TABLES_IN_ROOM_A} tables, so write benchmarks
+ * have seats to fill.
+ */
+@State(Scope.Benchmark)
+public class LibraryApplicationState {
+
+    static final int TABLES_IN_ROOM_A = 5000;
+
+    ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        context = new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        // Replaces the whole configured layout (lists are not merged across sources)
+                        "--library.layout.rooms[0].number=A",
+                        "--library.layout.rooms[0].tables=" + TABLES_IN_ROOM_A,
+                        "--library.layout.sample-students=false");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
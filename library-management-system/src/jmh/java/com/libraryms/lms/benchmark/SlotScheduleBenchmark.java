@@ -0,0 +1,94 @@
+package com.libraryms.lms.benchmark;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.model.TableBooking;
+import com.libraryms.lms.repository.TableBookingRepository;
+import com.libraryms.lms.service.SlotSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The checks behind POST /api/bookings and GET /api/bookings/available: one table's conflict
+ * check and the free-window filter over every table. Each table has a morning and an evening
+ * slot booked on every day.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SlotScheduleBenchmark {
+
+    @Param({"1000", "5000"})
+    private int tables;
+
+    @Param({"7", "60"})
+    private int days;
+
+    private SlotSchedule schedule;
+    private List<AvailableTableDTO> candidates;
+    private LocalDateTime firstDay;
+
+    @Setup
+    public void setUp() {
+        firstDay = LocalDate.now().plusDays(1).atStartOfDay();
+        List<TableBooking> bookings = new ArrayList<>(tables * days * 2);
+        candidates = new ArrayList<>(tables);
+        long id = 1;
+        for (long table = 1; table <= tables; table++) {
+            candidates.add(new AvailableTableDTO(table, "R", (int) table, "Room"));
+            for (int day = 0; day < days; day++) {
+                // Staggered so some tables are free at any given hour
+                LocalDateTime morning = firstDay.plusDays(day).plusHours(6 + table % 4);
+                bookings.add(new TableBooking(id++, table, 1L, morning, morning.plusHours(4)));
+                bookings.add(new TableBooking(id++, table, 1L, morning.plusHours(8), morning.plusHours(12)));
+            }
+        }
+        // The schedule only needs findEndingAfter to load
+        TableBookingRepository repository = (TableBookingRepository) Proxy.newProxyInstance(
+                TableBookingRepository.class.getClassLoader(), new Class<?>[]{TableBookingRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findEndingAfter")) {
+                        long lastId = (long) args[1];
+                        int limit = ((Limit) args[2]).max();
+                        int from = (int) Math.min(lastId, bookings.size());
+                        return bookings.subList(from, Math.min(from + limit, bookings.size()));
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        schedule = new SlotSchedule(repository);
+        schedule.load();
+    }
+
+    @Benchmark
+    public boolean isFree() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime start = firstDay.plusDays(random.nextInt(days)).plusHours(random.nextInt(20));
+        return schedule.isFree((long) random.nextInt(1, tables + 1), start, start.plusHours(2));
+    }
+
+    @Benchmark
+    public List<AvailableTableDTO> freeDuring() {
+        LocalDateTime start = firstDay.plusDays(days / 2).plusHours(10);
+        return schedule.freeDuring(candidates, start, start.plusHours(2));
+    }
+}
@@ -0,0 +1,58 @@
+package com.libraryms.lms.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the /api/students/complete-info payload, with the same
+ * ObjectMapper defaults Spring MVC uses for responses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentJsonBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<StudentTableInfoDTO> students;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDate today = LocalDate.now();
+        students = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            students.add(new StudentTableInfoDTO((long) i, "Student " + i, "CS" + i, "98765" + (10000 + i % 90000),
+                    i % 60 + 1, String.valueOf((char) ('A' + i % 4)), 500.0, i % 5 != 0,
+                    today.minusDays(i % 30), today.plusDays(30 - i % 30)));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeStudents() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(students);
+    }
+}
@@ -0,0 +1,66 @@
+package com.libraryms.lms.benchmark;
+
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.model.Payment;
+import com.libraryms.lms.model.Room;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.model.StudyTable;
+import com.libraryms.lms.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentService.mapStudentToDTO on a fully populated student (table, room and payment).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StudentMappingBenchmark {
+
+    private StudentService studentService;
+    private Student student;
+
+    @Setup
+    public void setUp(LibraryApplicationState app) {
+        studentService = app.bean(StudentService.class);
+
+        Room room = new Room();
+        room.setRoomNumber("A");
+        room.setName("Room A");
+        StudyTable table = new StudyTable();
+        table.setTableNumber(7);
+        table.setRoom(room);
+        Payment payment = new Payment();
+        payment.setAmount(500);
+        payment.setPaid(true);
+        payment.setPaymentDate(LocalDate.now());
+        payment.setDueDate(LocalDate.now().plusMonths(1));
+
+        student = new Student();
+        student.setId(1L);
+        student.setName("Benchmark Student");
+        student.setRollNumber("CS100");
+        student.setContactNumber("9876500000");
+        student.setAssignedTable(table);
+        student.setPayment(payment);
+    }
+
+    @Benchmark
+    public StudentTableInfoDTO mapStudentToDTO() {
+        return studentService.mapStudentToDTO(student);
+    }
+}
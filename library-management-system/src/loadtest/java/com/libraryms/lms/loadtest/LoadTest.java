@@ -0,0 +1,391 @@
+package com.libraryms.lms.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libraryms.lms.LibraryManagementSystemApplication;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load test comparing platform and virtual request threads.
+ * <p>
+ * For each threading mode the full application is started on a fresh in-memory H2 database,
+ * then every scenario is driven by {@code concurrency} clients that each send one request,
+ * wait for the answer and send the next:
+ * <ul>
+ *   <li>{@code complete-info} - GET /api/students/complete-info over {@value #READ_STUDENTS} students</li>
+ *   <li>{@code table-info} - GET /api/students/student/{id}/table-info, round robin over the same students</li>
+ *   <li>{@code assign} - POST /api/students/assign; each client owns one table in room L and frees it
+ *       again through /tables/free, only the assignment is timed</li>
+ * </ul>
+ * H2 answers in microseconds, far faster than a database across the network, so each
+ * statement is delayed by {@code db-latency-ms} while holding its connection. Set it to 0
+ * to measure the application alone.
+ * <p>
+ * Arguments are {@code --name=value}: concurrency, warmup and duration (seconds),
+ * db-latency-ms, pool-size (as in application.properties), modes (platform,virtual) and
+ * output (CSV file). Virtual mode is skipped on JVMs older than 21.
+ */
+public class LoadTest {
+
+    static final int READ_STUDENTS = 200;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final int concurrency;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final long dbLatencyMs;
+    private final int poolSize;
+    private final HttpClient http = HttpClient.newBuilder()
+            .executor(Executors.newCachedThreadPool())
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    LoadTest(int concurrency, int warmupSeconds, int durationSeconds, long dbLatencyMs, int poolSize) {
+        this.concurrency = concurrency;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.dbLatencyMs = dbLatencyMs;
+        this.poolSize = poolSize;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+        LoadTest loadTest = new LoadTest(
+                Integer.parseInt(options.getOrDefault("concurrency", "400")),
+                Integer.parseInt(options.getOrDefault("warmup", "5")),
+                Integer.parseInt(options.getOrDefault("duration", "15")),
+                Long.parseLong(options.getOrDefault("db-latency-ms", "2")),
+                Integer.parseInt(options.getOrDefault("pool-size", "20")));
+        Path output = Path.of(options.getOrDefault("output", "target/loadtest-results.csv"));
+
+        List<Result> results = new ArrayList<>();
+        for (String mode : options.getOrDefault("modes", "platform,virtual").split(",")) {
+            boolean virtual = mode.trim().equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.println("⏭️ Skipping virtual threads, running on Java " + Runtime.version().feature());
+                continue;
+            }
+            results.addAll(loadTest.run(virtual));
+        }
+
+        System.out.println();
+        System.out.printf("%-9s %-14s %8s %7s %10s %9s %9s %9s %8s%n",
+                "threads", "scenario", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms", "pending");
+        results.forEach(r -> System.out.printf("%-9s %-14s %8d %7d %10.1f %9.2f %9.2f %9.2f %8.0f%n",
+                r.mode, r.scenario, r.requests, r.errors, r.throughput(), r.p50Ms, r.p99Ms, r.maxMs, r.peakPending));
+        write(output, loadTest, results);
+        System.out.println("📄 Results written to " + output.toAbsolutePath());
+    }
+
+    List<Result> run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        System.out.println("🚀 Starting application with " + mode + " threads");
+        ConfigurableApplicationContext context = start(virtual);
+        try {
+            String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<Long> readIds = seedReadStudents(baseUrl);
+            List<Long> ownedTables = tablesInRoom(baseUrl, "L");
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+
+            Map<String, Call> scenarios = new LinkedHashMap<>();
+            scenarios.put("complete-info", (client, i) -> get(baseUrl + "/api/students/complete-info"));
+            scenarios.put("table-info", (client, i) ->
+                    get(baseUrl + "/api/students/student/" + readIds.get((int) (i % readIds.size())) + "/table-info"));
+            scenarios.put("assign", (client, i) -> post(baseUrl + "/api/students/assign", """
+                    {"name": "Load %d-%d", "contactNumber": "9%09d", "roomNumber": "L",
+                     "tableNumber": %d, "amountPaid": 500}
+                    """.formatted(client, i, i % 1_000_000_000L, client + 1)));
+            Map<String, Call> cleanups = Map.of("assign", (client, i) ->
+                    post(baseUrl + "/tables/free?tableId=" + ownedTables.get(client), ""));
+
+            List<Result> results = new ArrayList<>();
+            for (Map.Entry<String, Call> scenario : scenarios.entrySet()) {
+                Call cleanup = cleanups.get(scenario.getKey());
+                drive(scenario.getValue(), cleanup, warmupSeconds, null);
+                Result result = drive(scenario.getValue(), cleanup, durationSeconds, meterRegistry);
+                result.mode = mode;
+                result.scenario = scenario.getKey();
+                results.add(result);
+                System.out.printf("   %-14s %10.1f req/s, p99 %.2f ms%n", result.scenario, result.throughput(), result.p99Ms);
+            }
+            return results;
+        } finally {
+            context.close();
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        String database = virtual ? "loadtest-virtual" : "loadtest-platform";
+        return new SpringApplicationBuilder(LibraryManagementSystemApplication.class)
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(simulatedLatency(dbLatencyMs)))
+                .run("--server.port=0",
+                        // The "virtual" profile as shipped; the pool size otherwise comes from the
+                        // test application.properties, which shadows the main one on this classpath
+                        "--spring.profiles.active=" + (virtual ? "virtual" : "default"),
+                        "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                        "--spring.datasource.hikari.minimum-idle=" + poolSize,
+                        "--spring.datasource.url=jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        // The simulated latency would make every statement look slow
+                        "--library.sql.slow-query-threshold-ms=60000",
+                        // Replaces the whole configured layout (lists are not merged across sources)
+                        "--library.layout.rooms[0].number=R",
+                        "--library.layout.rooms[0].tables=" + READ_STUDENTS,
+                        "--library.layout.rooms[1].number=L",
+                        "--library.layout.rooms[1].tables=" + concurrency,
+                        "--library.layout.sample-students=false");
+    }
+
+    /**
+     * Delays every statement on its connection, standing in for the network round trip to
+     * a real database server.
+     */
+    private static BeanPostProcessor simulatedLatency(long latencyMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (latencyMs <= 0 || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .listener(new QueryExecutionListener() {
+                            @Override
+                            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                try {
+                                    Thread.sleep(latencyMs);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+
+                            @Override
+                            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+
+    private List<Long> seedReadStudents(String baseUrl) throws IOException, InterruptedException {
+        StringBuilder csv = new StringBuilder("name,contactNumber,roomNumber,tableNumber,amountPaid\n");
+        for (int table = 1; table <= READ_STUDENTS; table++) {
+            csv.append("Reader ").append(table).append(",8").append(String.format("%09d", table))
+                    .append(",R,").append(table).append(",500\n");
+        }
+        HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/students/import"))
+                .header("Content-Type", "text/csv")
+                .POST(HttpRequest.BodyPublishers.ofString(csv.toString()))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+        }
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode student : getJson(baseUrl + "/api/students/complete-info")) {
+            ids.add(student.get("id").asLong());
+        }
+        return ids;
+    }
+
+    /**
+     * Table ids of a room, indexed by table number - 1.
+     */
+    private List<Long> tablesInRoom(String baseUrl, String room) throws IOException, InterruptedException {
+        Long[] ids = new Long[concurrency];
+        for (JsonNode table : getJson(baseUrl + "/api/students/available-tables")) {
+            if (table.get("roomNumber").asText().equals(room)) {
+                ids[table.get("tableNumber").asInt() - 1] = table.get("tableId").asLong();
+            }
+        }
+        return Arrays.asList(ids);
+    }
+
+    /**
+     * Run one scenario with every client looping until the time is up. Latencies are only
+     * kept when a registry is given; without one the run is a warm-up.
+     */
+    private Result drive(Call scenario, Call cleanup, int seconds, MeterRegistry meterRegistry)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        boolean measured = meterRegistry != null;
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        AtomicLong errors = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        double[] peakPending = {0};
+        if (measured) {
+            Gauge pending = meterRegistry.find("hikaricp.connections.pending").gauge();
+            if (pending != null) {
+                sampler.scheduleAtFixedRate(() -> peakPending[0] = Math.max(peakPending[0], pending.value()),
+                        0, 20, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        long started = System.nanoTime();
+        for (int c = 0; c < concurrency; c++) {
+            int client = c;
+            Thread thread = new Thread(() -> {
+                long[] own = new long[1024];
+                int n = 0;
+                for (long i = 0; System.nanoTime() < deadline; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        if (scenario.send(client, i) / 100 != 2) {
+                            errors.incrementAndGet();
+                        }
+                        long elapsed = System.nanoTime() - begin;
+                        if (cleanup != null) {
+                            cleanup.send(client, i);
+                        }
+                        if (measured) {
+                            if (n == own.length) {
+                                own = Arrays.copyOf(own, n * 2);
+                            }
+                            own[n++] = elapsed;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+                latencies[client] = own;
+                counts[client] = n;
+                done.countDown();
+            }, "load-client-" + client);
+            thread.start();
+        }
+        done.await();
+        long elapsedNanos = System.nanoTime() - started;
+        sampler.shutdownNow();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int c = 0; c < concurrency; c++) {
+            System.arraycopy(latencies[c], 0, all, offset, counts[c]);
+            offset += counts[c];
+        }
+        Arrays.sort(all);
+        Result result = new Result();
+        result.requests = total;
+        result.errors = errors.get();
+        result.seconds = elapsedNanos / 1e9;
+        result.p50Ms = percentile(all, 0.50);
+        result.p99Ms = percentile(all, 0.99);
+        result.maxMs = total == 0 ? 0 : all[total - 1] / 1e6;
+        result.peakPending = peakPending[0];
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private int get(String url) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private int post(String url, String json) throws IOException, InterruptedException {
+        return http.send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private JsonNode getJson(String url) throws IOException, InterruptedException {
+        return JSON.readTree(http.send(HttpRequest.newBuilder(URI.create(url)).GET().build(),
+                HttpResponse.BodyHandlers.ofString()).body());
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    private static void write(Path output, LoadTest settings, List<Result> results) throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(output))) {
+            out.println("threads,scenario,java,concurrency,db_latency_ms,pool_size,requests,errors,seconds,throughput,p50_ms,p99_ms,max_ms,peak_pending_connections");
+            for (Result r : results) {
+                out.printf(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%d,%d,%.2f,%.1f,%.3f,%.3f,%.3f,%.0f%n",
+                        r.mode, r.scenario, Runtime.version().feature(), settings.concurrency, settings.dbLatencyMs, settings.poolSize,
+                        r.requests, r.errors, r.seconds, r.throughput(), r.p50Ms, r.p99Ms, r.maxMs, r.peakPending);
+            }
+        }
+    }
+
+    /**
+     * One request by the given client, returning the HTTP status.
+     */
+    @FunctionalInterface
+    interface Call {
+        int send(int client, long iteration) throws Exception;
+    }
+
+    static class Result {
+        String mode;
+        String scenario;
+        long requests;
+        long errors;
+        double seconds;
+        double p50Ms;
+        double p99Ms;
+        double maxMs;
+        double peakPending;
+
+        double throughput() {
+            return seconds == 0 ? 0 : requests / seconds;
+        }
+    }
+}
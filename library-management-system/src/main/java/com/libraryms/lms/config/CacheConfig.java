@@ -0,0 +1,10 @@
+package com.libraryms.lms.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine caches, sized and timed by spring.cache.caffeine.spec in application.properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
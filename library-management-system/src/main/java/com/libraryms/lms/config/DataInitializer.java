@@ -1,5 +1,6 @@
 package com.libraryms.lms.config;
 
+import com.libraryms.lms.dto.SeatDTO;
 import com.libraryms.lms.model.Room;
 import com.libraryms.lms.model.StudyTable;
 import com.libraryms.lms.model.Student;
@@ -8,86 +9,121 @@ import com.libraryms.lms.repository.RoomRepository;
 import com.libraryms.lms.repository.StudyTableRepository;
 import com.libraryms.lms.repository.StudentRepository;
 import com.libraryms.lms.repository.PaymentRepository;
+import com.libraryms.lms.service.PaymentLedger;
+import com.libraryms.lms.service.RoomService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Component
 public class DataInitializer implements CommandLineRunner {
 
     @Autowired
     private RoomRepository roomRepository;
-    
+
     @Autowired
     private StudyTableRepository studyTableRepository;
-    
+
     @Autowired
     private StudentRepository studentRepository;
-    
+
     @Autowired
     private PaymentRepository paymentRepository;
 
+    @Autowired
+    private LibraryLayoutProperties layout;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private PaymentLedger paymentLedger;
+
     @Override
     public void run(String... args) throws Exception {
-        // Only initialize if no data exists
-        if (roomRepository.count() == 0) {
-            initializeData();
+        long started = System.nanoTime();
+        boolean freshDatabase = roomRepository.count() == 0;
+
+        Map<String, Room> touchedRooms = new HashMap<>();
+        int[] added = transactionTemplate.execute(status -> provisionLayout(touchedRooms));
+        roomService.layoutChanged(touchedRooms.values());
+
+        if (freshDatabase && layout.isSampleStudents()) {
+            transactionTemplate.executeWithoutResult(status -> initializeSampleStudents());
         }
+
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        System.out.println("✅ Seat layout reconciled in " + elapsedMillis + " ms: "
+                + layout.getRooms().size() + " room(s) configured, "
+                + added[0] + " room(s) and " + added[1] + " table(s) added");
     }
 
-    private void initializeData() {
-        // Create Rooms A, B, C, D
-        Room roomA = new Room();
-        roomA.setRoomNumber("A");
-        roomA.setName("A");
-        roomRepository.save(roomA);
-
-        Room roomB = new Room();
-        roomB.setRoomNumber("B");
-        roomB.setName("B");
-        roomRepository.save(roomB);
-
-        Room roomC = new Room();
-        roomC.setRoomNumber("C");
-        roomC.setName("C");
-        roomRepository.save(roomC);
-
-        Room roomD = new Room();
-        roomD.setRoomNumber("D");
-        roomD.setName("D");
-        roomRepository.save(roomD);
-
-        // Create 15 Study Tables per room (1-15)
-        for (int i = 1; i <= 15; i++) {
-            StudyTable tA = new StudyTable();
-            tA.setRoomNumber("A");
-            tA.setTableNumber(i);
-            tA.setOccupied(false);
-            tA.setRoom(roomA);
-            studyTableRepository.save(tA);
-
-            StudyTable tB = new StudyTable();
-            tB.setRoomNumber("B");
-            tB.setTableNumber(i);
-            tB.setOccupied(false);
-            tB.setRoom(roomB);
-            studyTableRepository.save(tB);
-
-            StudyTable tC = new StudyTable();
-            tC.setRoomNumber("C");
-            tC.setTableNumber(i);
-            tC.setOccupied(false);
-            tC.setRoom(roomC);
-            studyTableRepository.save(tC);
-
-            StudyTable tD = new StudyTable();
-            tD.setRoomNumber("D");
-            tD.setTableNumber(i);
-            tD.setOccupied(false);
-            tD.setRoom(roomD);
-            studyTableRepository.save(tD);
+    /**
+     * Add the rooms and tables from the configured layout that do not exist yet.
+     * Existing rows are read once up front and new ones are inserted with saveAll,
+     * so the inserts go out as JDBC batches. Returns {roomsAdded, tablesAdded} and
+     * collects the rooms that got new rows into touchedRooms.
+     */
+    private int[] provisionLayout(Map<String, Room> touchedRooms) {
+        Map<String, Room> rooms = new HashMap<>();
+        roomRepository.findAll().forEach(room -> rooms.put(room.getRoomNumber(), room));
+
+        Set<String> existingSeats = new HashSet<>();
+        for (SeatDTO seat : studyTableRepository.findAllSeats()) {
+            existingSeats.add(seat.getRoomNumber() + "#" + seat.getTableNumber());
+        }
+
+        List<Room> newRooms = new ArrayList<>();
+        for (LibraryLayoutProperties.RoomLayout roomLayout : layout.getRooms()) {
+            if (!rooms.containsKey(roomLayout.getNumber())) {
+                Room room = new Room();
+                room.setRoomNumber(roomLayout.getNumber());
+                room.setName(roomLayout.getName() != null ? roomLayout.getName() : roomLayout.getNumber());
+                newRooms.add(room);
+                touchedRooms.put(room.getRoomNumber(), room);
+                rooms.put(room.getRoomNumber(), room);
+            }
+        }
+        roomRepository.saveAll(newRooms);
+
+        List<StudyTable> newTables = new ArrayList<>();
+        for (LibraryLayoutProperties.RoomLayout roomLayout : layout.getRooms()) {
+            Room room = rooms.get(roomLayout.getNumber());
+            for (int i = 1; i <= roomLayout.getTables(); i++) {
+                if (existingSeats.contains(room.getRoomNumber() + "#" + i)) {
+                    continue;
+                }
+                StudyTable table = new StudyTable();
+                table.setRoomNumber(room.getRoomNumber());
+                table.setTableNumber(i);
+                table.setOccupied(false);
+                table.setRoom(room);
+                newTables.add(table);
+                touchedRooms.put(room.getRoomNumber(), room);
+            }
+        }
+        studyTableRepository.saveAll(newTables);
+
+        return new int[]{newRooms.size(), newTables.size()};
+    }
+
+    private void initializeSampleStudents() {
+        Room roomA = roomRepository.findByRoomNumber("A").orElse(null);
+        Room roomB = roomRepository.findByRoomNumber("B").orElse(null);
+        if (roomA == null || roomB == null) {
+            return; // sample data assumes the default A-D layout
         }
 
         // Create Students with complete info
@@ -126,19 +162,14 @@ public class DataInitializer implements CommandLineRunner {
         tableA1.setOccupied(true);
         student1.setAssignedTable(tableA1);
         student1.setPayment(payment1);
-        studyTableRepository.save(tableA1);
-        studentRepository.save(student1);
 
         StudyTable tableB1 = studyTableRepository.findByRoomAndTableNumber(roomB, 1).orElseThrow();
         tableB1.setStudent(student2);
         tableB1.setOccupied(true);
         student2.setAssignedTable(tableB1);
         student2.setPayment(payment2);
-        studyTableRepository.save(tableB1);
-        studentRepository.save(student2);
+        paymentLedger.recordNewStudents(List.of(student1, student2));
 
-        System.out.println("✅ Database initialized with sample data!");
-        System.out.println("📚 Created 4 rooms (A, B, C, D) with 15 tables each");
         System.out.println("👥 Created 2 students with complete information");
         System.out.println("💰 Created payment records");
         System.out.println("🪑 Assigned students to tables");
@@ -0,0 +1,46 @@
+package com.libraryms.lms.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+public class DataSourceProxyConfig {
+
+    /**
+     * Wrap the pool so every statement passes the {@link SqlStatementMonitor}. The monitor is
+     * looked up on first use because post-processors are created before regular beans.
+     */
+    @Bean
+    static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlStatementMonitor> monitor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new QueryExecutionListener() {
+                            @Override
+                            public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                            }
+
+                            @Override
+                            public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                monitor.getObject().afterQuery(execInfo, queryInfoList);
+                            }
+                        })
+                        .build();
+            }
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.libraryms.lms.config;
+
+import com.libraryms.lms.service.DataVersion;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Conditional GET for read endpoints whose content only changes with {@link DataVersion}.
+ * A matching If-None-Match is answered with 304 before the controller runs, so a
+ * revalidation costs no query and no JSON serialization.
+ */
+@Component
+public class DataVersionETagInterceptor implements HandlerInterceptor {
+
+    @Autowired
+    private DataVersion dataVersion;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            return true;
+        }
+        // Browsers keep the response but must revalidate it on every use
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        // Sets the ETag header, and the 304 status when the client's copy is current
+        return !new ServletWebRequest(request, response).checkNotModified(dataVersion.etag());
+    }
+}
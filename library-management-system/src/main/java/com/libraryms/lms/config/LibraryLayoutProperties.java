@@ -0,0 +1,34 @@
+package com.libraryms.lms.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seat layout provisioned at startup, e.g. in application.properties:
+ * <pre>
+ * library.layout.rooms[0].number=A
+ * library.layout.rooms[0].tables=15
+ * </pre>
+ * or the equivalent list under {@code library.layout.rooms} in application.yml.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "library.layout")
+public class LibraryLayoutProperties {
+
+    private List<RoomLayout> rooms = new ArrayList<>();
+
+    // Seed two demo students, only when the layout is created on an empty database
+    private boolean sampleStudents = true;
+
+    @Data
+    public static class RoomLayout {
+        private String number;
+        private String name; // defaults to the room number
+        private int tables;
+    }
+}
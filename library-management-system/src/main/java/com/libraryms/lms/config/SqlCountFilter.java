@@ -0,0 +1,60 @@
+package com.libraryms.lms.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Counts the SQL statements of each /api request. The count is recorded in the
+ * library.http.sql.statements histogram (tagged with the route, so an N+1 regression shows
+ * up per endpoint) and returned in the X-SQL-Count header: by {@link SqlCountHeaderAdvice}
+ * just before a body is written, or here for responses without one.
+ */
+@Component
+public class SqlCountFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Count";
+
+    @Autowired
+    private SqlStatementMonitor sqlStatementMonitor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        sqlStatementMonitor.startRequest();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = sqlStatementMonitor.endRequest();
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, String.valueOf(statements));
+            }
+            Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            DistributionSummary.builder("library.http.sql.statements")
+                    .description("SQL statements executed per HTTP request")
+                    .tag("method", request.getMethod())
+                    .tag("uri", route != null ? route.toString() : "UNKNOWN")
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry)
+                    .record(statements);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.libraryms.lms.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the X-SQL-Count header before a response body is written, while headers can still be set.
+ */
+@ControllerAdvice
+public class SqlCountHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    @Autowired
+    private SqlStatementMonitor sqlStatementMonitor;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        int statements = sqlStatementMonitor.requestStatements();
+        if (statements >= 0) {
+            response.getHeaders().set(SqlCountFilter.HEADER, String.valueOf(statements));
+        }
+        return body;
+    }
+}
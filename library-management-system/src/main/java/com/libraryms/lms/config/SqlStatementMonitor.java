@@ -0,0 +1,77 @@
+package com.libraryms.lms.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Sees every JDBC execution through the proxied DataSource (see {@link DataSourceProxyConfig}).
+ * Counts statements for the HTTP request running on the current thread, and prints a sample
+ * of the statements slower than the threshold; all of them are counted in library.sql.slow.
+ */
+@Component
+public class SqlStatementMonitor implements QueryExecutionListener {
+
+    private static final ThreadLocal<int[]> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final Counter slowStatements;
+    private final long slowQueryThresholdMs;
+    private final double slowQuerySampleRate;
+
+    public SqlStatementMonitor(MeterRegistry meterRegistry,
+                               @Value("${library.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMs,
+                               @Value("${library.sql.slow-query-sample-rate:1.0}") double slowQuerySampleRate) {
+        this.slowStatements = Counter.builder("library.sql.slow")
+                .description("Statements that took at least library.sql.slow-query-threshold-ms")
+                .register(meterRegistry);
+        this.slowQueryThresholdMs = slowQueryThresholdMs;
+        this.slowQuerySampleRate = slowQuerySampleRate;
+    }
+
+    public void startRequest() {
+        REQUEST_STATEMENTS.set(new int[1]);
+    }
+
+    /**
+     * Statements executed so far by the current request, or -1 outside a tracked request.
+     */
+    public int requestStatements() {
+        int[] count = REQUEST_STATEMENTS.get();
+        return count != null ? count[0] : -1;
+    }
+
+    public int endRequest() {
+        int count = requestStatements();
+        REQUEST_STATEMENTS.remove();
+        return count;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        int[] count = REQUEST_STATEMENTS.get();
+        if (count != null) {
+            // A JDBC batch is one round trip, so it counts once
+            count[0]++;
+        }
+        long elapsedMs = execInfo.getElapsedTime();
+        if (elapsedMs >= slowQueryThresholdMs) {
+            slowStatements.increment();
+            if (ThreadLocalRandom.current().nextDouble() < slowQuerySampleRate) {
+                String sql = queryInfoList.isEmpty() ? "?" : queryInfoList.get(0).getQuery();
+                String batch = execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "";
+                System.out.println("🐢 Slow SQL (" + elapsedMs + " ms" + batch + "): " + sql);
+            }
+        }
+    }
+}
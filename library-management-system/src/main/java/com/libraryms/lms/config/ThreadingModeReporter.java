@@ -0,0 +1,50 @@
+package com.libraryms.lms.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Prints which threads serve requests and how many connections they share, and warns
+ * when virtual threads were asked for on a JVM that cannot provide them.
+ */
+@Component
+public class ThreadingModeReporter {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report() {
+        int javaVersion = Runtime.version().feature();
+        boolean requested = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (requested && !Threading.VIRTUAL.isActive(environment)) {
+            System.out.println("⚠️ Virtual threads requested but running on Java " + javaVersion
+                    + ", staying on platform threads (needs Java 21)");
+        }
+        String threads = Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform";
+        System.out.println("🧵 Serving requests on " + threads + " threads (Java " + javaVersion + "), "
+                + poolSize() + " database connections");
+    }
+
+    private String poolSize() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return String.valueOf(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+            }
+        } catch (SQLException e) {
+            // Reporting only, fall through
+        }
+        return "?";
+    }
+}
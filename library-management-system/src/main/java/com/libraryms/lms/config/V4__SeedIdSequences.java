@@ -0,0 +1,69 @@
+package com.libraryms.lms.config;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Moves the pooled id sequences V3 created past the ids already in use. Rows written before the
+ * entities switched from IDENTITY keep their ids, and a sequence starting at 1 would hand them out
+ * again. Hibernate's pooled optimizer reads a sequence value as the top of a block of
+ * allocationSize ids, so the next value is max(id) + allocationSize.
+ * <p>
+ * A Java migration because PostgreSQL only restarts a sequence at a literal. MySQL has no
+ * sequences and Hibernate emulates them with one-row tables, which V3 already filled with the
+ * same value, so those are skipped. Spring Boot hands JavaMigration beans to Flyway.
+ */
+@Component
+public class V4__SeedIdSequences extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Each table's ids come from "<table>_seq"
+    private static final List<String> TABLES = List.of("student", "payment", "room", "study_table");
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Set<String> tables = tableNames(connection);
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                String sequence = table + "_seq";
+                if (tables.contains(sequence)) {
+                    continue;
+                }
+                long next = maxId(statement, table) + ALLOCATION_SIZE;
+                statement.execute("alter sequence " + sequence + " restart with " + next);
+            }
+        }
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet rows = statement.executeQuery("select coalesce(max(id), 0) from " + table)) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private static Set<String> tableNames(Connection connection) throws SQLException {
+        Set<String> names = new HashSet<>();
+        DatabaseMetaData metaData = connection.getMetaData();
+        try (ResultSet rows = metaData.getTables(connection.getCatalog(), connection.getSchema(), null,
+                new String[]{"TABLE"})) {
+            while (rows.next()) {
+                names.add(rows.getString("TABLE_NAME").toLowerCase(Locale.ROOT));
+            }
+        }
+        return names;
+    }
+}
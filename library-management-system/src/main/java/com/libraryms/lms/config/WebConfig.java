@@ -0,0 +1,22 @@
+package com.libraryms.lms.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private DataVersionETagInterceptor dataVersionETagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(dataVersionETagInterceptor)
+                .addPathPatterns("/api/students/complete-info",
+                        "/api/students/available-tables",
+                        "/api/students/available-tables/counts",
+                        "/api/students/rooms");
+    }
+}
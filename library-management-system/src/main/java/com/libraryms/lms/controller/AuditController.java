@@ -0,0 +1,41 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.AuditStatusDTO;
+import com.libraryms.lms.model.AuditEntry;
+import com.libraryms.lms.service.AuditLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/audit")
+public class AuditController {
+
+    @Autowired
+    private AuditLog auditLog;
+
+    // GET /api/audit?studentId=&tableId=&from=2025-01-01T00:00&to=...&limit=100[&beforeId=...], newest first
+    @GetMapping
+    public ResponseEntity<List<AuditEntry>> search(
+            @RequestParam(required = false) Long studentId,
+            @RequestParam(required = false) Long tableId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(auditLog.search(studentId, tableId, from, to, beforeId, limit));
+    }
+
+    // Buffer fill and what became of the entries since startup
+    @GetMapping("/status")
+    public ResponseEntity<AuditStatusDTO> status() {
+        return ResponseEntity.ok(auditLog.status());
+    }
+}
@@ -0,0 +1,61 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.BookingRequestDTO;
+import com.libraryms.lms.model.TableBooking;
+import com.libraryms.lms.service.BookingService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/bookings")
+public class BookingController {
+
+    @Autowired
+    private BookingService bookingService;
+
+    // {"studentId": 1, "roomNumber": "A", "tableNumber": 3, "start": "2025-07-01T08:00:00", "hours": 4}
+    @PostMapping
+    public ResponseEntity<TableBooking> book(@RequestBody BookingRequestDTO request) {
+        return ResponseEntity.ok(bookingService.book(request));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> cancel(@PathVariable Long id) {
+        bookingService.cancel(id);
+        return ResponseEntity.ok("Booking cancelled");
+    }
+
+    // Tables free for the whole window, e.g. ?start=2025-07-01T18:00:00&hours=3[&room=B]
+    @GetMapping("/available")
+    public ResponseEntity<List<AvailableTableDTO>> getAvailableTables(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(defaultValue = "1") int hours,
+            @RequestParam(required = false) String room) {
+        return ResponseEntity.ok(bookingService.availableTables(start, hours, room));
+    }
+
+    // One table's bookings, defaults to the next seven days
+    @GetMapping("/table/{tableId}")
+    public ResponseEntity<List<TableBooking>> getTableBookings(
+            @PathVariable Long tableId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate start = from != null ? from : LocalDate.now();
+        LocalDate end = to != null ? to : start.plusDays(7);
+        return ResponseEntity.ok(bookingService.bookingsForTable(tableId, start.atStartOfDay(), end.atStartOfDay()));
+    }
+}
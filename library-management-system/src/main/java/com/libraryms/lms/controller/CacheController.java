@@ -0,0 +1,34 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.CacheStatsDTO;
+import com.libraryms.lms.dto.RegionStatsDTO;
+import com.libraryms.lms.service.RoomService;
+import com.libraryms.lms.service.SecondLevelCacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+public class CacheController {
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private SecondLevelCacheStats secondLevelCacheStats;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        return ResponseEntity.ok(roomService.cacheStats());
+    }
+
+    @GetMapping("/second-level")
+    public ResponseEntity<List<RegionStatsDTO>> getSecondLevelCacheStats() {
+        return ResponseEntity.ok(secondLevelCacheStats.regionStats());
+    }
+}
@@ -0,0 +1,39 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.ChangeSnapshotDTO;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.service.ChangeStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/changes")
+public class ChangeStreamController {
+
+    @Autowired
+    private ChangeStream changeStream;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    // Handshake: load this once, then open the stream with since=seq
+    @GetMapping("/snapshot")
+    public ResponseEntity<ChangeSnapshotDTO> getSnapshot() {
+        long seq = changeStream.currentSequence(); // read before the query, see ChangeStream
+        return ResponseEntity.ok(new ChangeSnapshotDTO(seq, studentRepository.findAllStudentTableInfo()));
+    }
+
+    // EventSource sends Last-Event-ID on reconnect, which wins over the initial since
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestParam(required = false) Long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return changeStream.subscribe(lastEventId != null ? lastEventId : since);
+    }
+}
@@ -1,10 +1,12 @@
 package com.libraryms.lms.controller;
 
+import com.libraryms.lms.dto.CleanupReportDTO;
 import com.libraryms.lms.service.DataCleanupService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -14,15 +16,17 @@ public class DataCleanupController {
     @Autowired
     private DataCleanupService dataCleanupService;
 
+    // Optional chunkSize commits the cleanup in slices of that many students
     @DeleteMapping("/students")
-    public ResponseEntity<String> clearStudentData() {
+    public ResponseEntity<?> clearStudentData(@RequestParam(required = false) Integer chunkSize) {
         try {
-            dataCleanupService.clearStudentData();
-            return ResponseEntity.ok("Student data cleared successfully!");
+            CleanupReportDTO report = chunkSize != null && chunkSize > 0
+                    ? dataCleanupService.clearStudentDataInChunks(chunkSize)
+                    : dataCleanupService.clearStudentData();
+            return ResponseEntity.ok(report);
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
                 .body("Error clearing student data: " + e.getMessage());
         }
     }
 }
-
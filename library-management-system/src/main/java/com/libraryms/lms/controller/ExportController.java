@@ -0,0 +1,59 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.StudentFilter;
+import com.libraryms.lms.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Month-end exports, streamed as they are read instead of built in memory like /complete-info.
+ * The body is written on an async request thread after the handler returns.
+ */
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    // GET /api/export/students?format=csv[&room=A][&status=paid|unpaid|overdue][&dueFrom=2025-01-01][&dueTo=2025-01-31]
+    @GetMapping("/students")
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(defaultValue = "ndjson") String format,
+                                                                StudentFilter filter) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        filter.paidStatus(); // reject an unknown status before the response starts
+        return stream("students", exportFormat, out -> exportService.exportStudents(filter, exportFormat, out));
+    }
+
+    // GET /api/export/payments?format=csv[&room=A][&from=2025-01-01][&to=2025-01-31], by payment date
+    @GetMapping("/payments")
+    public ResponseEntity<StreamingResponseBody> exportPayments(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String room,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        return stream("payments", exportFormat, out -> exportService.exportPayments(room, from, to, exportFormat, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> stream(String name, ExportService.Format format,
+                                                                StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(name + "-" + LocalDate.now() + "." + format.getExtension())
+                        .build().toString())
+                .body(body);
+    }
+}
@@ -0,0 +1,63 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.MembershipDueDTO;
+import com.libraryms.lms.dto.MonthlyRevenueDTO;
+import com.libraryms.lms.model.PaymentLedgerEntry;
+import com.libraryms.lms.service.MembershipExpiry;
+import com.libraryms.lms.service.PaymentLedger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/payments")
+public class PaymentController {
+
+    @Autowired
+    private PaymentLedger paymentLedger;
+
+    @Autowired
+    private MembershipExpiry membershipExpiry;
+
+    // Reads the monthly rollups, defaults to the last twelve months
+    @GetMapping("/revenue")
+    public ResponseEntity<List<MonthlyRevenueDTO>> getMonthlyRevenue(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to,
+            @RequestParam(required = false) String room) {
+        YearMonth end = to != null ? to : YearMonth.now();
+        YearMonth start = from != null ? from : end.minusMonths(11);
+        return ResponseEntity.ok(paymentLedger.monthlyRevenue(start, end, room));
+    }
+
+    // Served from the in-memory due date queue, no database access
+    @GetMapping("/overdue")
+    public ResponseEntity<List<MembershipDueDTO>> getOverdueMemberships() {
+        return ResponseEntity.ok(membershipExpiry.overdue());
+    }
+
+    @GetMapping("/expiring")
+    public ResponseEntity<List<MembershipDueDTO>> getExpiringMemberships(@RequestParam(defaultValue = "7") int days) {
+        return ResponseEntity.ok(membershipExpiry.expiringWithin(Math.max(0, days)));
+    }
+
+    @GetMapping("/student/{id}")
+    public ResponseEntity<List<PaymentLedgerEntry>> getPaymentHistory(@PathVariable Long id) {
+        return ResponseEntity.ok(paymentLedger.history(id));
+    }
+
+    @GetMapping("/student/{id}/latest")
+    public ResponseEntity<PaymentLedgerEntry> getLatestPayment(@PathVariable Long id) {
+        return paymentLedger.latest(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,30 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.ReadModelDriftDTO;
+import com.libraryms.lms.service.StudentReadModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/read-model")
+public class ReadModelController {
+
+    @Autowired
+    private StudentReadModel studentReadModel;
+
+    // Differences between the in-memory views and the database, nothing is changed
+    @GetMapping("/drift")
+    public ResponseEntity<ReadModelDriftDTO> getDrift() {
+        return ResponseEntity.ok(studentReadModel.checkDrift());
+    }
+
+    // Same report, then the views are reloaded from the database
+    @PostMapping("/rebuild")
+    public ResponseEntity<ReadModelDriftDTO> rebuild() {
+        return ResponseEntity.ok(studentReadModel.rebuild());
+    }
+}
@@ -0,0 +1,30 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.LibraryStatsDTO;
+import com.libraryms.lms.service.LibraryStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    @Autowired
+    private LibraryStats libraryStats;
+
+    // Served from in-memory counters, no database access
+    @GetMapping
+    public ResponseEntity<LibraryStatsDTO> getStats() {
+        return ResponseEntity.ok(libraryStats.snapshot());
+    }
+
+    @PostMapping("/reconcile")
+    public ResponseEntity<LibraryStatsDTO> reconcile() {
+        libraryStats.reconcile();
+        return ResponseEntity.ok(libraryStats.snapshot());
+    }
+}
@@ -1,22 +1,32 @@
 package com.libraryms.lms.controller;
 
+import com.libraryms.lms.dto.AutoAssignRequestDTO;
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.BatchReportDTO;
+import com.libraryms.lms.dto.BulkImportReportDTO;
 import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.OccupancyConsistencyDTO;
+import com.libraryms.lms.dto.SeatAllocationDTO;
+import com.libraryms.lms.dto.StudentFilter;
+import com.libraryms.lms.dto.StudentPageDTO;
 import com.libraryms.lms.dto.StudentTableInfoDTO;
 import com.libraryms.lms.dto.UpdatePaymentRequest;
 import com.libraryms.lms.model.Student;
-import com.libraryms.lms.model.Payment;
 import com.libraryms.lms.repository.StudentRepository;
-import com.libraryms.lms.repository.PaymentRepository;
+import com.libraryms.lms.service.BulkImportService;
+import com.libraryms.lms.service.LibraryChangeEvent;
+import com.libraryms.lms.service.SeatOccupancyIndex;
+import com.libraryms.lms.service.StudentReadModel;
 import com.libraryms.lms.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
-import java.util.HashMap;
-import com.libraryms.lms.model.StudyTable;
-import com.libraryms.lms.repository.StudyTableRepository;
 
 
 @RestController
@@ -25,15 +35,19 @@ public class StudentController {
 
     private final StudentRepository studentRepository;
     private final StudentService studentService;
-    private final StudyTableRepository studyTableRepository;
-    private final PaymentRepository paymentRepository;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final BulkImportService bulkImportService;
+    private final StudentReadModel studentReadModel;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public StudentController(StudentRepository studentRepository, StudentService studentService, StudyTableRepository studyTableRepository, PaymentRepository paymentRepository) {
+    public StudentController(StudentRepository studentRepository, StudentService studentService, SeatOccupancyIndex seatOccupancyIndex, BulkImportService bulkImportService, StudentReadModel studentReadModel, ApplicationEventPublisher eventPublisher) {
         this.studentRepository = studentRepository;
         this.studentService = studentService;
-        this.studyTableRepository = studyTableRepository;
-        this.paymentRepository = paymentRepository;
+        this.seatOccupancyIndex = seatOccupancyIndex;
+        this.bulkImportService = bulkImportService;
+        this.studentReadModel = studentReadModel;
+        this.eventPublisher = eventPublisher;
     }
 
 
@@ -43,12 +57,26 @@ public class StudentController {
             return ResponseEntity.ok(response);
         }
 
+    // Server-picked seats: {"preferredRoom": "A", "students": [{"name": ..., "contactNumber": ..., "amountPaid": ...}]}
+    // The group stays in one room when any room can hold it; the response lists the seats taken
+    @PostMapping("/auto-assign")
+    public ResponseEntity<List<SeatAllocationDTO>> autoAssignStudents(@RequestBody AutoAssignRequestDTO request) {
+        return ResponseEntity.ok(studentService.createStudentsWithAutoAllocation(request));
+    }
+
+    // Bulk onboarding: CSV body with header name,contactNumber,roomNumber,tableNumber,amountPaid
+    @PostMapping(value = "/import", consumes = {"text/csv", "text/plain"})
+    public ResponseEntity<BulkImportReportDTO> importStudents(InputStream csv) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importCsv(csv));
+    }
 
 
 
     @PostMapping
     public Student createStudent(@RequestBody Student student) {
-        return studentRepository.save(student);
+        Student saved = studentRepository.save(student);
+        eventPublisher.publishEvent(LibraryChangeEvent.studentCreated(saved));
+        return saved;
     }
 
     @GetMapping
@@ -56,47 +84,51 @@ public class StudentController {
         return studentRepository.findAll();
     }
 
+    // Paginated mode: GET /api/students?limit=50[&cursor=...][&name=&rollNumber=&contact=&room=&status=&search=]
+    @GetMapping(params = "limit")
+    public ResponseEntity<StudentPageDTO> getStudentsPage(@RequestParam int limit,
+                                                          @RequestParam(required = false) String cursor,
+                                                          StudentFilter filter) {
+        return ResponseEntity.ok(studentService.findStudentsPage(filter, cursor, limit));
+    }
+
     @GetMapping("/{id}")
     public Student getStudentById(@PathVariable Long id) {
         return studentRepository.findById(id).orElse(null);
     }
     @GetMapping("/student/{id}/table-info")
     public ResponseEntity<StudentTableInfoDTO> getStudentTableInfo(@PathVariable Long id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found"));
-        StudentTableInfoDTO dto = studentService.mapStudentToDTO(student);
+        StudentTableInfoDTO dto = studentReadModel.student(id);
+        if (dto == null) {
+            throw new RuntimeException("Student not found");
+        }
         return ResponseEntity.ok(dto);
     }
 
     @GetMapping("/complete-info")
     public ResponseEntity<List<StudentTableInfoDTO>> getAllStudentsCompleteInfo() {
-        List<Student> students = studentRepository.findAll();
-        List<StudentTableInfoDTO> studentInfos = students.stream()
-                .map(studentService::mapStudentToDTO)
-                .toList();
-        return ResponseEntity.ok(studentInfos);
+        // Served from the in-memory read model, no query
+        return ResponseEntity.ok(studentReadModel.students());
     }
 
     @GetMapping("/available-tables")
-    public ResponseEntity<List<Map<String, Object>>> getAvailableTables() {
-        List<StudyTable> availableTables = studyTableRepository.findByIsOccupiedFalse();
-        List<Map<String, Object>> tableInfo = availableTables.stream()
-                .map(table -> {
-                    Map<String, Object> info = new HashMap<>();
-                    info.put("tableId", table.getId());
-                    info.put("roomNumber", table.getRoomNumber());
-                    info.put("tableNumber", table.getTableNumber());
-                    info.put("roomName", table.getRoom() != null ? table.getRoom().getName() : "Unknown");
-                    return info;
-                })
-                .toList();
-        return ResponseEntity.ok(tableInfo);
+    public ResponseEntity<List<AvailableTableDTO>> getAvailableTables() {
+        return ResponseEntity.ok(seatOccupancyIndex.freeTables());
+    }
+
+    @GetMapping("/available-tables/counts")
+    public ResponseEntity<Map<String, Integer>> getAvailableTableCounts() {
+        return ResponseEntity.ok(seatOccupancyIndex.freeCountByRoom());
+    }
+
+    @GetMapping("/available-tables/consistency")
+    public ResponseEntity<OccupancyConsistencyDTO> checkOccupancyConsistency() {
+        return ResponseEntity.ok(seatOccupancyIndex.checkConsistency());
     }
 
     @GetMapping("/rooms")
     public ResponseEntity<List<Map<String, Object>>> getRooms() {
-        var rooms = studentService.getAllRooms();
-        return ResponseEntity.ok(rooms);
+        return ResponseEntity.ok(studentReadModel.rooms());
     }
 
     @PostMapping("/{id}/payment")
@@ -107,25 +139,17 @@ public class StudentController {
 
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteStudent(@PathVariable Long id) {
-        Student student = studentRepository.findById(id).orElse(null);
-        if (student == null) {
+        if (!studentService.deleteStudent(id)) {
             return ResponseEntity.notFound().build();
         }
-        // Unassign table if assigned
-        if (student.getAssignedTable() != null) {
-            StudyTable table = student.getAssignedTable();
-            table.setStudent(null);
-            table.setOccupied(false);
-            studyTableRepository.save(table);
-        }
-        // Delete payment if exists to satisfy FK constraints
-        if (student.getPayment() != null) {
-            Payment payment = student.getPayment();
-            paymentRepository.delete(payment);
-        }
-        studentRepository.delete(student);
         return ResponseEntity.ok("Student deleted successfully");
     }
 
+    // Body: [1, 2, 3]; all in one transaction, one result per distinct id
+    @PostMapping("/batch-delete")
+    public ResponseEntity<BatchReportDTO> deleteStudents(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(studentService.deleteStudents(ids));
+    }
+
 
 }
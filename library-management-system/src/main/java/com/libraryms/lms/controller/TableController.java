@@ -1,10 +1,13 @@
 package com.libraryms.lms.controller;
 
+import com.libraryms.lms.dto.BatchReportDTO;
 import com.libraryms.lms.service.TableService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/tables")
 public class TableController {
@@ -23,6 +26,13 @@ public class TableController {
         tableService.freeTable(tableId);
         return ResponseEntity.ok("Table freed successfully");
     }
+
+    // Body: [1, 2, 3]; all in one transaction, one result per distinct id
+    @PostMapping("/batch-free")
+    public ResponseEntity<BatchReportDTO> freeTables(@RequestBody List<Long> tableIds) {
+        return ResponseEntity.ok(tableService.freeTables(tableIds));
+    }
+
     @PostMapping("/remove-student")
     public ResponseEntity<String> removeStudentFromTable(@RequestParam Long tableId) {
         tableService.removeStudentFromTable(tableId);
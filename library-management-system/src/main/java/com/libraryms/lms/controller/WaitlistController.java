@@ -0,0 +1,41 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.WaitlistEntryDTO;
+import com.libraryms.lms.dto.WaitlistRequestDTO;
+import com.libraryms.lms.service.Waitlist;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/waitlist")
+public class WaitlistController {
+
+    @Autowired
+    private Waitlist waitlist;
+
+    // {"name": ..., "contactNumber": ..., "amountPaid": ..., "roomNumber": "A" or empty for any, "priority": 0}
+    // Seated straight away when a matching table is free, otherwise queued with its position
+    @PostMapping
+    public ResponseEntity<WaitlistEntryDTO> join(@RequestBody WaitlistRequestDTO request) {
+        return ResponseEntity.ok(waitlist.join(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<WaitlistEntryDTO>> queue() {
+        return ResponseEntity.ok(waitlist.queue());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<WaitlistEntryDTO> cancel(@PathVariable Long id) {
+        return ResponseEntity.ok(waitlist.cancel(id));
+    }
+}
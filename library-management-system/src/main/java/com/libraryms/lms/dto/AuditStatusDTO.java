@@ -0,0 +1,14 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AuditStatusDTO {
+    private int capacity;
+    private int queued;      // waiting for the writer
+    private long written;
+    private long dropped;    // buffer was full, never written
+    private long failed;     // batch insert failed, never written
+}
@@ -0,0 +1,15 @@
+package com.libraryms.lms.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Students to seat automatically, e.g. a group enrollment. Room and table numbers on the
+ * students are ignored; the server picks the seats.
+ */
+@Data
+public class AutoAssignRequestDTO {
+    private String preferredRoom; // optional
+    private List<CreateStudentRequestDTO> students;
+}
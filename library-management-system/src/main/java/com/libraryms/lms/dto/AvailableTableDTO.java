@@ -0,0 +1,13 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AvailableTableDTO {
+    private Long tableId;
+    private String roomNumber;
+    private int tableNumber;
+    private String roomName;
+}
@@ -0,0 +1,23 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDTO {
+    private Long id;
+    private Outcome outcome;
+    private String message;
+
+    public enum Outcome {
+        DELETED,
+        FREED,
+        HANDED_OFF,     // freed and given to the next student on the waitlist
+        ALREADY_FREE,
+        NOT_FOUND,
+        CONFLICT        // changed by another request meanwhile, retry it
+    }
+}
@@ -0,0 +1,16 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BatchReportDTO {
+    private int requested;
+    private int succeeded;
+    private int failed;
+    private long elapsedMillis;
+    private List<BatchItemResultDTO> items; // in request order, duplicates reported once
+}
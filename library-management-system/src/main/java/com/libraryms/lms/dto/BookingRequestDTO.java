@@ -0,0 +1,16 @@
+package com.libraryms.lms.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookingRequestDTO {
+    private Long studentId;
+    // Either the table id or room and table number
+    private Long tableId;
+    private String roomNumber;
+    private Integer tableNumber;
+    private LocalDateTime start; // on the hour
+    private int hours;
+}
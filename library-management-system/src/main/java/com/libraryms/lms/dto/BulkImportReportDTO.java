@@ -0,0 +1,16 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class BulkImportReportDTO {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    private long elapsedMillis;
+    private List<BulkImportRowResultDTO> rows;
+}
@@ -0,0 +1,17 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportRowResultDTO {
+    private long line;
+    private String name;
+    private String roomNumber;
+    private int tableNumber;
+    private boolean imported;
+    private String message;
+}
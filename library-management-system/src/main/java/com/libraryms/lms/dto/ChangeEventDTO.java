@@ -0,0 +1,14 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ChangeEventDTO {
+    private long seq;
+    private String type;
+    private Long studentId;
+    private Long tableId;
+    private StudentTableInfoDTO student; // null for deletes, frees and clears
+}
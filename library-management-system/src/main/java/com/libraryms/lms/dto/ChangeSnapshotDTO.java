@@ -0,0 +1,13 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ChangeSnapshotDTO {
+    private long seq; // open /api/changes?since=seq to receive everything after this snapshot
+    private List<StudentTableInfoDTO> students;
+}
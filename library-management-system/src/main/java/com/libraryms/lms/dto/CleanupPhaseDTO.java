@@ -0,0 +1,12 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class CleanupPhaseDTO {
+    private String phase;
+    private int rowsAffected;
+    private long millis;
+}
@@ -0,0 +1,28 @@
+package com.libraryms.lms.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class CleanupReportDTO {
+    private String mode; // "bulk" or "chunked"
+    private int chunks;
+    private long totalMillis;
+    private List<CleanupPhaseDTO> phases = new ArrayList<>();
+
+    /**
+     * Add the outcome of one statement, merging repeated phases (chunked mode) into one entry.
+     */
+    public void record(String phase, int rowsAffected, long millis) {
+        for (CleanupPhaseDTO existing : phases) {
+            if (existing.getPhase().equals(phase)) {
+                existing.setRowsAffected(existing.getRowsAffected() + rowsAffected);
+                existing.setMillis(existing.getMillis() + millis);
+                return;
+            }
+        }
+        phases.add(new CleanupPhaseDTO(phase, rowsAffected, millis));
+    }
+}
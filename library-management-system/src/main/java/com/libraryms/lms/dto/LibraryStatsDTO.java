@@ -0,0 +1,20 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LibraryStatsDTO {
+    private long totalStudents;
+    private int totalTables;
+    private int occupiedTables;
+    private int availableTables;
+    private double totalRevenue;
+    private long overdueStudents;
+    private List<RoomOccupancyDTO> rooms;
+    private LocalDateTime lastReconciledAt;
+}
@@ -0,0 +1,22 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipDueDTO {
+    private Long studentId;
+    private String studentName;
+    private String contactNumber;
+    private String roomNumber;
+    private Integer tableNumber;
+    private Long tableId;
+    private Double amountPaid;
+    private LocalDate dueDate;
+    private boolean expired;
+}
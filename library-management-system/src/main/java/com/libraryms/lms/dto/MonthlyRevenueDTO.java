@@ -0,0 +1,16 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+@AllArgsConstructor
+public class MonthlyRevenueDTO {
+    private YearMonth month;
+    private String roomNumber;
+    private BigDecimal revenue;
+    private long payments;
+}
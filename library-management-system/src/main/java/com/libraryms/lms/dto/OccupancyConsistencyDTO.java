@@ -0,0 +1,14 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class OccupancyConsistencyDTO {
+    private int tablesChecked;
+    private boolean consistent;
+    private List<String> mismatches;
+}
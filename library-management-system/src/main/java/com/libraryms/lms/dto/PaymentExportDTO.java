@@ -0,0 +1,22 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * A payment ledger row as exported. Built by a JPQL constructor expression, so streamed
+ * rows are never attached to the persistence context.
+ */
+@Data
+@AllArgsConstructor
+public class PaymentExportDTO {
+    private Long id;
+    private Long studentId;
+    private String roomNumber;
+    private double amount;
+    private Integer durationMonths;
+    private LocalDate paymentDate;
+    private LocalDate validUntil;
+}
@@ -0,0 +1,21 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ReadModelDriftDTO {
+    private int databaseStudents;
+    private int modelStudents;
+    private int missing;     // in the database, not in the model
+    private int unexpected;  // in the model, not in the database
+    private int stale;       // in both, but the rows differ
+    private List<String> examples; // first few differences
+    private OccupancyConsistencyDTO seats;
+    private boolean rebuilt;
+    private LocalDateTime checkedAt;
+}
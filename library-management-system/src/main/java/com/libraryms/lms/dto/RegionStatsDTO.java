@@ -0,0 +1,14 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RegionStatsDTO {
+    private String region;
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRate;
+}
@@ -0,0 +1,12 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RoomDTO {
+    private Long id;
+    private String roomNumber;
+    private String name;
+}
@@ -0,0 +1,13 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class RoomOccupancyDTO {
+    private String roomNumber;
+    private int totalTables;
+    private int occupiedTables;
+    private int freeTables;
+}
@@ -0,0 +1,14 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class SeatAllocationDTO {
+    private Long studentId;
+    private String studentName;
+    private String roomNumber;
+    private int tableNumber;
+    private Long tableId;
+}
@@ -0,0 +1,17 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatDTO {
+    private Long tableId;
+    private Long roomId;
+    private String roomNumber;
+    private String roomName;
+    private int tableNumber;
+    private boolean occupied;
+}
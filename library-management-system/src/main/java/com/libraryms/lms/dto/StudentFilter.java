@@ -0,0 +1,59 @@
+package com.libraryms.lms.dto;
+
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+@Data
+public class StudentFilter {
+    private String name;
+    private String rollNumber;
+    private String contact;
+    private String room;
+    private String status; // paid, unpaid or overdue
+    private String search; // matches name, roll number, contact or room
+
+    // Due date range, both ends inclusive
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueFrom;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dueTo;
+
+    /**
+     * Room number as stored, or null for any room.
+     */
+    public String roomNumber() {
+        return room == null || room.isBlank() ? null : room.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * True for "paid", false for "unpaid", null otherwise.
+     */
+    public Boolean paidStatus() {
+        return switch (normalizedStatus()) {
+            case "paid" -> true;
+            case "unpaid" -> false;
+            default -> null;
+        };
+    }
+
+    /**
+     * Today for "overdue" (due dates before it match), null otherwise.
+     */
+    public LocalDate overdueBefore() {
+        return normalizedStatus().equals("overdue") ? LocalDate.now() : null;
+    }
+
+    private String normalizedStatus() {
+        if (status == null || status.isBlank()) {
+            return "";
+        }
+        String normalized = status.trim().toLowerCase(Locale.ROOT);
+        if (!normalized.equals("paid") && !normalized.equals("unpaid") && !normalized.equals("overdue")) {
+            throw new IllegalArgumentException("Unknown status: " + status);
+        }
+        return normalized;
+    }
+}
@@ -0,0 +1,13 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class StudentPageDTO {
+    private List<StudentTableInfoDTO> items;
+    private String nextCursor; // null when this is the last page
+}
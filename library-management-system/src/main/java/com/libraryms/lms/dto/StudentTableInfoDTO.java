@@ -1,10 +1,12 @@
 package com.libraryms.lms.dto;
 
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
 public class StudentTableInfoDTO {
     private Long id;
     private String studentName;
@@ -16,4 +18,25 @@ public class StudentTableInfoDTO {
     private boolean paid;
     private LocalDate paymentDate;
     private LocalDate dueDate;
+
+    /**
+     * Used by the JPQL constructor expression in StudentRepository.
+     * Table and payment columns come from left joins, so they may be null.
+     */
+    public StudentTableInfoDTO(Long id, String studentName, String rollNumber, String contactNumber,
+                               Integer tableNumber, String roomNumber,
+                               Double amountPaid, Boolean paid, LocalDate paymentDate, LocalDate dueDate) {
+        this.id = id;
+        this.studentName = studentName;
+        this.rollNumber = rollNumber;
+        this.contactNumber = contactNumber;
+        this.tableNumber = tableNumber != null ? tableNumber : 0;
+        if (roomNumber != null && !roomNumber.isEmpty()) {
+            this.roomNumber = roomNumber.substring(0, 1).toUpperCase();
+        }
+        this.amountPaid = amountPaid != null ? amountPaid : 0;
+        this.paid = paid != null && paid;
+        this.paymentDate = paymentDate;
+        this.dueDate = dueDate;
+    }
 }
@@ -0,0 +1,22 @@
+package com.libraryms.lms.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class TableOccupantDTO {
+    private Long tableId;
+    private Long studentId;
+    private boolean occupied;
+
+    /**
+     * Used by the JPQL constructor expressions in StudentRepository and StudyTableRepository.
+     * Either side may come from a left join, so it may be null.
+     */
+    public TableOccupantDTO(Long tableId, Long studentId, Boolean occupied) {
+        this.tableId = tableId;
+        this.studentId = studentId;
+        this.occupied = occupied != null && occupied;
+    }
+}
@@ -0,0 +1,20 @@
+package com.libraryms.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class WaitlistEntryDTO {
+    private Long id;
+    private String name;
+    private String contactNumber;
+    private String roomNumber;
+    private int priority;
+    private String status;
+    private LocalDateTime requestedAt;
+    private Integer position;  // 1-based place in the queue while waiting
+    private Long studentId;    // set once seated
+}
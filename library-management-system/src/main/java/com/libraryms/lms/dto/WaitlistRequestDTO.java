@@ -0,0 +1,12 @@
+package com.libraryms.lms.dto;
+
+import lombok.Data;
+
+@Data
+public class WaitlistRequestDTO {
+    private String name;
+    private String contactNumber;
+    private double amountPaid;
+    private String roomNumber; // empty for any room
+    private int priority;      // higher is served first
+}
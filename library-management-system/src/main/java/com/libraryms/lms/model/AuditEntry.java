@@ -0,0 +1,55 @@
+package com.libraryms.lms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One committed seat or payment change, written by {@link com.libraryms.lms.service.AuditLog}.
+ * Rows are only ever inserted. Student and table ids are plain columns so the history
+ * outlives deleted students, and the seat is copied so it reads the same after a layout change.
+ */
+@Entity
+@Immutable
+@Table(name = "audit_entry", indexes = {
+        @Index(name = "idx_audit_student", columnList = "student_id, id"),
+        @Index(name = "idx_audit_table", columnList = "table_id, id"),
+        @Index(name = "idx_audit_time", columnList = "occurred_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_entry_seq")
+    @SequenceGenerator(name = "audit_entry_seq", sequenceName = "audit_entry_seq", allocationSize = 50)
+    private Long id;
+
+    // LibraryChangeEvent type, e.g. TABLE_OCCUPIED
+    @Column(nullable = false, length = 32)
+    private String action;
+
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "table_id")
+    private Long tableId;
+
+    private String roomNumber;
+
+    private Integer tableNumber;
+
+    // Payment state after the change, set for payment updates and new students
+    private Double amount;
+
+    private Boolean paid;
+
+    private LocalDate dueDate;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+}
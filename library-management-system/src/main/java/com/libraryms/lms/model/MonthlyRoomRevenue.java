@@ -0,0 +1,44 @@
+package com.libraryms.lms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Revenue of one room in one calendar month, kept up to date by PaymentLedger in the
+ * same transaction as every ledger insert.
+ */
+@Entity
+@Table(name = "monthly_room_revenue")
+@IdClass(MonthlyRoomRevenue.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRoomRevenue {
+
+    public static final String NO_ROOM = "-";
+
+    // First day of the month
+    @Id
+    @Column(name = "revenue_month")
+    private LocalDate month;
+
+    @Id
+    private String roomNumber;
+
+    @Column(precision = 14, scale = 2, nullable = false)
+    private BigDecimal revenue;
+
+    private long payments;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate month;
+        private String roomNumber;
+    }
+}
@@ -2,17 +2,20 @@ package com.libraryms.lms.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDate;
 
 @Entity
+@Table(indexes = @Index(name = "idx_payment_due_date", columnList = "due_date"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Payment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_seq")
+    @SequenceGenerator(name = "payment_seq", sequenceName = "payment_seq", allocationSize = 50)
     private Long id;
 
     private double amount;
@@ -26,6 +29,10 @@ public class Payment {
     // Number of months of validity paid for
     private Integer durationMonths;
 
+    // Set by MembershipExpiry once the due date has passed, cleared when the membership is renewed
+    @ColumnDefault("false")
+    private boolean expired;
+
     @OneToOne
     private Student student;
 }
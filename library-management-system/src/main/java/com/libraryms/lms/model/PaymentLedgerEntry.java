@@ -0,0 +1,45 @@
+package com.libraryms.lms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * One fee payment. Rows are only ever inserted: the student's current state lives in
+ * {@link Payment}, this table keeps the history. The student id is a plain column so the
+ * history outlives deleted students.
+ */
+@Entity
+@Immutable
+@Table(name = "payment_ledger", indexes = {
+        @Index(name = "idx_payment_ledger_student", columnList = "student_id, id"),
+        @Index(name = "idx_payment_ledger_date", columnList = "payment_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_ledger_seq")
+    @SequenceGenerator(name = "payment_ledger_seq", sequenceName = "payment_ledger_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // Room the student sat in when paying, MonthlyRoomRevenue.NO_ROOM if unseated
+    @Column(nullable = false)
+    private String roomNumber;
+
+    private double amount;
+
+    private Integer durationMonths;
+
+    @Column(name = "payment_date", nullable = false)
+    private LocalDate paymentDate;
+
+    private LocalDate validUntil;
+}
@@ -2,15 +2,23 @@ package com.libraryms.lms.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_study_table_room_number", columnNames = {"room_id", "table_number"}),
+        indexes = @Index(name = "idx_study_table_occupied", columnList = "is_occupied"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "studyTable")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class StudyTable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_table_seq")
+    @SequenceGenerator(name = "study_table_seq", sequenceName = "study_table_seq", allocationSize = 50)
     private Long id;
 
     private String roomNumber;
@@ -23,6 +31,11 @@ public class StudyTable {
     @JoinColumn(name = "room_id")
     private Room room;
 
+    // Optimistic lock so concurrent assignments of the same table cannot both commit
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
 
 
 
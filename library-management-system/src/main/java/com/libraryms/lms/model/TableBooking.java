@@ -0,0 +1,41 @@
+package com.libraryms.lms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An hourly slot on a study table held by one student, for tables not taken for the whole
+ * month. Table and student ids are plain columns, like the payment ledger, so past bookings
+ * stay as history after a student is deleted.
+ */
+@Entity
+@Table(name = "table_booking", indexes = {
+        @Index(name = "idx_table_booking_table", columnList = "table_id, start_time"),
+        @Index(name = "idx_table_booking_student", columnList = "student_id, start_time"),
+        @Index(name = "idx_table_booking_end", columnList = "end_time")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableBooking {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "table_booking_seq")
+    @SequenceGenerator(name = "table_booking_seq", sequenceName = "table_booking_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "table_id", nullable = false)
+    private Long tableId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // Whole hours, end exclusive
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,55 @@
+package com.libraryms.lms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * A student waiting for a table. Entries are served highest priority first and first come,
+ * first served within a priority; seated and cancelled entries are kept as history.
+ */
+@Entity
+@Table(name = "waitlist_entry", indexes = {
+        @Index(name = "idx_waitlist_queue", columnList = "status, priority, id")
+})
+@Data
+@NoArgsConstructor
+public class WaitlistEntry {
+
+    public enum Status { WAITING, SEATED, CANCELLED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entry_seq")
+    @SequenceGenerator(name = "waitlist_entry_seq", sequenceName = "waitlist_entry_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String name;
+
+    private String contactNumber;
+
+    private double amountPaid;
+
+    // Null when any room will do
+    private String roomNumber;
+
+    private int priority;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status = Status.WAITING;
+
+    @Column(nullable = false)
+    private LocalDateTime requestedAt;
+
+    private LocalDateTime closedAt;
+
+    // Plain column, like the payment ledger, so the history outlives the student
+    private Long studentId;
+
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+}
@@ -0,0 +1,31 @@
+package com.libraryms.lms.repository;
+
+import com.libraryms.lms.model.AuditEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditEntryRepository extends JpaRepository<AuditEntry, Long> {
+
+    // Newest first; pass the last id seen as beforeId for the next page.
+    // All filters are optional, both ends of the time range inclusive
+    @Query("""
+            select a from AuditEntry a
+            where (:studentId is null or a.studentId = :studentId)
+              and (:tableId is null or a.tableId = :tableId)
+              and (:from is null or a.occurredAt >= :from)
+              and (:to is null or a.occurredAt <= :to)
+              and (:beforeId is null or a.id < :beforeId)
+            order by a.id desc
+            """)
+    List<AuditEntry> search(@Param("studentId") Long studentId,
+                            @Param("tableId") Long tableId,
+                            @Param("from") LocalDateTime from,
+                            @Param("to") LocalDateTime to,
+                            @Param("beforeId") Long beforeId,
+                            Limit limit);
+}
@@ -0,0 +1,39 @@
+package com.libraryms.lms.repository;
+
+import com.libraryms.lms.model.MonthlyRoomRevenue;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MonthlyRoomRevenueRepository extends JpaRepository<MonthlyRoomRevenue, MonthlyRoomRevenue.Key> {
+
+    // Row-level increment, so concurrent payments never lose an update
+    @Modifying
+    @Query("""
+            update MonthlyRoomRevenue r
+            set r.revenue = r.revenue + :amount, r.payments = r.payments + :count
+            where r.month = :month and r.roomNumber = :roomNumber
+            """)
+    int addRevenue(@Param("month") LocalDate month,
+                   @Param("roomNumber") String roomNumber,
+                   @Param("amount") BigDecimal amount,
+                   @Param("count") long count);
+
+    // Empty rollup row; a row that already exists (or is being inserted concurrently) is left alone
+    @Modifying
+    @Query("""
+            insert into MonthlyRoomRevenue (month, roomNumber, revenue, payments)
+            values (:month, :roomNumber, :zero, 0)
+            on conflict do nothing
+            """)
+    int createIfAbsent(@Param("month") LocalDate month,
+                       @Param("roomNumber") String roomNumber,
+                       @Param("zero") BigDecimal zero);
+
+    List<MonthlyRoomRevenue> findByMonthBetweenOrderByMonthAscRoomNumberAsc(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,38 @@
+package com.libraryms.lms.repository;
+
+import com.libraryms.lms.dto.PaymentExportDTO;
+import com.libraryms.lms.model.PaymentLedgerEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PaymentLedgerRepository extends JpaRepository<PaymentLedgerEntry, Long> {
+
+    // Both served by the (student_id, id) index
+    List<PaymentLedgerEntry> findByStudentIdOrderByIdDesc(Long studentId);
+
+    Optional<PaymentLedgerEntry> findTopByStudentIdOrderByIdDesc(Long studentId);
+
+    // Export through a forward-only cursor, see StudentRepository.streamStudentTableInfo
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.libraryms.lms.dto.PaymentExportDTO(
+                e.id, e.studentId, e.roomNumber, e.amount, e.durationMonths, e.paymentDate, e.validUntil)
+            from PaymentLedgerEntry e
+            where (:room is null or e.roomNumber = :room)
+              and (:from is null or e.paymentDate >= :from)
+              and (:to is null or e.paymentDate <= :to)
+            order by e.id
+            """)
+    Stream<PaymentExportDTO> streamForExport(@Param("room") String room,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to);
+}
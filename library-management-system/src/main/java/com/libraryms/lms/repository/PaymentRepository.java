@@ -1,10 +1,56 @@
 package com.libraryms.lms.repository;
 
+import com.libraryms.lms.dto.MembershipDueDTO;
 import com.libraryms.lms.model.Payment;
-import com.libraryms.lms.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
-    Payment findTopByStudentOrderByPaymentDateDesc(Student student);
+    // Current payment of a student (one row per student, unique student_id); history is in PaymentLedgerEntry.
+    // Compares the foreign key directly: the derived query joined student and was planned from its primary key
+    @Query("select p from Payment p where p.student.id = :studentId")
+    Optional<Payment> findByStudentId(@Param("studentId") Long studentId);
+
+    // Ordered by the due_date index; students without a due date are not tracked
+    @Query("""
+            select new com.libraryms.lms.dto.MembershipDueDTO(
+                s.id, s.name, s.contactNumber, r.roomNumber, t.tableNumber, t.id,
+                p.amount, p.dueDate, p.expired)
+            from Payment p
+            join p.student s
+            left join StudyTable t on t.student = s
+            left join t.room r
+            where p.dueDate is not null
+            order by p.dueDate
+            """)
+    List<MembershipDueDTO> findAllDueDates();
+
+    // The due date check keeps a renewal that committed after the sweep's snapshot from being flagged
+    @Modifying
+    @Query("""
+            update Payment p set p.expired = true
+            where p.student.id in :studentIds and p.dueDate < :today and p.expired = false
+            """)
+    int markExpired(@Param("studentIds") Collection<Long> studentIds, @Param("today") LocalDate today);
+
+    @Modifying
+    @Query("delete from Payment")
+    int deleteAllPayments();
+
+    @Modifying
+    @Query("delete from Payment p where p.student.id in :studentIds")
+    int deleteByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+
+    // Payments that never got linked to a student
+    @Modifying
+    @Query("delete from Payment p where p.student is null")
+    int deleteUnlinked();
 }
@@ -1,9 +1,124 @@
 package com.libraryms.lms.repository;
 
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.dto.TableOccupantDTO;
 import com.libraryms.lms.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
     // Example custom query if needed:
     // Optional<Student> findByEmail(String email);
+
+    // Single select that joins table, room and payment straight into the DTO
+    // (avoids the per-student selects caused by the eager one-to-one links)
+    @Query("""
+            select new com.libraryms.lms.dto.StudentTableInfoDTO(
+                s.id, s.name, s.rollNumber, s.contactNumber,
+                t.tableNumber, r.roomNumber,
+                p.amount, p.paid, p.paymentDate, p.dueDate)
+            from Student s
+            left join StudyTable t on t.student = s
+            left join t.room r
+            left join Payment p on p.student = s
+            order by s.id
+            """)
+    List<StudentTableInfoDTO> findAllStudentTableInfo();
+
+    // Keyset page: seeks past the last id of the previous page instead of using an offset,
+    // so every page costs the same no matter how deep the client has scrolled.
+    // String filters are expected as lower-case LIKE patterns, null means "no filter".
+    @Query("""
+            select new com.libraryms.lms.dto.StudentTableInfoDTO(
+                s.id, s.name, s.rollNumber, s.contactNumber,
+                t.tableNumber, r.roomNumber,
+                p.amount, p.paid, p.paymentDate, p.dueDate)
+            from Student s
+            left join StudyTable t on t.student = s
+            left join t.room r
+            left join Payment p on p.student = s
+            where s.id > :afterId
+              and (:name is null or lower(s.name) like :name)
+              and (:rollNumber is null or lower(s.rollNumber) like :rollNumber)
+              and (:contact is null or s.contactNumber like :contact)
+              and (:room is null or upper(r.roomNumber) = :room)
+              and (:paid is null or coalesce(p.paid, false) = :paid)
+              and (:overdueBefore is null or p.dueDate < :overdueBefore)
+              and (:dueFrom is null or p.dueDate >= :dueFrom)
+              and (:dueTo is null or p.dueDate <= :dueTo)
+              and (:search is null
+                   or lower(s.name) like :search
+                   or lower(s.rollNumber) like :search
+                   or s.contactNumber like :search
+                   or lower(r.roomNumber) like :search)
+            order by s.id
+            """)
+    List<StudentTableInfoDTO> findStudentTableInfoPage(@Param("afterId") long afterId,
+                                                       @Param("name") String name,
+                                                       @Param("rollNumber") String rollNumber,
+                                                       @Param("contact") String contact,
+                                                       @Param("room") String room,
+                                                       @Param("paid") Boolean paid,
+                                                       @Param("overdueBefore") LocalDate overdueBefore,
+                                                       @Param("dueFrom") LocalDate dueFrom,
+                                                       @Param("dueTo") LocalDate dueTo,
+                                                       @Param("search") String search,
+                                                       Limit limit);
+
+    // Export: room, status and due date filters without paging, read through a forward-only cursor.
+    // The fetch size keeps the driver from loading the whole result (MySQL needs
+    // useCursorFetch=true in the URL for it). Call inside a transaction and close the stream.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select new com.libraryms.lms.dto.StudentTableInfoDTO(
+                s.id, s.name, s.rollNumber, s.contactNumber,
+                t.tableNumber, r.roomNumber,
+                p.amount, p.paid, p.paymentDate, p.dueDate)
+            from Student s
+            left join StudyTable t on t.student = s
+            left join t.room r
+            left join Payment p on p.student = s
+            where (:room is null or upper(r.roomNumber) = :room)
+              and (:paid is null or coalesce(p.paid, false) = :paid)
+              and (:overdueBefore is null or p.dueDate < :overdueBefore)
+              and (:dueFrom is null or p.dueDate >= :dueFrom)
+              and (:dueTo is null or p.dueDate <= :dueTo)
+            order by s.id
+            """)
+    Stream<StudentTableInfoDTO> streamStudentTableInfo(@Param("room") String room,
+                                                       @Param("paid") Boolean paid,
+                                                       @Param("overdueBefore") LocalDate overdueBefore,
+                                                       @Param("dueFrom") LocalDate dueFrom,
+                                                       @Param("dueTo") LocalDate dueTo);
+
+    // Existing students among the ids, with their table if seated
+    @Query("""
+            select new com.libraryms.lms.dto.TableOccupantDTO(t.id, s.id, t.isOccupied)
+            from Student s
+            left join StudyTable t on t.student = s
+            where s.id in :ids
+            """)
+    List<TableOccupantDTO> findSeats(@Param("ids") Collection<Long> ids);
+
+    @Query("select s.id from Student s where s.id > :afterId order by s.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Limit limit);
+
+    @Modifying
+    @Query("delete from Student")
+    int deleteAllStudents();
+
+    @Modifying
+    @Query("delete from Student s where s.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -1,10 +1,16 @@
 package com.libraryms.lms.repository; // ✅ your package name
 
+import com.libraryms.lms.dto.SeatDTO;
+import com.libraryms.lms.dto.TableOccupantDTO;
 import com.libraryms.lms.model.Room;
 import com.libraryms.lms.model.StudyTable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,4 +22,67 @@ public interface StudyTableRepository extends JpaRepository<StudyTable, Long> {
     List<StudyTable> findByIsOccupiedFalse();
     
     List<StudyTable> findByRoom(Room room);
+
+    @Query("select t.id from StudyTable t where t.student.id = :studentId")
+    Optional<Long> findTableIdByStudentId(@Param("studentId") Long studentId);
+
+    // Flat seat rows for the in-memory occupancy index (no entities, no lazy room loads)
+    @Query("""
+            select new com.libraryms.lms.dto.SeatDTO(t.id, r.id, r.roomNumber, r.name, t.tableNumber, t.isOccupied)
+            from StudyTable t
+            join t.room r
+            order by r.roomNumber, t.tableNumber
+            """)
+    List<SeatDTO> findAllSeats();
+
+    @Query("""
+            select new com.libraryms.lms.dto.SeatDTO(t.id, r.id, r.roomNumber, r.name, t.tableNumber, t.isOccupied)
+            from StudyTable t
+            join t.room r
+            where r.roomNumber = :roomNumber
+            order by t.tableNumber
+            """)
+    List<SeatDTO> findSeatsByRoomNumber(@Param("roomNumber") String roomNumber);
+
+    // Bulk unassign; bumps the version so stale copies held elsewhere cannot overwrite it
+    @Modifying
+    @Query("""
+            update StudyTable t
+            set t.student = null, t.isOccupied = false, t.version = t.version + 1
+            where t.student is not null or t.isOccupied = true
+            """)
+    int unassignAll();
+
+    // Tables flagged occupied without a student; clears no one's seat
+    @Modifying
+    @Query("""
+            update StudyTable t
+            set t.isOccupied = false, t.version = t.version + 1
+            where t.student is null and t.isOccupied = true
+            """)
+    int unassignOrphaned();
+
+    @Modifying
+    @Query("""
+            update StudyTable t
+            set t.student = null, t.isOccupied = false, t.version = t.version + 1
+            where t.student.id in :studentIds
+            """)
+    int unassignStudents(@Param("studentIds") Collection<Long> studentIds);
+
+    @Modifying
+    @Query("""
+            update StudyTable t
+            set t.student = null, t.isOccupied = false, t.version = t.version + 1
+            where t.id in :tableIds
+            """)
+    int unassignTables(@Param("tableIds") Collection<Long> tableIds);
+
+    @Query("""
+            select new com.libraryms.lms.dto.TableOccupantDTO(t.id, s.id, t.isOccupied)
+            from StudyTable t
+            left join t.student s
+            where t.id in :tableIds
+            """)
+    List<TableOccupantDTO> findOccupants(@Param("tableIds") Collection<Long> tableIds);
 }
@@ -0,0 +1,45 @@
+package com.libraryms.lms.repository;
+
+import com.libraryms.lms.model.TableBooking;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface TableBookingRepository extends JpaRepository<TableBooking, Long> {
+
+    // Bookings not yet over, one keyset batch at a time for the in-memory schedule
+    @Query("""
+            select b from TableBooking b
+            where b.endTime > :after and b.id > :lastId
+            order by b.id
+            """)
+    List<TableBooking> findEndingAfter(@Param("after") LocalDateTime after, @Param("lastId") long lastId, Limit limit);
+
+    // Served by the (table_id, start_time) index
+    @Query("""
+            select b from TableBooking b
+            where b.tableId = :tableId and b.startTime < :to and b.endTime > :from
+            order by b.startTime
+            """)
+    List<TableBooking> findForTable(@Param("tableId") Long tableId,
+                                    @Param("from") LocalDateTime from,
+                                    @Param("to") LocalDateTime to);
+
+    // Served by the (student_id, start_time) index
+    boolean existsByStudentIdAndStartTimeLessThanAndEndTimeGreaterThan(Long studentId, LocalDateTime end,
+                                                                       LocalDateTime start);
+
+    List<TableBooking> findByStudentIdAndEndTimeGreaterThan(Long studentId, LocalDateTime after);
+
+    List<TableBooking> findByStudentIdInAndEndTimeGreaterThan(Collection<Long> studentIds, LocalDateTime after);
+
+    @Modifying
+    @Query("delete from TableBooking b where b.endTime > :after")
+    int deleteEndingAfter(@Param("after") LocalDateTime after);
+}
@@ -0,0 +1,42 @@
+package com.libraryms.lms.repository;
+
+import com.libraryms.lms.model.WaitlistEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface WaitlistRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    // Head of the queue for seats in the given rooms, served by the (status, priority, id) index.
+    // A locking read, so it sees hand-offs committed after this transaction started
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select w from WaitlistEntry w
+            where w.status = com.libraryms.lms.model.WaitlistEntry.Status.WAITING
+              and (w.roomNumber is null or w.roomNumber in :rooms)
+            order by w.priority desc, w.id
+            """)
+    List<WaitlistEntry> findQueueFor(@Param("rooms") Collection<String> rooms, Limit limit);
+
+    @Query("""
+            select w from WaitlistEntry w
+            where w.status = com.libraryms.lms.model.WaitlistEntry.Status.WAITING
+            order by w.priority desc, w.id
+            """)
+    List<WaitlistEntry> findQueue();
+
+    @Query("""
+            select count(w) from WaitlistEntry w
+            where w.status = com.libraryms.lms.model.WaitlistEntry.Status.WAITING
+              and (w.priority > :priority or (w.priority = :priority and w.id < :id))
+            """)
+    long countAhead(@Param("priority") int priority, @Param("id") Long id);
+
+    boolean existsByStatus(WaitlistEntry.Status status);
+}
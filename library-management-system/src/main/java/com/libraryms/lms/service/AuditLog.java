@@ -0,0 +1,204 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AuditStatusDTO;
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.model.AuditEntry;
+import com.libraryms.lms.repository.AuditEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only history of seat and payment changes in the audit_entry table.
+ * <p>
+ * Every committed {@link LibraryChangeEvent} becomes an entry in a bounded in-memory buffer;
+ * the committing thread only offers it and never waits. A single writer thread drains the
+ * buffer and inserts whatever has piled up as JDBC batches. When the writer falls behind
+ * and the buffer is full, new entries are dropped and counted rather than slowing requests
+ * down; library.audit.entries{outcome=dropped} and library.audit.queued show how close that is.
+ */
+@Component
+public class AuditLog {
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final AuditEntryRepository auditEntryRepository;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final ArrayBlockingQueue<AuditEntry> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+
+    // Held while a batch is drained and written, so flush() and the writer keep entries in order
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile Thread writer;
+
+    private final Counter written;
+    private final Counter dropped;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+    private final Timer flushTimer;
+
+    public AuditLog(AuditEntryRepository auditEntryRepository,
+                    SeatOccupancyIndex seatOccupancyIndex,
+                    PlatformTransactionManager transactionManager,
+                    MeterRegistry meterRegistry,
+                    @Value("${library.audit.buffer-size:10000}") int bufferSize,
+                    @Value("${library.audit.batch-size:500}") int batchSize,
+                    @Value("${library.audit.flush-interval-ms:100}") long flushIntervalMs) {
+        this.auditEntryRepository = auditEntryRepository;
+        this.seatOccupancyIndex = seatOccupancyIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+
+        Gauge.builder("library.audit.queued", buffer, ArrayBlockingQueue::size)
+                .description("Audit entries waiting for the writer")
+                .register(meterRegistry);
+        this.written = entries(meterRegistry, "written");
+        this.dropped = entries(meterRegistry, "dropped");
+        this.failed = entries(meterRegistry, "failed");
+        this.batchSizes = DistributionSummary.builder("library.audit.batch")
+                .description("Audit entries per insert batch")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("library.audit.flush")
+                .description("Time to insert one audit batch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::run, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        Thread current = writer;
+        writer = null;
+        current.interrupt();
+        current.join(TimeUnit.SECONDS.toMillis(5));
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(LibraryChangeEvent event) {
+        AuditEntry entry = new AuditEntry();
+        entry.setAction(event.type().name());
+        entry.setStudentId(event.studentId());
+        entry.setTableId(event.tableId());
+        entry.setOccurredAt(LocalDateTime.now());
+        StudentTableInfoDTO student = event.student();
+        if (student != null) {
+            if (student.getRoomNumber() != null) {
+                entry.setRoomNumber(student.getRoomNumber());
+                entry.setTableNumber(student.getTableNumber());
+            }
+            entry.setAmount(student.getAmountPaid());
+            entry.setPaid(student.isPaid());
+            entry.setDueDate(student.getDueDate());
+        } else if (event.tableId() != null) {
+            // Freed and deleted events carry only the table id; the index knows its seat
+            List<AvailableTableDTO> seat = seatOccupancyIndex.describe(List.of(event.tableId()));
+            if (!seat.isEmpty()) {
+                entry.setRoomNumber(seat.get(0).getRoomNumber());
+                entry.setTableNumber(seat.get(0).getTableNumber());
+            }
+        }
+        if (!buffer.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Write everything queued so far on the calling thread.
+     */
+    public void flush() {
+        while (!buffer.isEmpty()) {
+            writeBatch();
+        }
+    }
+
+    /**
+     * Entries for a student and/or table within a time range, newest first. Every filter is
+     * optional; pass the smallest id of a page as beforeId to get the next one. Entries still
+     * in the buffer are not included.
+     */
+    public List<AuditEntry> search(Long studentId, Long tableId, LocalDateTime from, LocalDateTime to,
+                                   Long beforeId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return auditEntryRepository.search(studentId, tableId, from, to, beforeId, Limit.of(pageSize));
+    }
+
+    public AuditStatusDTO status() {
+        return new AuditStatusDTO(buffer.size() + buffer.remainingCapacity(), buffer.size(),
+                (long) written.count(), (long) dropped.count(), (long) failed.count());
+    }
+
+    // Sleeps while the buffer is empty rather than blocking on it, so producers never signal
+    // anyone and entries are only ever taken under the write lock, in order
+    private void run() {
+        while (writer != null) {
+            try {
+                if (buffer.isEmpty()) {
+                    Thread.sleep(flushIntervalMs);
+                } else {
+                    writeBatch();
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void writeBatch() {
+        writeLock.lock();
+        try {
+            List<AuditEntry> batch = new ArrayList<>(batchSize);
+            buffer.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            batchSizes.record(batch.size());
+            flushTimer.record(() -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> auditEntryRepository.saveAll(batch));
+                    written.increment(batch.size());
+                } catch (RuntimeException e) {
+                    // Never retried: a failing insert must not wedge the writer or grow the buffer
+                    failed.increment(batch.size());
+                    System.out.println("⚠️ Could not write " + batch.size() + " audit entries: " + e.getMessage());
+                }
+            });
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static Counter entries(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("library.audit.entries")
+                .description("Audit entries by what became of them")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
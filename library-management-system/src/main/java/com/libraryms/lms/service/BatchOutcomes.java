@@ -0,0 +1,60 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.BatchItemResultDTO;
+import com.libraryms.lms.dto.BatchItemResultDTO.Outcome;
+import com.libraryms.lms.dto.BatchReportDTO;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-id results of a batch delete or free, reported in request order.
+ */
+final class BatchOutcomes {
+
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private final long started = System.currentTimeMillis();
+    private final List<Long> ids;
+    private final Map<Long, BatchItemResultDTO> results = new HashMap<>();
+
+    BatchOutcomes(List<Long> requested) {
+        if (requested == null || requested.isEmpty()) {
+            throw new RuntimeException("No ids given");
+        }
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(requested);
+        distinct.remove(null);
+        if (distinct.size() > MAX_BATCH_SIZE) {
+            throw new RuntimeException("At most " + MAX_BATCH_SIZE + " ids per request");
+        }
+        this.ids = List.copyOf(distinct);
+    }
+
+    /**
+     * The requested ids without nulls and duplicates.
+     */
+    List<Long> ids() {
+        return ids;
+    }
+
+    void set(Long id, Outcome outcome, String message) {
+        results.put(id, new BatchItemResultDTO(id, outcome, message));
+    }
+
+    BatchReportDTO report() {
+        List<BatchItemResultDTO> items = new ArrayList<>(ids.size());
+        int succeeded = 0;
+        for (Long id : ids) {
+            BatchItemResultDTO item = results.get(id);
+            items.add(item);
+            if (item.getOutcome() != Outcome.NOT_FOUND && item.getOutcome() != Outcome.CONFLICT) {
+                succeeded++;
+            }
+        }
+        return new BatchReportDTO(ids.size(), succeeded, ids.size() - succeeded,
+                System.currentTimeMillis() - started, items);
+    }
+}
@@ -0,0 +1,199 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.BookingRequestDTO;
+import com.libraryms.lms.model.TableBooking;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.TableBookingRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Hourly bookings on tables nobody holds for the month, so one table can serve a morning
+ * and an evening shift. Conflicts are checked against {@link SlotSchedule} under the
+ * table's seat lock, then the booking is written and added to the schedule. The student's
+ * own overlapping bookings, on any table, are checked under the student's lock.
+ */
+@Service
+@Timed(value = "library.service", description = "Service operations, tagged with class and method")
+@RequiredArgsConstructor
+public class BookingService {
+
+    private static final int MAX_SLOT_HOURS = 12;
+
+    private final TableBookingRepository bookingRepository;
+    private final StudentRepository studentRepository;
+    private final SlotSchedule slotSchedule;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final SeatLocks seatLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    public TableBooking book(BookingRequestDTO request) {
+        LocalDateTime start = request.getStart();
+        validateWindow(start, request.getHours());
+        if (start.isBefore(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS))) {
+            throw new RuntimeException("Slots cannot start in the past");
+        }
+        LocalDateTime end = start.plusHours(request.getHours());
+        Long studentId = request.getStudentId();
+        if (studentId == null || !studentRepository.existsById(studentId)) {
+            throw new RuntimeException("Student not found");
+        }
+        Long tableId = resolveTableId(request);
+
+        return seatLocks.withStudentLock(() -> seatLocks.withTableLocks(() -> {
+            if (seatOccupancyIndex.isOccupied(tableId)) {
+                throw new RuntimeException("Table is taken for the month.");
+            }
+            if (!slotSchedule.isFree(tableId, start, end)) {
+                throw new RuntimeException("Table is already booked in that window.");
+            }
+            TableBooking saved = transactionTemplate.execute(status -> {
+                if (bookingRepository.existsByStudentIdAndStartTimeLessThanAndEndTimeGreaterThan(studentId, end, start)) {
+                    throw new RuntimeException("Student already has a booking in that window.");
+                }
+                return bookingRepository.save(new TableBooking(null, tableId, studentId, start, end));
+            });
+            slotSchedule.add(saved);
+            return saved;
+        }, tableId), studentId);
+    }
+
+    public void cancel(Long bookingId) {
+        TableBooking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        seatLocks.withTableLocks(() -> {
+            transactionTemplate.executeWithoutResult(status -> bookingRepository.deleteById(bookingId));
+            slotSchedule.remove(booking);
+            return null;
+        }, booking.getTableId());
+    }
+
+    /**
+     * Tables free for the whole window: not taken for the month and no overlapping booking.
+     * Answered from the in-memory indexes only.
+     */
+    public List<AvailableTableDTO> availableTables(LocalDateTime start, int hours, String room) {
+        validateWindow(start, hours);
+        String roomNumber = room == null || room.isBlank() ? null : room.trim().toUpperCase(Locale.ROOT);
+        List<AvailableTableDTO> candidates = seatOccupancyIndex.freeTables();
+        if (roomNumber != null) {
+            candidates = candidates.stream().filter(table -> table.getRoomNumber().equals(roomNumber)).toList();
+        }
+        return slotSchedule.freeDuring(candidates, start, start.plusHours(hours));
+    }
+
+    public List<TableBooking> bookingsForTable(Long tableId, LocalDateTime from, LocalDateTime to) {
+        return bookingRepository.findForTable(tableId, from, to);
+    }
+
+    // A deleted student's upcoming slots are released once the deletion commits; past ones stay
+    // as history. Deletions in one transaction are collected and released together, so a batch
+    // delete costs one lookup rather than one per student
+    @EventListener
+    public void onChange(LibraryChangeEvent event) {
+        switch (event.type()) {
+            case STUDENT_DELETED -> afterCommit(pending -> pending.studentIds.add(event.studentId()));
+            case DATA_CLEARED -> afterCommit(pending -> pending.all = true);
+            default -> {
+            }
+        }
+    }
+
+    private void afterCommit(Consumer<PendingRelease> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingRelease now = new PendingRelease();
+            change.accept(now);
+            releaseUpcoming(now);
+            return;
+        }
+        PendingRelease pending = (PendingRelease) TransactionSynchronizationManager.getResource(PendingRelease.class);
+        if (pending == null) {
+            PendingRelease created = new PendingRelease();
+            TransactionSynchronizationManager.bindResource(PendingRelease.class, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    releaseUpcoming(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PendingRelease.class);
+                }
+            });
+            pending = created;
+        }
+        change.accept(pending);
+    }
+
+    private void releaseUpcoming(PendingRelease pending) {
+        // Runs after the caller's commit, so it needs a transaction of its own
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        LocalDateTime now = LocalDateTime.now();
+        if (pending.all) {
+            newTransaction.executeWithoutResult(status -> bookingRepository.deleteEndingAfter(now));
+            slotSchedule.clear();
+            return;
+        }
+        List<TableBooking> upcoming = newTransaction.execute(status -> {
+            List<TableBooking> bookings = bookingRepository.findByStudentIdInAndEndTimeGreaterThan(
+                    pending.studentIds, now);
+            bookingRepository.deleteAllInBatch(bookings);
+            return bookings;
+        });
+        upcoming.forEach(slotSchedule::remove);
+    }
+
+    private static final class PendingRelease {
+        private final Set<Long> studentIds = new HashSet<>();
+        private boolean all;
+    }
+
+    private Long resolveTableId(BookingRequestDTO request) {
+        if (request.getTableId() != null) {
+            if (seatOccupancyIndex.describe(List.of(request.getTableId())).isEmpty()) {
+                throw new RuntimeException("Table not found with ID: " + request.getTableId());
+            }
+            return request.getTableId();
+        }
+        if (request.getRoomNumber() == null || request.getTableNumber() == null) {
+            throw new RuntimeException("Table id or room and table number are required");
+        }
+        Long tableId = seatOccupancyIndex.findTableId(request.getRoomNumber().trim().toUpperCase(Locale.ROOT),
+                request.getTableNumber());
+        if (tableId == null) {
+            throw new RuntimeException("Table not found in specified room");
+        }
+        return tableId;
+    }
+
+    private static void validateWindow(LocalDateTime start, int hours) {
+        if (start == null) {
+            throw new RuntimeException("Start time is required");
+        }
+        if (!start.equals(start.truncatedTo(ChronoUnit.HOURS))) {
+            throw new RuntimeException("Slots start on the hour");
+        }
+        if (hours < 1 || hours > MAX_SLOT_HOURS) {
+            throw new RuntimeException("A slot is 1 to " + MAX_SLOT_HOURS + " hours");
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.BulkImportReportDTO;
+import com.libraryms.lms.dto.BulkImportRowResultDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.model.StudyTable;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enrolls students from a CSV stream (header: name,contactNumber,roomNumber,tableNumber,amountPaid).
+ * The file is read line by line and written in chunks: seats are validated against the
+ * in-memory occupancy index, then each chunk's students, payments and table updates go out
+ * as JDBC batches in a single transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class BulkImportService {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final StudentRepository studentRepository;
+    private final StudyTableRepository studyTableRepository;
+    private final StudentService studentService;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final SlotSchedule slotSchedule;
+    private final SeatLocks seatLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentLedger paymentLedger;
+
+    public BulkImportReportDTO importCsv(InputStream csv) throws IOException {
+        long started = System.nanoTime();
+        List<BulkImportRowResultDTO> results = new ArrayList<>();
+        Set<Long> claimedTables = new HashSet<>();
+        List<PendingRow> chunk = new ArrayList<>(CHUNK_SIZE);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            return new BulkImportReportDTO(0, 0, 0, 0, results);
+        }
+        Map<String, Integer> columns = headerColumns(headerLine);
+
+        String line;
+        long lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            PendingRow row = parseRow(lineNumber, line, columns, claimedTables);
+            results.add(row.result);
+            if (row.tableId == null) {
+                continue; // rejected during validation
+            }
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                writeChunk(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk);
+        }
+
+        int imported = (int) results.stream().filter(BulkImportRowResultDTO::isImported).count();
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        return new BulkImportReportDTO(results.size(), imported, results.size() - imported, elapsedMillis, results);
+    }
+
+    private PendingRow parseRow(long lineNumber, String line, Map<String, Integer> columns, Set<Long> claimedTables) {
+        BulkImportRowResultDTO result = new BulkImportRowResultDTO();
+        result.setLine(lineNumber);
+        PendingRow row = new PendingRow(result);
+        try {
+            List<String> fields = splitCsvLine(line);
+            CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+            dto.setName(field(fields, columns, "name"));
+            dto.setContactNumber(field(fields, columns, "contactnumber"));
+            dto.setRoomNumber(field(fields, columns, "roomnumber"));
+            String tableNumber = field(fields, columns, "tablenumber");
+            String amount = field(fields, columns, "amountpaid");
+            dto.setTableNumber(tableNumber == null ? 0 : Integer.parseInt(tableNumber));
+            dto.setAmountPaid(amount == null ? 0 : Double.parseDouble(amount));
+
+            result.setName(dto.getName());
+            result.setRoomNumber(dto.getRoomNumber());
+            result.setTableNumber(dto.getTableNumber());
+
+            if (dto.getName() == null || dto.getRoomNumber() == null) {
+                return row.reject("Name and room number are required");
+            }
+            Long tableId = seatOccupancyIndex.findTableId(dto.getRoomNumber(), dto.getTableNumber());
+            if (tableId == null) {
+                return row.reject("Table not found in specified room");
+            }
+            if (seatOccupancyIndex.isOccupied(tableId)) {
+                return row.reject("Table is already occupied");
+            }
+            if (!claimedTables.add(tableId)) {
+                return row.reject("Table is assigned to an earlier row in this file");
+            }
+            row.dto = dto;
+            row.tableId = tableId;
+            return row;
+        } catch (NumberFormatException e) {
+            return row.reject("Invalid number: " + e.getMessage());
+        }
+    }
+
+    private void writeChunk(List<PendingRow> chunk) {
+        Long[] tableIds = chunk.stream().map(r -> r.tableId).toArray(Long[]::new);
+        seatLocks.withTableLocks(() -> {
+            List<PendingRow> writable = new ArrayList<>();
+            for (PendingRow row : chunk) {
+                if (seatOccupancyIndex.isOccupied(row.tableId)) {
+                    row.reject("Table is already occupied");
+                } else if (slotSchedule.hasUpcoming(row.tableId)) {
+                    row.reject("Table has upcoming slot bookings");
+                } else {
+                    writable.add(row);
+                }
+            }
+            if (writable.isEmpty()) {
+                return null;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertChunk(writable));
+            } catch (ObjectOptimisticLockingFailureException | IllegalStateException e) {
+                // Some seat in the chunk changed underneath us; fall back to one row at a time
+                // (still under the chunk's locks, which are reentrant)
+                for (PendingRow row : writable) {
+                    try {
+                        studentService.createStudentWithTable(row.dto);
+                        row.accept();
+                    } catch (RuntimeException rowFailure) {
+                        row.reject(rowFailure.getMessage());
+                    }
+                }
+                return null;
+            }
+            for (PendingRow row : writable) {
+                row.accept();
+                seatOccupancyIndex.markOccupied(row.tableId);
+            }
+            return null;
+        }, tableIds);
+    }
+
+    private void insertChunk(List<PendingRow> rows) {
+        // One select for every table in the chunk
+        Map<Long, StudyTable> tables = studyTableRepository.findAllById(rows.stream().map(r -> r.tableId).toList())
+                .stream()
+                .collect(Collectors.toMap(StudyTable::getId, Function.identity()));
+
+        List<Student> students = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            StudyTable table = tables.get(row.tableId);
+            if (table == null || table.isOccupied()) {
+                throw new IllegalStateException("Table " + row.tableId + " is no longer free");
+            }
+            Student student = StudentService.newStudentWithPayment(row.dto);
+            student.setAssignedTable(table);
+            table.setStudent(student);
+            table.setOccupied(true);
+            students.add(student);
+        }
+        // Inserts (students, then payments) and the versioned table updates are flushed as batches on commit
+        studentRepository.saveAll(students);
+        paymentLedger.recordNewStudents(students);
+        students.forEach(student -> eventPublisher.publishEvent(LibraryChangeEvent.studentCreated(student)));
+    }
+
+    private static Map<String, Integer> headerColumns(String headerLine) {
+        List<String> names = splitCsvLine(headerLine);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        return columns;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Minimal CSV splitting: commas, double-quoted fields and "" escapes within one line
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    private static final class PendingRow {
+        final BulkImportRowResultDTO result;
+        CreateStudentRequestDTO dto;
+        Long tableId;
+
+        PendingRow(BulkImportRowResultDTO result) {
+            this.result = result;
+        }
+
+        PendingRow reject(String message) {
+            result.setImported(false);
+            result.setMessage(message);
+            return this;
+        }
+
+        void accept() {
+            result.setImported(true);
+            result.setMessage(null);
+        }
+    }
+}
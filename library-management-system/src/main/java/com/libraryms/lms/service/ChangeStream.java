@@ -0,0 +1,156 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.ChangeEventDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Numbers every committed {@link LibraryChangeEvent} and pushes it to the connected
+ * Server-Sent Events clients. The last {@code library.changes.history} events are kept,
+ * so a client that reconnects with the last sequence it saw only receives what it missed;
+ * a client that fell further behind gets a "reset" and reloads its snapshot.
+ *
+ * All sending happens on one dispatcher thread: writers never block on a slow client,
+ * and every client sees the events in sequence order without gaps or duplicates.
+ */
+@Component
+public class ChangeStream {
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+
+    private final int historySize;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Starts at the boot time in milliseconds, so a sequence from before a restart is
+    // always older than the new history and the client gets a reset instead of wrong deltas.
+    // Written under "this", read without the lock for snapshots.
+    private volatile long sequence = System.currentTimeMillis();
+
+    // Only touched on the dispatcher thread
+    private final Deque<ChangeEventDTO> history = new ArrayDeque<>();
+    private final List<Subscriber> subscribers = new ArrayList<>();
+    private long dispatched = sequence;
+
+    public ChangeStream(@Value("${library.changes.history:1024}") int historySize) {
+        this.historySize = historySize;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(LibraryChangeEvent event) {
+        // Numbering and queueing under one lock keeps the queue in sequence order
+        synchronized (this) {
+            ChangeEventDTO change = new ChangeEventDTO(sequence + 1, event.type().name(),
+                    event.studentId(), event.tableId(), event.student());
+            sequence = change.getSeq();
+            dispatcher.execute(() -> publish(change));
+        }
+    }
+
+    /**
+     * Sequence of the last committed change. Read it before loading a snapshot: the
+     * snapshot then contains at least everything up to this number.
+     */
+    public long currentSequence() {
+        return sequence;
+    }
+
+    /**
+     * Open a stream that starts after {@code since}, or at the current sequence when null.
+     */
+    public SseEmitter subscribe(Long since) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitter.onCompletion(() -> dispatcher.execute(() -> subscribers.removeIf(s -> s.emitter() == emitter)));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitter.complete());
+
+        dispatcher.execute(() -> {
+            try {
+                long oldest = history.isEmpty() ? dispatched + 1 : history.getFirst().getSeq();
+                long after;
+                if (since == null) {
+                    after = dispatched;
+                    emitter.send(SseEmitter.event().name("hello").id(Long.toString(after)).data(after));
+                } else if (since < oldest - 1 || since > sequence) {
+                    // Missed events are no longer in the history, or the server restarted
+                    after = dispatched;
+                    emitter.send(SseEmitter.event().name("reset").id(Long.toString(after)).data(after));
+                } else {
+                    // since may be ahead of dispatched when it came from a fresh snapshot
+                    after = since;
+                    for (ChangeEventDTO change : history) {
+                        if (change.getSeq() > after) {
+                            send(emitter, change);
+                        }
+                    }
+                }
+                subscribers.add(new Subscriber(emitter, after));
+            } catch (IOException | IllegalStateException e) {
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
+    // Keeps idle connections open through proxies that drop silent streams
+    @Scheduled(fixedRate = 20_000)
+    public void heartbeat() {
+        dispatcher.execute(() -> subscribers.removeIf(subscriber -> {
+            try {
+                subscriber.emitter().send(SseEmitter.event().comment("keep-alive"));
+                return false;
+            } catch (IOException | IllegalStateException e) {
+                return true;
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    private void publish(ChangeEventDTO change) {
+        history.addLast(change);
+        while (history.size() > historySize) {
+            history.removeFirst();
+        }
+        dispatched = change.getSeq();
+        subscribers.removeIf(subscriber -> {
+            if (change.getSeq() <= subscriber.after()) {
+                return false; // already part of the snapshot this client started from
+            }
+            try {
+                send(subscriber.emitter(), change);
+                return false;
+            } catch (IOException | IllegalStateException e) {
+                return true;
+            }
+        });
+    }
+
+    private static void send(SseEmitter emitter, ChangeEventDTO change) throws IOException {
+        emitter.send(SseEmitter.event()
+                .name("change")
+                .id(Long.toString(change.getSeq()))
+                .data(change));
+    }
+
+    private record Subscriber(SseEmitter emitter, long after) {
+    }
+}
@@ -1,43 +1,144 @@
 package com.libraryms.lms.service;
 
+import com.libraryms.lms.dto.CleanupReportDTO;
+import com.libraryms.lms.dto.TableOccupantDTO;
 import com.libraryms.lms.repository.StudentRepository;
 import com.libraryms.lms.repository.PaymentRepository;
 import com.libraryms.lms.repository.StudyTableRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.IntSupplier;
 
 @Service
+@Timed(value = "library.service", description = "Service operations, tagged with class and method")
 public class DataCleanupService {
 
     @Autowired
     private StudentRepository studentRepository;
-    
+
     @Autowired
     private PaymentRepository paymentRepository;
-    
+
     @Autowired
     private StudyTableRepository studyTableRepository;
 
-    @Transactional
-    public void clearStudentData() {
-        // Clear all payments first (due to foreign key constraints)
-        paymentRepository.deleteAll();
-        
-        // Clear all students
-        studentRepository.deleteAll();
-        
-        // Reset all study tables to unoccupied state
-        studyTableRepository.findAll().forEach(table -> {
-            table.setStudent(null);
-            table.setOccupied(false);
-            studyTableRepository.save(table);
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Waitlist waitlist;
+
+    @Autowired
+    private SeatLocks seatLocks;
+
+    /**
+     * Clear all students and payments with three set-based statements in one transaction.
+     * Waiting students are seated on the emptied tables before it commits. Runs under every
+     * seat lock, so no assignment interleaves with the hand-off, and the index is reloaded
+     * before the locks are released.
+     */
+    public CleanupReportDTO clearStudentData() {
+        long started = System.nanoTime();
+        CleanupReportDTO report = new CleanupReportDTO();
+        report.setMode("bulk");
+        report.setChunks(1);
+
+        seatLocks.withAllTableLocks(() -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                // Queue lock before the first table write, then unassign tables first, payments next,
+                // students last (foreign key order)
+                waitlist.lockQueueIfWaiting();
+                timed(report, "unassign tables", studyTableRepository::unassignAll);
+                timed(report, "delete payments", paymentRepository::deleteAllPayments);
+                timed(report, "delete students", studentRepository::deleteAllStudents);
+                seatOccupancyIndex.reloadAfterCommit();
+                eventPublisher.publishEvent(LibraryChangeEvent.dataCleared());
+                timed(report, "waitlist hand-off", () -> waitlist.handOff(seatOccupancyIndex.tableIds()).size());
+            });
+            return null;
         });
-        
-        System.out.println("✅ Student data cleared successfully!");
-        System.out.println("🗑️ Deleted all students and payments");
-        System.out.println("🪑 Reset all tables to unoccupied state");
+
+        report.setTotalMillis(elapsedMillis(started));
+        printReport(report);
+        return report;
+    }
+
+    /**
+     * Same result as {@link #clearStudentData()} for the students that exist when it starts,
+     * but each slice of students is removed in its own short transaction so row locks are
+     * never held for the whole table. Students created meanwhile keep their seats and payments,
+     * so the read models get one delete event per student rather than a clear.
+     * The index is reloaded only at the end, under every seat lock and right before the waitlist
+     * hand-off, so tables freed by earlier chunks never show up as free to anyone ahead of the
+     * waiting students.
+     */
+    public CleanupReportDTO clearStudentDataInChunks(int chunkSize) {
+        long started = System.nanoTime();
+        CleanupReportDTO report = new CleanupReportDTO();
+        report.setMode("chunked");
+
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = studentRepository.findIdsAfter(lastId, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            lastId = ids.get(ids.size() - 1);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<TableOccupantDTO> seats = studentRepository.findSeats(ids);
+                timed(report, "unassign tables", () -> studyTableRepository.unassignStudents(ids));
+                timed(report, "delete payments", () -> paymentRepository.deleteByStudentIds(ids));
+                timed(report, "delete students", () -> studentRepository.deleteByIds(ids));
+                seats.forEach(seat -> eventPublisher.publishEvent(
+                        LibraryChangeEvent.studentDeleted(seat.getStudentId(), seat.getTableId())));
+            });
+            report.setChunks(report.getChunks() + 1);
+        }
+
+        // Leftovers not reachable through a student id, then the hand-off
+        seatLocks.withAllTableLocks(() -> {
+            transactionTemplate.executeWithoutResult(status -> {
+                timed(report, "unassign orphaned tables", studyTableRepository::unassignOrphaned);
+                timed(report, "delete payments", paymentRepository::deleteUnlinked);
+            });
+            seatOccupancyIndex.load();
+            timed(report, "waitlist hand-off", waitlist::drainFreeTables);
+            return null;
+        });
+
+        report.setTotalMillis(elapsedMillis(started));
+        printReport(report);
+        return report;
+    }
+
+    private static void timed(CleanupReportDTO report, String phase, IntSupplier statement) {
+        long started = System.nanoTime();
+        int rows = statement.getAsInt();
+        report.record(phase, rows, elapsedMillis(started));
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private static void printReport(CleanupReportDTO report) {
+        System.out.println("✅ Student data cleared successfully! (" + report.getMode() + ", "
+                + report.getChunks() + " chunk(s), " + report.getTotalMillis() + " ms)");
+        report.getPhases().forEach(phase -> System.out.println("   " + phase.getPhase() + ": "
+                + phase.getRowsAffected() + " rows in " + phase.getMillis() + " ms"));
         System.out.println("🏠 Rooms and table structure preserved");
+        System.out.println("💰 Payment ledger and revenue rollups preserved");
     }
 }
-
@@ -0,0 +1,39 @@
+package com.libraryms.lms.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonically increasing version of the data the conditional GET endpoints serve. Those
+ * endpoints read in-memory views ({@link SeatOccupancyIndex}, {@link StudentReadModel} and the
+ * room list of {@link RoomService}), and each view bumps the version right after a change
+ * becomes visible in it rather than when the transaction commits. A request that lands between
+ * the commit and the view update therefore still gets the old version along with the old content.
+ */
+@Component
+public class DataVersion {
+
+    // Versions restart with the process, so the boot time keeps old ETags from matching
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * Called by a view after it has applied a change.
+     */
+    public void changed() {
+        version.incrementAndGet();
+    }
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Strong ETag for the current version. Read it before loading the data it describes,
+     * so a response is never labelled newer than its content.
+     */
+    public String etag() {
+        return "\"" + epoch + "-" + version.get() + "\"";
+    }
+}
@@ -0,0 +1,146 @@
+package com.libraryms.lms.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.libraryms.lms.dto.PaymentExportDTO;
+import com.libraryms.lms.dto.StudentFilter;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.repository.PaymentLedgerRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes students and payments to a stream as NDJSON or CSV, one row at a time straight from
+ * a database cursor. Rows are DTOs that are never attached to the persistence context, so
+ * memory stays flat however many rows match.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportService {
+
+    private static final String[] STUDENT_COLUMNS = {"id", "studentName", "rollNumber", "contactNumber",
+            "roomNumber", "tableNumber", "amountPaid", "paid", "paymentDate", "dueDate"};
+    private static final String[] PAYMENT_COLUMNS = {"id", "studentId", "roomNumber", "amount",
+            "durationMonths", "paymentDate", "validUntil"};
+
+    private final StudentRepository studentRepository;
+    private final PaymentLedgerRepository paymentLedgerRepository;
+    private final ObjectMapper objectMapper;
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        public static Format of(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown export format: " + value + " (use ndjson or csv)");
+            }
+        }
+    }
+
+    /**
+     * Students matching the room, status and due date filters, ordered by id.
+     * Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportStudents(StudentFilter filter, Format format, OutputStream out) throws IOException {
+        try (Stream<StudentTableInfoDTO> rows = studentRepository.streamStudentTableInfo(
+                filter.roomNumber(), filter.paidStatus(), filter.overdueBefore(),
+                filter.getDueFrom(), filter.getDueTo())) {
+            return write(rows, format, STUDENT_COLUMNS, s -> new Object[]{
+                    s.getId(), s.getStudentName(), s.getRollNumber(), s.getContactNumber(),
+                    s.getRoomNumber(), s.getTableNumber(), s.getAmountPaid(), s.isPaid(),
+                    s.getPaymentDate(), s.getDueDate()}, out);
+        }
+    }
+
+    /**
+     * Payment ledger rows for a room (null for all) paid between the given dates,
+     * both inclusive and optional, ordered by id. Returns the number of rows written.
+     */
+    @Transactional(readOnly = true)
+    public long exportPayments(String room, LocalDate from, LocalDate to, Format format, OutputStream out)
+            throws IOException {
+        String roomNumber = room == null || room.isBlank() ? null : room.trim().toUpperCase(Locale.ROOT);
+        try (Stream<PaymentExportDTO> rows = paymentLedgerRepository.streamForExport(roomNumber, from, to)) {
+            return write(rows, format, PAYMENT_COLUMNS, p -> new Object[]{
+                    p.getId(), p.getStudentId(), p.getRoomNumber(), p.getAmount(),
+                    p.getDurationMonths(), p.getPaymentDate(), p.getValidUntil()}, out);
+        }
+    }
+
+    private <T> long write(Stream<T> rows, Format format, String[] columns, Function<T, Object[]> values,
+                           OutputStream out) throws IOException {
+        long count = 0;
+        Iterator<T> iterator = rows.iterator();
+        if (format == Format.NDJSON) {
+            // One object per line; the generator and the response buffer flush as they fill.
+            // No root value separator, or every line after the first would start with a space.
+            ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+            generator.flush();
+        } else {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeCsvLine(writer, columns);
+            while (iterator.hasNext()) {
+                writeCsvLine(writer, values.apply(iterator.next()));
+                count++;
+            }
+            writer.flush();
+        }
+        return count;
+    }
+
+    private static void writeCsvLine(Writer writer, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(values[i]));
+        }
+        writer.write('\n');
+    }
+
+    // Quoted only when needed, embedded quotes doubled (RFC 4180)
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,62 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.model.Payment;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.model.StudyTable;
+
+/**
+ * Published by the write paths while their transaction is open; listeners see it after commit.
+ * {@code student} is the student's row as it now reads in /complete-info, set for the
+ * event types that leave a student behind (created, occupied, payment updated).
+ */
+public record LibraryChangeEvent(Type type, Long studentId, Long tableId, StudentTableInfoDTO student) {
+
+    public enum Type {
+        STUDENT_CREATED,
+        STUDENT_DELETED,
+        TABLE_OCCUPIED,
+        TABLE_FREED,
+        PAYMENT_UPDATED,
+        DATA_CLEARED
+    }
+
+    public static LibraryChangeEvent studentCreated(Student student) {
+        return withStudent(Type.STUDENT_CREATED, student);
+    }
+
+    public static LibraryChangeEvent studentDeleted(Long studentId, Long freedTableId) {
+        return new LibraryChangeEvent(Type.STUDENT_DELETED, studentId, freedTableId, null);
+    }
+
+    public static LibraryChangeEvent tableOccupied(Student student) {
+        return withStudent(Type.TABLE_OCCUPIED, student);
+    }
+
+    public static LibraryChangeEvent tableFreed(Long tableId, Long studentId) {
+        return new LibraryChangeEvent(Type.TABLE_FREED, studentId, tableId, null);
+    }
+
+    public static LibraryChangeEvent paymentUpdated(Student student) {
+        return withStudent(Type.PAYMENT_UPDATED, student);
+    }
+
+    public static LibraryChangeEvent dataCleared() {
+        return new LibraryChangeEvent(Type.DATA_CLEARED, null, null, null);
+    }
+
+    private static LibraryChangeEvent withStudent(Type type, Student student) {
+        StudyTable table = student.getAssignedTable();
+        Payment payment = student.getPayment();
+        // Same constructor as the projection query, so events and snapshots normalize alike
+        StudentTableInfoDTO row = new StudentTableInfoDTO(
+                student.getId(), student.getName(), student.getRollNumber(), student.getContactNumber(),
+                table != null ? table.getTableNumber() : null,
+                table != null && table.getRoom() != null ? table.getRoom().getRoomNumber() : null,
+                payment != null ? payment.getAmount() : null,
+                payment != null ? payment.isPaid() : null,
+                payment != null ? payment.getPaymentDate() : null,
+                payment != null ? payment.getDueDate() : null);
+        return new LibraryChangeEvent(type, student.getId(), table != null ? table.getId() : null, row);
+    }
+}
@@ -0,0 +1,143 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.LibraryStatsDTO;
+import com.libraryms.lms.dto.RoomOccupancyDTO;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dashboard counters kept in memory: student count, revenue and due dates are updated
+ * from {@link LibraryChangeEvent}s after each commit, seat occupancy is read from the
+ * {@link SeatOccupancyIndex}. A scheduled reconciliation reloads everything from the
+ * database so a missed or reordered event cannot leave the numbers wrong for long.
+ */
+@Component
+@RequiredArgsConstructor
+public class LibraryStats {
+
+    private final StudentRepository studentRepository;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final MeterRegistry meterRegistry;
+
+    // Current payment per student (null when the student has none)
+    private final Map<Long, CurrentPayment> payments = new HashMap<>();
+    // Number of students per due date, so "overdue" is a head-map sum instead of a scan
+    private final TreeMap<LocalDate, Integer> dueDates = new TreeMap<>();
+    private BigDecimal revenue = BigDecimal.ZERO;
+    private long changes;
+    private LocalDateTime lastReconciledAt;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onChange(LibraryChangeEvent event) {
+        changes++;
+        switch (event.type()) {
+            case STUDENT_CREATED, PAYMENT_UPDATED -> {
+                remove(event.studentId());
+                add(event.studentId(), CurrentPayment.of(event.student()));
+            }
+            case STUDENT_DELETED -> remove(event.studentId());
+            case DATA_CLEARED -> clear();
+            default -> {
+                // Seat changes are counted by the occupancy index
+            }
+        }
+    }
+
+    public LibraryStatsDTO snapshot() {
+        List<RoomOccupancyDTO> rooms = seatOccupancyIndex.occupancyByRoom();
+        int total = rooms.stream().mapToInt(RoomOccupancyDTO::getTotalTables).sum();
+        int occupied = rooms.stream().mapToInt(RoomOccupancyDTO::getOccupiedTables).sum();
+        synchronized (this) {
+            long overdue = dueDates.headMap(LocalDate.now(), false).values().stream()
+                    .mapToLong(Integer::longValue).sum();
+            return new LibraryStatsDTO(payments.size(), total, occupied, total - occupied,
+                    revenue.doubleValue(), overdue, rooms, lastReconciledAt);
+        }
+    }
+
+    /**
+     * Rebuild the counters from the database. If a change event arrives while the rows
+     * are being read, the result is discarded and the next run tries again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${library.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${library.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long changesBefore;
+        synchronized (this) {
+            changesBefore = changes;
+        }
+        List<StudentTableInfoDTO> rows = studentRepository.findAllStudentTableInfo();
+
+        synchronized (this) {
+            if (changes != changesBefore) {
+                return;
+            }
+            long studentsBefore = payments.size();
+            BigDecimal revenueBefore = revenue;
+            clear();
+            for (StudentTableInfoDTO row : rows) {
+                add(row.getId(), CurrentPayment.of(row));
+            }
+            if (lastReconciledAt != null
+                    && (studentsBefore != payments.size() || revenueBefore.compareTo(revenue) != 0)) {
+                Counter.builder("library.stats.drift")
+                        .description("Reconciliations that corrected the dashboard counters")
+                        .register(meterRegistry)
+                        .increment();
+            }
+            lastReconciledAt = LocalDateTime.now();
+        }
+    }
+
+    private void add(Long studentId, CurrentPayment payment) {
+        payments.put(studentId, payment);
+        if (payment != null) {
+            revenue = revenue.add(BigDecimal.valueOf(payment.amount()));
+            if (payment.dueDate() != null) {
+                dueDates.merge(payment.dueDate(), 1, Integer::sum);
+            }
+        }
+    }
+
+    private void remove(Long studentId) {
+        CurrentPayment payment = payments.remove(studentId);
+        if (payment != null) {
+            revenue = revenue.subtract(BigDecimal.valueOf(payment.amount()));
+            if (payment.dueDate() != null) {
+                dueDates.computeIfPresent(payment.dueDate(), (date, count) -> count == 1 ? null : count - 1);
+            }
+        }
+    }
+
+    private void clear() {
+        payments.clear();
+        dueDates.clear();
+        revenue = BigDecimal.ZERO;
+    }
+
+    private record CurrentPayment(double amount, LocalDate dueDate) {
+
+        // The projection reports a missing payment as amount 0 without a due date
+        static CurrentPayment of(StudentTableInfoDTO row) {
+            return row.getDueDate() == null && row.getAmountPaid() == 0
+                    ? null : new CurrentPayment(row.getAmountPaid(), row.getDueDate());
+        }
+    }
+}
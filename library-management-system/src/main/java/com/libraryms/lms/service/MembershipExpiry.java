@@ -0,0 +1,272 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.MembershipDueDTO;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Time-ordered queue of membership due dates. It is loaded once from the due_date index and
+ * then kept current from {@link LibraryChangeEvent}s. A single one-shot task is scheduled
+ * for the morning after the earliest pending due date; when it fires, the memberships that
+ * ran out are flagged in batched updates and, if configured, their tables are released
+ * after a grace period. Overdue lookups are served from the queue without a query.
+ */
+@Component
+@RequiredArgsConstructor
+public class MembershipExpiry {
+
+    private final PaymentRepository paymentRepository;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final TableService tableService;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+
+    @Value("${library.expiry.batch-size:500}")
+    private int batchSize;
+
+    // Days after the due date before an expired member's table is freed, negative to never free it
+    @Value("${library.expiry.release-after-days:-1}")
+    private int releaseAfterDays;
+
+    private final Map<Long, MembershipDueDTO> memberships = new HashMap<>();
+    private final TreeMap<LocalDate, Set<Long>> byDueDate = new TreeMap<>();
+    private ScheduledFuture<?> wakeUp;
+    private Instant wakeUpAt;
+
+    /**
+     * Reload the queue from the database and sweep whatever expired while we were down.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<MembershipDueDTO> rows = paymentRepository.findAllDueDates();
+        synchronized (this) {
+            memberships.clear();
+            byDueDate.clear();
+            rows.forEach(this::add);
+        }
+        sweep();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(LibraryChangeEvent event) {
+        synchronized (this) {
+            switch (event.type()) {
+                case STUDENT_CREATED, PAYMENT_UPDATED, TABLE_OCCUPIED -> {
+                    MembershipDueDTO previous = remove(event.studentId());
+                    MembershipDueDTO updated = fromEvent(event);
+                    // Seat changes keep the flag; a new due date means the membership was renewed
+                    if (previous != null && updated != null && previous.getDueDate().equals(updated.getDueDate())) {
+                        updated.setExpired(previous.isExpired());
+                    }
+                    if (updated != null) {
+                        add(updated);
+                    }
+                }
+                case TABLE_FREED -> {
+                    MembershipDueDTO membership = event.studentId() != null ? memberships.get(event.studentId()) : null;
+                    if (membership != null) {
+                        membership.setRoomNumber(null);
+                        membership.setTableNumber(null);
+                        membership.setTableId(null);
+                    }
+                }
+                case STUDENT_DELETED -> remove(event.studentId());
+                case DATA_CLEARED -> {
+                    memberships.clear();
+                    byDueDate.clear();
+                }
+            }
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Members whose due date has passed, longest overdue first.
+     */
+    public synchronized List<MembershipDueDTO> overdue() {
+        return copies(byDueDate.headMap(LocalDate.now(), false));
+    }
+
+    /**
+     * Members whose membership runs out within the given number of days, soonest first.
+     */
+    public synchronized List<MembershipDueDTO> expiringWithin(int days) {
+        LocalDate today = LocalDate.now();
+        return copies(byDueDate.subMap(today, true, today.plusDays(days), true));
+    }
+
+    synchronized Instant nextWakeUp() {
+        return wakeUpAt;
+    }
+
+    /**
+     * Flag every membership that has run out and is not flagged yet, then sleep until the
+     * next one does. Runs on the scheduler thread, or directly from {@link #rebuild()}.
+     */
+    public void sweep() {
+        LocalDate today = LocalDate.now();
+        List<Long> toFlag = new ArrayList<>();
+        List<MembershipDueDTO> toRelease = new ArrayList<>();
+        synchronized (this) {
+            for (Set<Long> ids : byDueDate.headMap(today, false).values()) {
+                for (Long id : ids) {
+                    MembershipDueDTO membership = memberships.get(id);
+                    if (!membership.isExpired()) {
+                        toFlag.add(id);
+                    }
+                    if (releaseAfterDays >= 0 && membership.getTableId() != null
+                            && membership.getDueDate().plusDays(releaseAfterDays).isBefore(today)) {
+                        toRelease.add(copy(membership));
+                    }
+                }
+            }
+        }
+
+        int flagged = 0;
+        for (int from = 0; from < toFlag.size(); from += batchSize) {
+            List<Long> batch = toFlag.subList(from, Math.min(from + batchSize, toFlag.size()));
+            Integer rows = transactionTemplate.execute(status -> paymentRepository.markExpired(batch, today));
+            flagged += rows != null ? rows : 0;
+            synchronized (this) {
+                for (Long id : batch) {
+                    MembershipDueDTO membership = memberships.get(id);
+                    // Skip students renewed or removed while the update ran
+                    if (membership != null && membership.getDueDate().isBefore(today)) {
+                        membership.setExpired(true);
+                    }
+                }
+            }
+        }
+
+        int released = 0;
+        for (MembershipDueDTO membership : toRelease) {
+            try {
+                if (seatOccupancyIndex.isOccupied(membership.getTableId())) {
+                    tableService.freeTable(membership.getTableId());
+                    released++;
+                }
+            } catch (RuntimeException e) {
+                System.out.println("⚠️ Could not release table " + membership.getTableId()
+                        + " of expired member " + membership.getStudentId() + ": " + e.getMessage());
+            }
+            // The TABLE_FREED event normally clears the seat; never retry the same one in a loop
+            synchronized (this) {
+                MembershipDueDTO current = memberships.get(membership.getStudentId());
+                if (current != null && membership.getTableId().equals(current.getTableId())) {
+                    current.setRoomNumber(null);
+                    current.setTableNumber(null);
+                    current.setTableId(null);
+                }
+            }
+        }
+
+        if (flagged > 0 || released > 0) {
+            System.out.println("⏰ Membership expiry: " + flagged + " flagged as expired, " + released + " table(s) released");
+        }
+        scheduleNext();
+    }
+
+    /**
+     * Arm the one-shot wake-up for the morning after the earliest due date that still needs
+     * work, replacing any wake-up scheduled for a later time.
+     */
+    private synchronized void scheduleNext() {
+        Instant next = nextSweepAt();
+        if (next != null && next.equals(wakeUpAt)) {
+            return;
+        }
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+            wakeUp = null;
+        }
+        wakeUpAt = next;
+        if (next != null) {
+            wakeUp = taskScheduler.schedule(this::sweep, next);
+        }
+    }
+
+    private Instant nextSweepAt() {
+        LocalDate today = LocalDate.now();
+        // A membership expires once its due date is over
+        LocalDate nextDue = byDueDate.ceilingKey(today);
+        Instant next = nextDue != null ? startOfDay(nextDue.plusDays(1)) : null;
+        for (Set<Long> ids : byDueDate.headMap(today, false).values()) {
+            for (Long id : ids) {
+                MembershipDueDTO membership = memberships.get(id);
+                if (!membership.isExpired()) {
+                    return Instant.now();
+                }
+                if (releaseAfterDays >= 0 && membership.getTableId() != null) {
+                    Instant release = startOfDay(membership.getDueDate().plusDays(releaseAfterDays + 1L));
+                    if (next == null || release.isBefore(next)) {
+                        next = release;
+                    }
+                }
+            }
+        }
+        return next;
+    }
+
+    private void add(MembershipDueDTO membership) {
+        memberships.put(membership.getStudentId(), membership);
+        byDueDate.computeIfAbsent(membership.getDueDate(), date -> new LinkedHashSet<>()).add(membership.getStudentId());
+    }
+
+    private MembershipDueDTO remove(Long studentId) {
+        MembershipDueDTO membership = memberships.remove(studentId);
+        if (membership != null) {
+            Set<Long> ids = byDueDate.get(membership.getDueDate());
+            ids.remove(studentId);
+            if (ids.isEmpty()) {
+                byDueDate.remove(membership.getDueDate());
+            }
+        }
+        return membership;
+    }
+
+    private List<MembershipDueDTO> copies(Map<LocalDate, Set<Long>> range) {
+        List<MembershipDueDTO> result = new ArrayList<>();
+        range.values().forEach(ids -> ids.forEach(id -> result.add(copy(memberships.get(id)))));
+        return result;
+    }
+
+    private static MembershipDueDTO copy(MembershipDueDTO m) {
+        return new MembershipDueDTO(m.getStudentId(), m.getStudentName(), m.getContactNumber(), m.getRoomNumber(),
+                m.getTableNumber(), m.getTableId(), m.getAmountPaid(), m.getDueDate(), m.isExpired());
+    }
+
+    private static MembershipDueDTO fromEvent(LibraryChangeEvent event) {
+        StudentTableInfoDTO student = event.student();
+        if (student == null || student.getDueDate() == null) {
+            return null;
+        }
+        boolean seated = event.tableId() != null;
+        return new MembershipDueDTO(student.getId(), student.getStudentName(), student.getContactNumber(),
+                seated ? student.getRoomNumber() : null, seated ? student.getTableNumber() : null, event.tableId(),
+                student.getAmountPaid(), student.getDueDate(), false);
+    }
+
+    private static Instant startOfDay(LocalDate date) {
+        return date.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+}
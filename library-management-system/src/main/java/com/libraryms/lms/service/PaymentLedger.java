@@ -0,0 +1,177 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.MonthlyRevenueDTO;
+import com.libraryms.lms.model.MonthlyRoomRevenue;
+import com.libraryms.lms.model.Payment;
+import com.libraryms.lms.model.PaymentLedgerEntry;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.model.StudyTable;
+import com.libraryms.lms.repository.MonthlyRoomRevenueRepository;
+import com.libraryms.lms.repository.PaymentLedgerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only history of fee payments plus per-month, per-room revenue rollups.
+ * Every append joins the caller's transaction and increments the matching rollup rows
+ * there, so revenue reports read a handful of rollup rows instead of scanning the ledger.
+ */
+@Service
+@RequiredArgsConstructor
+public class PaymentLedger {
+
+    private final PaymentLedgerRepository ledgerRepository;
+    private final MonthlyRoomRevenueRepository revenueRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final RoomService roomService;
+
+    // Rollup rows known to exist; they are never deleted
+    private final Set<MonthlyRoomRevenue.Key> knownRollups = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Record the initial payment of newly created (already saved) students.
+     */
+    @Transactional
+    public void recordNewStudents(Collection<Student> students) {
+        List<PaymentLedgerEntry> entries = new ArrayList<>(students.size());
+        for (Student student : students) {
+            Payment payment = student.getPayment();
+            if (payment != null && payment.isPaid()) {
+                entries.add(entry(student, payment.getAmount(), payment.getDurationMonths(),
+                        payment.getPaymentDate(), payment.getDueDate()));
+            }
+        }
+        append(entries);
+    }
+
+    /**
+     * Record a fee paid by an existing student today.
+     */
+    @Transactional
+    public void record(Student student, double amount, Integer durationMonths, LocalDate validUntil) {
+        append(List.of(entry(student, amount, durationMonths, LocalDate.now(), validUntil)));
+    }
+
+    /**
+     * Create this and next month's rollup rows for every room up front, outside any request
+     * transaction, so payments normally only run the increment.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${library.payments.rollup-cron:0 0 0 * * *}")
+    public void prepareRollups() {
+        YearMonth month = YearMonth.now();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (LocalDate start : List.of(month.atDay(1), month.plusMonths(1).atDay(1))) {
+                ensureRollupRow(new MonthlyRoomRevenue.Key(start, MonthlyRoomRevenue.NO_ROOM));
+                roomService.getAllRooms().forEach(room ->
+                        ensureRollupRow(new MonthlyRoomRevenue.Key(start, room.getRoomNumber())));
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<PaymentLedgerEntry> history(Long studentId) {
+        return ledgerRepository.findByStudentIdOrderByIdDesc(studentId);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<PaymentLedgerEntry> latest(Long studentId) {
+        return ledgerRepository.findTopByStudentIdOrderByIdDesc(studentId);
+    }
+
+    /**
+     * Rollup rows with payments in the given months (inclusive), optionally for one room only.
+     */
+    @Transactional(readOnly = true)
+    public List<MonthlyRevenueDTO> monthlyRevenue(YearMonth from, YearMonth to, String roomNumber) {
+        return revenueRepository.findByMonthBetweenOrderByMonthAscRoomNumberAsc(from.atDay(1), to.atDay(1)).stream()
+                .filter(row -> row.getPayments() > 0)
+                .filter(row -> roomNumber == null || roomNumber.equals(row.getRoomNumber()))
+                .map(row -> new MonthlyRevenueDTO(YearMonth.from(row.getMonth()), row.getRoomNumber(),
+                        row.getRevenue(), row.getPayments()))
+                .toList();
+    }
+
+    private void append(List<PaymentLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        ledgerRepository.saveAll(entries);
+
+        // One upsert per touched (month, room), however many payments fell into it
+        Map<MonthlyRoomRevenue.Key, MonthlyRoomRevenue> rollups = new LinkedHashMap<>();
+        for (PaymentLedgerEntry entry : entries) {
+            MonthlyRoomRevenue.Key key = new MonthlyRoomRevenue.Key(
+                    entry.getPaymentDate().withDayOfMonth(1), entry.getRoomNumber());
+            MonthlyRoomRevenue rollup = rollups.computeIfAbsent(key, k ->
+                    new MonthlyRoomRevenue(k.getMonth(), k.getRoomNumber(), BigDecimal.ZERO, 0));
+            rollup.setRevenue(rollup.getRevenue().add(BigDecimal.valueOf(entry.getAmount())));
+            rollup.setPayments(rollup.getPayments() + 1);
+        }
+        rollups.forEach((key, rollup) -> {
+            ensureRollupRow(key);
+            int updated = revenueRepository.addRevenue(
+                    rollup.getMonth(), rollup.getRoomNumber(), rollup.getRevenue(), rollup.getPayments());
+            if (updated != 1) {
+                throw new IllegalStateException("Missing revenue rollup for " + key);
+            }
+        });
+    }
+
+    /**
+     * Create the empty rollup row on first use (only hit when prepareRollups did not cover it),
+     * in the caller's transaction so a payment never needs a second connection. The insert skips
+     * an existing row: of two first payments racing for the same month and room, the later one
+     * waits for the earlier one's row and then increments it.
+     */
+    private void ensureRollupRow(MonthlyRoomRevenue.Key key) {
+        if (knownRollups.contains(key)) {
+            return;
+        }
+        revenueRepository.createIfAbsent(key.getMonth(), key.getRoomNumber(), BigDecimal.ZERO);
+        // The row only exists for others once it commits
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                knownRollups.add(key);
+            }
+        });
+    }
+
+    private static PaymentLedgerEntry entry(Student student, double amount, Integer durationMonths,
+                                            LocalDate paymentDate, LocalDate validUntil) {
+        return new PaymentLedgerEntry(null, student.getId(), roomOf(student), amount, durationMonths,
+                paymentDate, validUntil);
+    }
+
+    private static String roomOf(Student student) {
+        StudyTable table = student.getAssignedTable();
+        if (table == null) {
+            return MonthlyRoomRevenue.NO_ROOM;
+        }
+        if (table.getRoom() != null) {
+            return table.getRoom().getRoomNumber();
+        }
+        return table.getRoomNumber() != null ? table.getRoomNumber() : MonthlyRoomRevenue.NO_ROOM;
+    }
+}
@@ -0,0 +1,94 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.CacheStatsDTO;
+import com.libraryms.lms.dto.RoomDTO;
+import com.libraryms.lms.dto.SeatDTO;
+import com.libraryms.lms.model.Room;
+import com.libraryms.lms.repository.RoomRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cached read access to rooms and their table layout. Rooms and tables are only created
+ * by the layout provisioning in DataInitializer, which calls {@link #layoutChanged} for
+ * the rooms it touched. Cached values are DTOs and immutable maps, never entities.
+ */
+@Service
+@RequiredArgsConstructor
+public class RoomService {
+
+    public static final String ROOMS = "rooms";
+    public static final String ROOM_LAYOUT = "roomLayout";
+
+    private final RoomRepository roomRepository;
+    private final StudyTableRepository studyTableRepository;
+    private final CacheManager cacheManager;
+    private final DataVersion dataVersion;
+
+    @Cacheable(ROOMS)
+    public List<RoomDTO> getAllRooms() {
+        return roomRepository.findAll().stream().map(RoomService::toDTO).toList();
+    }
+
+    /**
+     * Table ids of a room keyed by table number, or null if the room does not exist.
+     */
+    @Cacheable(value = ROOM_LAYOUT, unless = "#result == null")
+    public Map<Integer, Long> getTableLayout(String roomNumber) {
+        List<SeatDTO> seats = studyTableRepository.findSeatsByRoomNumber(roomNumber);
+        if (seats.isEmpty() && roomRepository.findByRoomNumber(roomNumber).isEmpty()) {
+            return null;
+        }
+        Map<Integer, Long> layout = new HashMap<>();
+        seats.forEach(seat -> layout.put(seat.getTableNumber(), seat.getTableId()));
+        return Map.copyOf(layout);
+    }
+
+    /**
+     * Evict exactly the entries that describe the given rooms (plus the room list).
+     * Call after the transaction that changed them has committed.
+     */
+    public void layoutChanged(Collection<Room> rooms) {
+        cache(ROOMS).clear();
+        for (Room room : rooms) {
+            cache(ROOM_LAYOUT).evict(room.getRoomNumber());
+        }
+        dataVersion.changed();
+    }
+
+    public List<CacheStatsDTO> cacheStats() {
+        List<CacheStatsDTO> result = new ArrayList<>();
+        for (String name : List.of(ROOMS, ROOM_LAYOUT)) {
+            if (cache(name) instanceof CaffeineCache caffeineCache) {
+                CacheStats stats = caffeineCache.getNativeCache().stats();
+                result.add(new CacheStatsDTO(name, caffeineCache.getNativeCache().estimatedSize(),
+                        stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return result;
+    }
+
+    private Cache cache(String name) {
+        Cache cache = cacheManager.getCache(name);
+        if (cache == null) {
+            throw new IllegalStateException("Cache not configured: " + name);
+        }
+        return cache;
+    }
+
+    private static RoomDTO toDTO(Room room) {
+        return new RoomDTO(room.getId(), room.getRoomNumber(), room.getName());
+    }
+}
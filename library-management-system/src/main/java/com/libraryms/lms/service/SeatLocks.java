@@ -0,0 +1,100 @@
+package com.libraryms.lms.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Striped in-process locks keyed by study table id. Assignments to the same table
+ * queue up behind one lock, while assignments to unrelated tables almost never
+ * share a stripe and run in parallel. The @Version column on StudyTable still
+ * guards against writers outside this JVM. A second set of stripes, keyed by student
+ * id, serializes rules about one student that span tables.
+ */
+@Component
+public class SeatLocks {
+
+    private static final int STRIPES = 64; // power of two
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ReentrantLock[] studentLocks = new ReentrantLock[STRIPES];
+
+    public SeatLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+            studentLocks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Run the action while holding the stripe of the student. Table stripes may be taken
+     * inside the action, never the other way round.
+     */
+    public <T> T withStudentLock(Supplier<T> action, Long studentId) {
+        ReentrantLock lock = studentLocks[stripeOf(studentId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run the action while holding the stripes of all given tables.
+     * Stripes are always taken in index order, so callers locking several tables cannot deadlock.
+     */
+    public <T> T withTableLocks(Supplier<T> action, Long... tableIds) {
+        int[] stripes = Arrays.stream(tableIds)
+                .filter(id -> id != null)
+                .mapToInt(SeatLocks::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int locked = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[stripes[i]].unlock();
+            }
+        }
+    }
+
+    /**
+     * Run the action while holding every table stripe, so no seat changes meanwhile.
+     * The caller must hold none of the stripes yet, or all of them: taking the rest of a
+     * partial set out of index order could deadlock.
+     */
+    public <T> T withAllTableLocks(Supplier<T> action) {
+        boolean holdsAll = Arrays.stream(locks).allMatch(ReentrantLock::isHeldByCurrentThread);
+        if (!holdsAll && Arrays.stream(locks).anyMatch(ReentrantLock::isHeldByCurrentThread)) {
+            throw new IllegalStateException("Every table lock was requested while holding only some of them");
+        }
+
+        int locked = 0;
+        try {
+            for (ReentrantLock lock : locks) {
+                lock.lock();
+                locked++;
+            }
+            return action.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                locks[i].unlock();
+            }
+        }
+    }
+
+    private static int stripeOf(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L; // spread consecutive ids across stripes
+        return (int) (h >>> 58) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,406 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.OccupancyConsistencyDTO;
+import com.libraryms.lms.dto.RoomOccupancyDTO;
+import com.libraryms.lms.dto.SeatDTO;
+import com.libraryms.lms.repository.StudyTableRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process view of which study tables are free, kept as one bitset per room
+ * indexed by table number. Loaded once at startup and then updated by the
+ * services that occupy or free tables, so availability questions never hit the database.
+ * Each room also keeps a free list (the available bitset) for automatic allocation,
+ * which skips seats already reserved by an allocation in progress.
+ * <p>
+ * Seat changes are applied under the table's seat lock, right after the transaction that made
+ * them commits. A reload holds every seat lock while it reads and swaps, so none of them falls
+ * between the two and is lost.
+ */
+@Component
+@RequiredArgsConstructor
+public class SeatOccupancyIndex {
+
+    private final StudyTableRepository studyTableRepository;
+    private final SlotSchedule slotSchedule;
+    private final SeatLocks seatLocks;
+    private final DataVersion dataVersion;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), Map.of());
+
+    // Shared by reservations, exclusive for the swap that carries them into a new snapshot
+    private final ReadWriteLock reservations = new ReentrantReadWriteLock();
+
+    /**
+     * Replace the index with the study_table rows, keeping the seats reserved by allocations
+     * still in progress. Takes every seat lock, so the caller must hold none or all of them.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        seatLocks.withAllTableLocks(() -> {
+            Snapshot loaded = build(studyTableRepository.findAllSeats());
+            reservations.writeLock().lock();
+            try {
+                carryReservations(snapshot, loaded);
+                snapshot = loaded;
+            } finally {
+                reservations.writeLock().unlock();
+            }
+            dataVersion.changed();
+            return null;
+        });
+    }
+
+    /**
+     * Reload once the surrounding transaction commits (or right away when there is none).
+     * Used after bulk statements that bypass the per-table updates.
+     */
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    load();
+                }
+            });
+        } else {
+            load();
+        }
+    }
+
+    public void markOccupied(Long tableId) {
+        setOccupied(tableId, true);
+    }
+
+    public void markFree(Long tableId) {
+        setOccupied(tableId, false);
+    }
+
+    public boolean isFree(String roomNumber, int tableNumber) {
+        RoomSeats room = snapshot.rooms.get(roomNumber);
+        if (room == null) {
+            return false;
+        }
+        synchronized (room) {
+            return room.exists(tableNumber) && !room.occupied.get(tableNumber);
+        }
+    }
+
+    /**
+     * True only for tables the index knows to be occupied; unknown ids return false.
+     */
+    public boolean isOccupied(Long tableId) {
+        SeatRef ref = snapshot.seats.get(tableId);
+        if (ref == null) {
+            return false;
+        }
+        synchronized (ref.room) {
+            return ref.room.occupied.get(ref.tableNumber);
+        }
+    }
+
+    /**
+     * Table id for a seat, or null if the room or table does not exist.
+     */
+    public Long findTableId(String roomNumber, int tableNumber) {
+        RoomSeats room = snapshot.rooms.get(roomNumber);
+        if (room == null) {
+            return null;
+        }
+        synchronized (room) {
+            return room.exists(tableNumber) ? room.tableIds[tableNumber] : null;
+        }
+    }
+
+    public boolean hasRoom(String roomNumber) {
+        return snapshot.rooms.containsKey(roomNumber);
+    }
+
+    public List<Long> tableIds() {
+        return new ArrayList<>(snapshot.seats.keySet());
+    }
+
+    /**
+     * Room and table number of the given tables in layout order (rooms as configured,
+     * then by table number). Ids the index does not know are left out.
+     */
+    public List<AvailableTableDTO> describe(Collection<Long> tableIds) {
+        Snapshot current = snapshot;
+        List<SeatRef> refs = new ArrayList<>(tableIds.size());
+        for (Long tableId : tableIds) {
+            SeatRef ref = current.seats.get(tableId);
+            if (ref != null) {
+                refs.add(ref);
+            }
+        }
+        refs.sort(Comparator.<SeatRef>comparingInt(ref -> ref.room.order).thenComparingInt(SeatRef::tableNumber));
+        List<AvailableTableDTO> result = new ArrayList<>(refs.size());
+        for (SeatRef ref : refs) {
+            result.add(new AvailableTableDTO(ref.room.tableIds[ref.tableNumber], ref.room.roomNumber,
+                    ref.tableNumber, ref.room.name));
+        }
+        return result;
+    }
+
+    public List<AvailableTableDTO> freeTables() {
+        List<AvailableTableDTO> result = new ArrayList<>();
+        for (RoomSeats room : snapshot.rooms.values()) {
+            synchronized (room) {
+                for (int n = room.tables.nextSetBit(0); n >= 0; n = room.tables.nextSetBit(n + 1)) {
+                    if (!room.occupied.get(n)) {
+                        result.add(new AvailableTableDTO(room.tableIds[n], room.roomNumber, n, room.name));
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public Map<String, Integer> freeCountByRoom() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (RoomSeats room : snapshot.rooms.values()) {
+            synchronized (room) {
+                counts.put(room.roomNumber, room.tables.cardinality() - room.occupied.cardinality());
+            }
+        }
+        return counts;
+    }
+
+    public List<RoomOccupancyDTO> occupancyByRoom() {
+        List<RoomOccupancyDTO> result = new ArrayList<>();
+        for (RoomSeats room : snapshot.rooms.values()) {
+            synchronized (room) {
+                int total = room.tables.cardinality();
+                int occupied = room.occupied.cardinality();
+                result.add(new RoomOccupancyDTO(room.roomNumber, total, occupied, total - occupied));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reserve {@code count} free seats for automatic allocation, lowest table numbers first.
+     * The whole group goes to the preferred room if it has room for it, otherwise to the
+     * least occupied room that does; if no single room fits, it is split across rooms,
+     * least occupied first. Tables with upcoming slot bookings are left out. Reserved seats
+     * are skipped by other reservations until {@link #release}d, but still look free to manual
+     * assignment and bookings, so callers must re-check {@link #isOccupied} and
+     * {@link SlotSchedule#hasUpcoming} under the seat locks.
+     */
+    public List<AvailableTableDTO> reserve(String preferredRoom, int count) {
+        reservations.readLock().lock();
+        try {
+            return reserve(snapshot, preferredRoom, count);
+        } finally {
+            reservations.readLock().unlock();
+        }
+    }
+
+    private List<AvailableTableDTO> reserve(Snapshot current, String preferredRoom, int count) {
+        RoomSeats preferred = null;
+        if (preferredRoom != null) {
+            preferred = current.rooms.get(preferredRoom);
+            if (preferred == null) {
+                throw new RuntimeException("Room not found: " + preferredRoom);
+            }
+        }
+
+        Map<RoomSeats, Double> occupancy = new HashMap<>();
+        Map<RoomSeats, Integer> available = new HashMap<>();
+        for (RoomSeats room : current.rooms.values()) {
+            synchronized (room) {
+                int total = room.tables.cardinality();
+                occupancy.put(room, total == 0 ? 1.0 : (double) room.occupied.cardinality() / total);
+                available.put(room, room.available.cardinality());
+            }
+        }
+        List<RoomSeats> order = new ArrayList<>(current.rooms.values());
+        order.sort(Comparator.comparing(occupancy::get)); // stable, ties keep the configured order
+        RoomSeats whole = preferred != null && available.get(preferred) >= count ? preferred
+                : order.stream().filter(room -> available.get(room) >= count).findFirst().orElse(null);
+        if (whole != null) {
+            order.remove(whole);
+            order.add(0, whole);
+        }
+
+        // Counts may have moved since they were read, so take what each room still has
+        List<AvailableTableDTO> reserved = new ArrayList<>(count);
+        for (RoomSeats room : order) {
+            synchronized (room) {
+                for (int n = room.available.nextSetBit(0); n >= 0 && reserved.size() < count;
+                     n = room.available.nextSetBit(n + 1)) {
+                    if (slotSchedule.hasUpcoming(room.tableIds[n])) {
+                        continue;
+                    }
+                    room.reserved.set(n);
+                    room.available.clear(n);
+                    reserved.add(new AvailableTableDTO(room.tableIds[n], room.roomNumber, n, room.name));
+                }
+            }
+            if (reserved.size() == count) {
+                return reserved;
+            }
+        }
+        release(current, reserved.stream().map(AvailableTableDTO::getTableId).toList());
+        throw new RuntimeException("Not enough free tables: " + count + " requested, " + reserved.size() + " free");
+    }
+
+    /**
+     * Return reserved seats to the free lists, unless they have been occupied meanwhile.
+     */
+    public void release(Collection<Long> tableIds) {
+        reservations.readLock().lock();
+        try {
+            release(snapshot, tableIds);
+        } finally {
+            reservations.readLock().unlock();
+        }
+    }
+
+    private static void release(Snapshot current, Collection<Long> tableIds) {
+        for (Long tableId : tableIds) {
+            SeatRef ref = current.seats.get(tableId);
+            if (ref != null) {
+                synchronized (ref.room) {
+                    ref.room.reserved.clear(ref.tableNumber);
+                    ref.room.updateAvailable(ref.tableNumber);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compare the index with the current study_table rows without changing either.
+     */
+    public OccupancyConsistencyDTO checkConsistency() {
+        List<SeatDTO> rows = studyTableRepository.findAllSeats();
+        Snapshot current = snapshot;
+        List<String> mismatches = new ArrayList<>();
+
+        for (SeatDTO row : rows) {
+            SeatRef ref = current.seats.get(row.getTableId());
+            if (ref == null) {
+                mismatches.add("Table " + row.getTableId() + " (" + row.getRoomNumber() + "-" + row.getTableNumber() + ") missing from index");
+                continue;
+            }
+            boolean indexed;
+            synchronized (ref.room) {
+                indexed = ref.room.occupied.get(ref.tableNumber);
+            }
+            if (indexed != row.isOccupied()) {
+                mismatches.add("Table " + row.getTableId() + " (" + row.getRoomNumber() + "-" + row.getTableNumber()
+                        + ") is " + (row.isOccupied() ? "occupied" : "free") + " in database but "
+                        + (indexed ? "occupied" : "free") + " in index");
+            }
+        }
+        if (current.seats.size() != rows.size()) {
+            mismatches.add("Index holds " + current.seats.size() + " tables, database has " + rows.size());
+        }
+        return new OccupancyConsistencyDTO(rows.size(), mismatches.isEmpty(), mismatches);
+    }
+
+    private void setOccupied(Long tableId, boolean occupied) {
+        SeatRef ref = tableId != null ? snapshot.seats.get(tableId) : null;
+        if (ref == null) {
+            // Table created after the last load; the next reload reads its state
+            return;
+        }
+        synchronized (ref.room) {
+            ref.room.setOccupied(ref.tableNumber, occupied);
+        }
+        dataVersion.changed();
+    }
+
+    // Called under the write lock of reservations, before "to" is published
+    private static void carryReservations(Snapshot from, Snapshot to) {
+        for (RoomSeats room : from.rooms.values()) {
+            synchronized (room) {
+                for (int n = room.reserved.nextSetBit(0); n >= 0; n = room.reserved.nextSetBit(n + 1)) {
+                    SeatRef ref = to.seats.get(room.tableIds[n]);
+                    if (ref != null) {
+                        ref.room.reserved.set(ref.tableNumber);
+                        ref.room.updateAvailable(ref.tableNumber);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Snapshot build(List<SeatDTO> rows) {
+        Map<String, RoomSeats> rooms = new LinkedHashMap<>();
+        Map<Long, SeatRef> seats = new HashMap<>();
+        for (SeatDTO row : rows) {
+            RoomSeats room = rooms.computeIfAbsent(row.getRoomNumber(),
+                    number -> new RoomSeats(number, row.getRoomName(), rooms.size()));
+            room.add(row.getTableNumber(), row.getTableId(), row.isOccupied());
+            seats.put(row.getTableId(), new SeatRef(room, row.getTableNumber()));
+        }
+        return new Snapshot(rooms, seats);
+    }
+
+    private record Snapshot(Map<String, RoomSeats> rooms, Map<Long, SeatRef> seats) {
+    }
+
+    private record SeatRef(RoomSeats room, int tableNumber) {
+    }
+
+    private static final class RoomSeats {
+        final String roomNumber;
+        final String name;
+        final int order;
+        final BitSet tables = new BitSet();
+        final BitSet occupied = new BitSet();
+        final BitSet reserved = new BitSet();
+        // Free list for allocation: tables neither occupied nor reserved
+        final BitSet available = new BitSet();
+        Long[] tableIds = new Long[16];
+
+        RoomSeats(String roomNumber, String name, int order) {
+            this.roomNumber = roomNumber;
+            this.name = name;
+            this.order = order;
+        }
+
+        boolean exists(int tableNumber) {
+            return tableNumber >= 0 && tables.get(tableNumber);
+        }
+
+        void add(int tableNumber, Long tableId, boolean isOccupied) {
+            if (tableNumber >= tableIds.length) {
+                Long[] grown = new Long[Math.max(tableNumber + 1, tableIds.length * 2)];
+                System.arraycopy(tableIds, 0, grown, 0, tableIds.length);
+                tableIds = grown;
+            }
+            tables.set(tableNumber);
+            occupied.set(tableNumber, isOccupied);
+            tableIds[tableNumber] = tableId;
+            updateAvailable(tableNumber);
+        }
+
+        void setOccupied(int tableNumber, boolean isOccupied) {
+            occupied.set(tableNumber, isOccupied);
+            updateAvailable(tableNumber);
+        }
+
+        void updateAvailable(int tableNumber) {
+            available.set(tableNumber, exists(tableNumber) && !occupied.get(tableNumber) && !reserved.get(tableNumber));
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.RegionStatsDTO;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hit ratio of the Hibernate second-level cache regions (see hibernate-jcache.conf),
+ * read from the Hibernate statistics that generate_statistics turns on.
+ */
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheStats {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * One entry per configured region; empty when the cache is disabled (profile "nocache").
+     */
+    public List<RegionStatsDTO> regionStats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<RegionStatsDTO> result = new ArrayList<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics stats = statistics.getDomainDataRegionStatistics(region);
+            long lookups = stats.getHitCount() + stats.getMissCount();
+            result.add(new RegionStatsDTO(region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                    lookups == 0 ? 0.0 : (double) stats.getHitCount() / lookups));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,198 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.model.TableBooking;
+import com.libraryms.lms.repository.TableBookingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process schedule of hourly table bookings that are not over yet. Each table keeps its
+ * slots as sorted, non-overlapping arrays of hours, so a conflict check is one binary
+ * search and a free-window query over thousands of tables never touches the database.
+ * Loaded in keyset batches at startup and then updated by {@link BookingService}; slots
+ * that have ended are dropped every hour.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlotSchedule {
+
+    private static final int LOAD_BATCH = 1000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private final TableBookingRepository bookingRepository;
+
+    private volatile Map<Long, TableSlots> tables = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        Map<Long, TableSlots> loaded = new ConcurrentHashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        long lastId = 0;
+        int count = 0;
+        List<TableBooking> batch;
+        do {
+            batch = bookingRepository.findEndingAfter(now, lastId, Limit.of(LOAD_BATCH));
+            for (TableBooking booking : batch) {
+                loaded.computeIfAbsent(booking.getTableId(), id -> new TableSlots())
+                        .add(booking.getId(), hourOf(booking.getStartTime()), hourOf(booking.getEndTime()));
+                lastId = booking.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == LOAD_BATCH);
+        tables = loaded;
+        System.out.println("📅 Loaded " + count + " upcoming slot bookings on " + loaded.size() + " tables");
+    }
+
+    /**
+     * True if nothing is booked on the table between start (inclusive) and end (exclusive).
+     */
+    public boolean isFree(Long tableId, LocalDateTime start, LocalDateTime end) {
+        TableSlots slots = tables.get(tableId);
+        return slots == null || slots.isFree(hourOf(start), hourOf(end));
+    }
+
+    /**
+     * True if the table has a booking that has not ended yet, so it cannot be taken for the month.
+     */
+    public boolean hasUpcoming(Long tableId) {
+        TableSlots slots = tables.get(tableId);
+        return slots != null && slots.anyEndingAfter(hourOf(LocalDateTime.now()));
+    }
+
+    /**
+     * The given tables that are free for the whole window, in the given order.
+     */
+    public List<AvailableTableDTO> freeDuring(Collection<AvailableTableDTO> candidates,
+                                              LocalDateTime start, LocalDateTime end) {
+        long from = hourOf(start);
+        long to = hourOf(end);
+        Map<Long, TableSlots> current = tables;
+        List<AvailableTableDTO> result = new ArrayList<>(candidates.size());
+        for (AvailableTableDTO table : candidates) {
+            TableSlots slots = current.get(table.getTableId());
+            if (slots == null || slots.isFree(from, to)) {
+                result.add(table);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Add a saved booking. The caller holds the table's seat lock and has checked {@link #isFree}.
+     */
+    public void add(TableBooking booking) {
+        tables.computeIfAbsent(booking.getTableId(), id -> new TableSlots())
+                .add(booking.getId(), hourOf(booking.getStartTime()), hourOf(booking.getEndTime()));
+    }
+
+    public void remove(TableBooking booking) {
+        TableSlots slots = tables.get(booking.getTableId());
+        if (slots != null) {
+            slots.remove(booking.getId(), hourOf(booking.getStartTime()));
+        }
+    }
+
+    public void clear() {
+        tables = new ConcurrentHashMap<>();
+    }
+
+    public int size() {
+        return tables.values().stream().mapToInt(TableSlots::size).sum();
+    }
+
+    @Scheduled(cron = "0 1 * * * *")
+    public void dropEnded() {
+        long now = hourOf(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS));
+        tables.values().forEach(slots -> slots.dropEndingBy(now));
+    }
+
+    static long hourOf(LocalDateTime time) {
+        return ChronoUnit.HOURS.between(EPOCH, time);
+    }
+
+    private static final class TableSlots {
+        // Sorted by start; slots never overlap, so the ends are sorted too
+        private long[] starts = new long[4];
+        private long[] ends = new long[4];
+        private long[] ids = new long[4];
+        private int size;
+
+        synchronized boolean isFree(long start, long end) {
+            int i = firstEndingAfter(start);
+            return i == size || starts[i] >= end;
+        }
+
+        synchronized boolean anyEndingAfter(long hour) {
+            return firstEndingAfter(hour) < size;
+        }
+
+        synchronized void add(long id, long start, long end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int i = firstEndingAfter(start);
+            System.arraycopy(starts, i, starts, i + 1, size - i);
+            System.arraycopy(ends, i, ends, i + 1, size - i);
+            System.arraycopy(ids, i, ids, i + 1, size - i);
+            starts[i] = start;
+            ends[i] = end;
+            ids[i] = id;
+            size++;
+        }
+
+        synchronized void remove(long id, long start) {
+            int i = firstEndingAfter(start);
+            if (i < size && ids[i] == id) {
+                System.arraycopy(starts, i + 1, starts, i, size - i - 1);
+                System.arraycopy(ends, i + 1, ends, i, size - i - 1);
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                size--;
+            }
+        }
+
+        synchronized void dropEndingBy(long hour) {
+            int keepFrom = firstEndingAfter(hour);
+            if (keepFrom > 0) {
+                System.arraycopy(starts, keepFrom, starts, 0, size - keepFrom);
+                System.arraycopy(ends, keepFrom, ends, 0, size - keepFrom);
+                System.arraycopy(ids, keepFrom, ids, 0, size - keepFrom);
+                size -= keepFrom;
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // Index of the first slot ending after the given hour, or size if none
+        private int firstEndingAfter(long hour) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (ends[mid] <= hour) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.OccupancyConsistencyDTO;
+import com.libraryms.lms.dto.ReadModelDriftDTO;
+import com.libraryms.lms.dto.RoomDTO;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.repository.StudentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Materialized student views: the /complete-info rows and the room list, held as immutable
+ * snapshots so reads are a volatile read with no lock, no query and no mapping. Seat state
+ * is the {@link SeatOccupancyIndex}, which this model checks and reloads along with its own rows.
+ * <p>
+ * Rows are kept current from {@link LibraryChangeEvent}s. The events of one transaction are
+ * applied to a working copy together once it commits, and the writer publishes a fresh
+ * snapshot right then (copy-on-write), so a burst of events such as a bulk import costs one
+ * copy rather than one per event and readers never copy or wait.
+ * Returned rows are shared between callers and must not be modified.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentReadModel {
+
+    private static final int MAX_EXAMPLES = 20;
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final StudentRepository studentRepository;
+    private final RoomService roomService;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final DataVersion dataVersion;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Snapshot snapshot = new Snapshot(List.of(), Map.of());
+    private volatile RoomsView rooms = new RoomsView(null, List.of());
+
+    // Working copy, changed only under "this" and published after every change
+    private final TreeMap<Long, StudentTableInfoDTO> rows = new TreeMap<>();
+    private long changes;
+    private boolean loaded; // the first rebuild fills an empty model, which is not drift
+
+    /**
+     * Every student's row, ordered by id.
+     */
+    public List<StudentTableInfoDTO> students() {
+        return snapshot.students();
+    }
+
+    public StudentTableInfoDTO student(Long studentId) {
+        return snapshot.byId().get(studentId);
+    }
+
+    /**
+     * Rooms as id, roomNumber and name, rebuilt only when RoomService's cached list changes.
+     */
+    public List<Map<String, Object>> rooms() {
+        List<RoomDTO> source = roomService.getAllRooms();
+        RoomsView view = rooms;
+        if (view.source() != source) {
+            List<Map<String, Object>> mapped = new ArrayList<>(source.size());
+            for (RoomDTO room : source) {
+                Map<String, Object> map = new LinkedHashMap<>();
+                map.put("id", room.getId());
+                map.put("roomNumber", room.getRoomNumber());
+                map.put("name", room.getName());
+                mapped.add(Collections.unmodifiableMap(map));
+            }
+            view = new RoomsView(source, List.copyOf(mapped));
+            rooms = view;
+        }
+        return view.rows();
+    }
+
+    // Collected per transaction and applied once it commits; dropped on rollback
+    @EventListener
+    public void onChange(LibraryChangeEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(List.of(event));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(PendingChanges.class);
+        if (pending == null) {
+            PendingChanges created = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(PendingChanges.class, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(created.events);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PendingChanges.class);
+                }
+            });
+            pending = created;
+        }
+        pending.events.add(event);
+    }
+
+    private synchronized void apply(List<LibraryChangeEvent> events) {
+        for (LibraryChangeEvent event : events) {
+            changes++;
+            switch (event.type()) {
+                case STUDENT_CREATED, TABLE_OCCUPIED, PAYMENT_UPDATED -> rows.put(event.studentId(), event.student());
+                case TABLE_FREED -> {
+                    StudentTableInfoDTO row = event.studentId() != null ? rows.get(event.studentId()) : null;
+                    if (row != null) {
+                        rows.put(row.getId(), withoutTable(row));
+                    }
+                }
+                case STUDENT_DELETED -> rows.remove(event.studentId());
+                case DATA_CLEARED -> rows.clear();
+            }
+        }
+        publish();
+    }
+
+    /**
+     * Compare the model with the database without changing it.
+     */
+    public ReadModelDriftDTO checkDrift() {
+        return reconcile(false);
+    }
+
+    /**
+     * Compare with the database, then replace the rows with the database's and reload the
+     * seat index. If change events keep arriving while the rows are read, the rebuild gives
+     * up after a few attempts and reports rebuilt = false.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${library.read-model.reconcile-interval-ms:300000}",
+            fixedDelayString = "${library.read-model.reconcile-interval-ms:300000}")
+    public ReadModelDriftDTO rebuild() {
+        return reconcile(true);
+    }
+
+    private ReadModelDriftDTO reconcile(boolean rebuild) {
+        ReadModelDriftDTO report = null;
+        for (int attempt = 0; attempt < MAX_REBUILD_ATTEMPTS; attempt++) {
+            long changesBefore;
+            synchronized (this) {
+                changesBefore = changes;
+            }
+            List<StudentTableInfoDTO> database = studentRepository.findAllStudentTableInfo();
+            OccupancyConsistencyDTO seats = seatOccupancyIndex.checkConsistency();
+
+            synchronized (this) {
+                report = compare(database, seats);
+                if (changes != changesBefore) {
+                    continue; // changed while the database was read, differences may not be real
+                }
+                if (!rebuild) {
+                    return report;
+                }
+                rows.clear();
+                database.forEach(row -> rows.put(row.getId(), row));
+                publish();
+                report.setRebuilt(true);
+                int repaired = report.getMissing() + report.getUnexpected() + report.getStale();
+                if (repaired > 0 && loaded) {
+                    Counter.builder("library.read_model.drift")
+                            .description("Student rows a rebuild found missing, unexpected or stale")
+                            .register(meterRegistry)
+                            .increment(repaired);
+                }
+                loaded = true;
+            }
+            // Outside the monitor: the reload takes every seat lock, and writers holding one
+            // apply their events under it
+            if (!seats.isConsistent()) {
+                seatOccupancyIndex.load();
+            }
+            return report;
+        }
+        return report;
+    }
+
+    // Called under "this"
+    private ReadModelDriftDTO compare(List<StudentTableInfoDTO> database, OccupancyConsistencyDTO seats) {
+        Map<Long, StudentTableInfoDTO> expected = new HashMap<>();
+        database.forEach(row -> expected.put(row.getId(), row));
+        int missing = 0;
+        int stale = 0;
+        List<String> examples = new ArrayList<>();
+        for (StudentTableInfoDTO row : database) {
+            StudentTableInfoDTO modelled = rows.get(row.getId());
+            if (modelled == null) {
+                missing++;
+                example(examples, "Student " + row.getId() + " missing from the model");
+            } else if (!Objects.equals(modelled, row)) {
+                stale++;
+                example(examples, "Student " + row.getId() + " is " + row + " in database but " + modelled + " in the model");
+            }
+        }
+        int unexpected = 0;
+        for (Long id : rows.keySet()) {
+            if (!expected.containsKey(id)) {
+                unexpected++;
+                example(examples, "Student " + id + " is in the model but not in the database");
+            }
+        }
+        return new ReadModelDriftDTO(database.size(), rows.size(), missing, unexpected, stale, examples,
+                seats, false, LocalDateTime.now());
+    }
+
+    // Called under "this"
+    private void publish() {
+        snapshot = new Snapshot(List.copyOf(rows.values()), Map.copyOf(rows));
+        dataVersion.changed();
+    }
+
+    private static StudentTableInfoDTO withoutTable(StudentTableInfoDTO row) {
+        return new StudentTableInfoDTO(row.getId(), row.getStudentName(), row.getRollNumber(), row.getContactNumber(),
+                null, null, row.getAmountPaid(), row.isPaid(), row.getPaymentDate(), row.getDueDate());
+    }
+
+    private static void example(List<String> examples, String difference) {
+        if (examples.size() < MAX_EXAMPLES) {
+            examples.add(difference);
+        }
+    }
+
+    private static final class PendingChanges {
+        private final List<LibraryChangeEvent> events = new ArrayList<>();
+    }
+
+    private record Snapshot(List<StudentTableInfoDTO> students, Map<Long, StudentTableInfoDTO> byId) {
+    }
+
+    private record RoomsView(List<RoomDTO> source, List<Map<String, Object>> rows) {
+    }
+}
@@ -1,68 +1,320 @@
 package com.libraryms.lms.service;
 
+import com.libraryms.lms.dto.AutoAssignRequestDTO;
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.BatchItemResultDTO.Outcome;
+import com.libraryms.lms.dto.BatchReportDTO;
 import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.SeatAllocationDTO;
+import com.libraryms.lms.dto.StudentFilter;
+import com.libraryms.lms.dto.StudentPageDTO;
 import com.libraryms.lms.dto.StudentTableInfoDTO;
 import com.libraryms.lms.dto.UpdatePaymentRequest;
 import com.libraryms.lms.model.Payment;
-import com.libraryms.lms.model.Room;
 import com.libraryms.lms.model.Student;
 import com.libraryms.lms.model.StudyTable;
-import com.libraryms.lms.repository.RoomRepository;
+import com.libraryms.lms.repository.PaymentRepository;
 import com.libraryms.lms.repository.StudentRepository;
 import com.libraryms.lms.repository.StudyTableRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
+@Timed(value = "library.service", description = "Service operations, tagged with class and method")
 @RequiredArgsConstructor
 public class StudentService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_GROUP_SIZE = 200;
+    private static final int MAX_ALLOCATION_ATTEMPTS = 3;
+
     private final StudentRepository studentRepository;
     private final StudyTableRepository studyTableRepository;
-    private final RoomRepository roomRepository;
+    private final PaymentRepository paymentRepository;
+    private final RoomService roomService;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final SlotSchedule slotSchedule;
+    private final SeatLocks seatLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentLedger paymentLedger;
+    private final Waitlist waitlist;
 
     public String createStudentWithTable(CreateStudentRequestDTO dto) {
 
         // Step 1: Find the table in given room
-        Room room = roomRepository.findByRoomNumber(dto.getRoomNumber())
-                .orElseThrow(() -> new RuntimeException("Room not found"));
+        Long tableId = resolveTableId(dto.getRoomNumber(), dto.getTableNumber());
+
+        // Check-then-act on the table runs under its stripe lock and in one transaction,
+        // and the table's version column rejects a concurrent writer from another node
+        seatLocks.withTableLocks(() -> {
+            // The index is only changed under this lock, so a losing request is rejected without a query
+            if (seatOccupancyIndex.isOccupied(tableId)) {
+                throw new RuntimeException("Table is already occupied");
+            }
+            if (slotSchedule.hasUpcoming(tableId)) {
+                throw new RuntimeException("Table has upcoming slot bookings");
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    StudyTable table = studyTableRepository.findById(tableId)
+                            .orElseThrow(() -> new RuntimeException("Table not found in specified room"));
+
+                    if (table.isOccupied()) {
+                        throw new RuntimeException("Table is already occupied");
+                    }
 
-        StudyTable table = studyTableRepository.findByRoomAndTableNumber(room, dto.getTableNumber())
-                .orElseThrow(() -> new RuntimeException("Table not found in specified room"));
+                    // Step 2 + 3: Create student with a one-month payment
+                    Student student = newStudentWithPayment(dto);
 
-        if (table.isOccupied()) {
-            throw new RuntimeException("Table is already occupied");
+                    // Step 4: Assign student to table and save all
+                    student.setAssignedTable(table);
+                    student = studentRepository.save(student);
+
+                    table.setStudent(student);
+                    table.setOccupied(true);
+                    studyTableRepository.save(table);
+                    paymentLedger.recordNewStudents(List.of(student));
+                    eventPublisher.publishEvent(LibraryChangeEvent.studentCreated(student));
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new RuntimeException("Table is already occupied");
+            }
+            seatOccupancyIndex.markOccupied(tableId);
+            return null;
+        }, tableId);
+
+        return "Student created and assigned to table successfully!";
+    }
+
+    /**
+     * Create the students and seat them on tables picked from the in-memory free lists
+     * (see {@link SeatOccupancyIndex#reserve}), all in one transaction. Seats taken by a
+     * concurrent manual assignment are detected under the seat locks and the allocation
+     * is retried with fresh seats.
+     */
+    public List<SeatAllocationDTO> createStudentsWithAutoAllocation(AutoAssignRequestDTO request) {
+        List<CreateStudentRequestDTO> group = request.getStudents();
+        if (group == null || group.isEmpty()) {
+            throw new RuntimeException("No students to assign");
+        }
+        if (group.size() > MAX_GROUP_SIZE) {
+            throw new RuntimeException("At most " + MAX_GROUP_SIZE + " students per request");
+        }
+        String preferredRoom = request.getPreferredRoom() == null || request.getPreferredRoom().isBlank()
+                ? null : request.getPreferredRoom().trim().toUpperCase(Locale.ROOT);
+
+        for (int attempt = 1; attempt <= MAX_ALLOCATION_ATTEMPTS; attempt++) {
+            List<AvailableTableDTO> seats = seatOccupancyIndex.reserve(preferredRoom, group.size());
+            List<Long> tableIds = seats.stream().map(AvailableTableDTO::getTableId).toList();
+            try {
+                List<SeatAllocationDTO> allocated = seatLocks.withTableLocks(
+                        () -> seatReservedTables(group, seats), tableIds.toArray(Long[]::new));
+                if (allocated != null) {
+                    return allocated;
+                }
+            } finally {
+                seatOccupancyIndex.release(tableIds);
+            }
         }
+        throw new RuntimeException("Tables are being assigned concurrently, please try again");
+    }
 
-        // Step 2: Create student
+    // Runs under the seat locks; null if a seat was taken or booked since it was reserved
+    private List<SeatAllocationDTO> seatReservedTables(List<CreateStudentRequestDTO> group,
+                                                       List<AvailableTableDTO> seats) {
+        for (AvailableTableDTO seat : seats) {
+            if (seatOccupancyIndex.isOccupied(seat.getTableId()) || slotSchedule.hasUpcoming(seat.getTableId())) {
+                return null;
+            }
+        }
+        List<SeatAllocationDTO> allocated;
+        try {
+            allocated = transactionTemplate.execute(status -> {
+                Map<Long, StudyTable> tables = new HashMap<>();
+                studyTableRepository.findAllById(seats.stream().map(AvailableTableDTO::getTableId).toList())
+                        .forEach(table -> tables.put(table.getId(), table));
+                if (tables.size() != seats.size() || tables.values().stream().anyMatch(StudyTable::isOccupied)) {
+                    return null; // changed outside this JVM, nothing written yet
+                }
+
+                List<Student> students = new ArrayList<>(group.size());
+                for (int i = 0; i < group.size(); i++) {
+                    Student student = newStudentWithPayment(group.get(i));
+                    student.setAssignedTable(tables.get(seats.get(i).getTableId()));
+                    students.add(student);
+                }
+                students = studentRepository.saveAll(students);
+
+                List<SeatAllocationDTO> result = new ArrayList<>(group.size());
+                for (int i = 0; i < students.size(); i++) {
+                    Student student = students.get(i);
+                    AvailableTableDTO seat = seats.get(i);
+                    StudyTable table = tables.get(seat.getTableId());
+                    table.setStudent(student);
+                    table.setOccupied(true);
+                    result.add(new SeatAllocationDTO(student.getId(), student.getName(),
+                            seat.getRoomNumber(), seat.getTableNumber(), seat.getTableId()));
+                }
+                studyTableRepository.saveAll(tables.values());
+                paymentLedger.recordNewStudents(students);
+                students.forEach(student -> eventPublisher.publishEvent(LibraryChangeEvent.studentCreated(student)));
+                return result;
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            return null;
+        }
+        if (allocated != null) {
+            seats.forEach(seat -> seatOccupancyIndex.markOccupied(seat.getTableId()));
+        }
+        return allocated;
+    }
+
+    /**
+     * Delete a student and their payment. Their table goes to the waitlist if anyone is
+     * waiting for it, otherwise it is freed. Returns false if there is no such student.
+     */
+    public boolean deleteStudent(Long studentId) {
+        if (!studentRepository.existsById(studentId)) {
+            return false;
+        }
+        Long tableId = studyTableRepository.findTableIdByStudentId(studentId).orElse(null);
+
+        seatLocks.withTableLocks(() -> {
+            Long freedTableId = transactionTemplate.execute(status -> {
+                waitlist.lockQueueIfWaiting();
+                Student student = studentRepository.findById(studentId).orElse(null);
+                if (student == null) {
+                    return null; // deleted concurrently
+                }
+                StudyTable table = student.getAssignedTable();
+                if (table != null && !table.getId().equals(tableId)) {
+                    throw new RuntimeException("Student was reassigned concurrently, please retry.");
+                }
+                if (table != null) {
+                    table.setStudent(null);
+                    table.setOccupied(false);
+                    studyTableRepository.save(table);
+                    student.setAssignedTable(null); // the cascade would delete the table with the student
+                }
+                // The payment goes with the student (cascade)
+                studentRepository.delete(student);
+                eventPublisher.publishEvent(LibraryChangeEvent.studentDeleted(studentId, tableId));
+                return table != null && waitlist.handOff(List.of(tableId)).isEmpty() ? tableId : null;
+            });
+            if (freedTableId != null) {
+                seatOccupancyIndex.markFree(freedTableId);
+            }
+            return null;
+        }, tableId);
+        return true;
+    }
+
+    /**
+     * Delete many students in one transaction with set-based statements: their tables are
+     * unassigned, then their payments and the students are deleted. Freed tables go to the
+     * waitlist as with single deletes. A student moved to another table while the batch
+     * waited for the seat locks is left alone and reported as a conflict.
+     */
+    public BatchReportDTO deleteStudents(List<Long> studentIds) {
+        BatchOutcomes outcomes = new BatchOutcomes(studentIds);
+        List<Long> ids = outcomes.ids();
+        Map<Long, Long> seatsBefore = seatsOf(ids);
+
+        seatLocks.withTableLocks(() -> {
+            List<Long> freedTableIds = transactionTemplate.execute(status -> {
+                waitlist.lockQueueIfWaiting();
+                Map<Long, Long> seats = seatsOf(ids);
+                List<Long> deletable = new ArrayList<>();
+                List<Long> tableIds = new ArrayList<>();
+                for (Long id : ids) {
+                    if (!seats.containsKey(id)) {
+                        outcomes.set(id, Outcome.NOT_FOUND, "Student not found");
+                    } else if (!Objects.equals(seats.get(id), seatsBefore.get(id))) {
+                        outcomes.set(id, Outcome.CONFLICT, "Student was reassigned concurrently, please retry.");
+                    } else {
+                        outcomes.set(id, Outcome.DELETED, null);
+                        deletable.add(id);
+                        if (seats.get(id) != null) {
+                            tableIds.add(seats.get(id));
+                        }
+                    }
+                }
+                if (deletable.isEmpty()) {
+                    return List.of();
+                }
+                studyTableRepository.unassignStudents(deletable);
+                paymentRepository.deleteByStudentIds(deletable);
+                studentRepository.deleteByIds(deletable);
+                deletable.forEach(id -> eventPublisher.publishEvent(LibraryChangeEvent.studentDeleted(id, seats.get(id))));
+                Set<Long> handedOff = waitlist.handOff(tableIds);
+                return tableIds.stream().filter(id -> !handedOff.contains(id)).toList();
+            });
+            freedTableIds.forEach(seatOccupancyIndex::markFree);
+            return null;
+        }, seatsBefore.values().toArray(Long[]::new));
+        return outcomes.report();
+    }
+
+    // Existing students among the ids, mapped to their table id or null if unseated
+    private Map<Long, Long> seatsOf(List<Long> studentIds) {
+        Map<Long, Long> seats = new HashMap<>();
+        studentRepository.findSeats(studentIds).forEach(seat -> seats.put(seat.getStudentId(), seat.getTableId()));
+        return seats;
+    }
+
+    /**
+     * New student with a paid one-month payment, not yet saved or seated.
+     */
+    static Student newStudentWithPayment(CreateStudentRequestDTO dto) {
         Student student = new Student();
         student.setName(dto.getName());
         student.setContactNumber(dto.getContactNumber());
         student.setRollNumber(null);
 
-        // Step 3: Create payment and assign
         Payment payment = new Payment();
         payment.setAmount(dto.getAmountPaid());
         payment.setPaid(true);
         payment.setPaymentDate(LocalDate.now());
         payment.setDurationMonths(1);
         payment.setDueDate(LocalDate.now().plusMonths(1));
+        payment.setStudent(student);
         student.setPayment(payment);
+        return student;
+    }
 
-        // Step 4: Assign student to table and save all
-        student.setAssignedTable(table);
-        student = studentRepository.save(student);
-
-        table.setStudent(student);
-        table.setOccupied(true);
-        studyTableRepository.save(table);
-
-        return "Student created and assigned to table successfully!";
+    private Long resolveTableId(String roomNumber, int tableNumber) {
+        Long tableId = seatOccupancyIndex.findTableId(roomNumber, tableNumber);
+        if (tableId != null) {
+            return tableId;
+        }
+        // Not in the index: fall back to the cached layout, which also tells the two errors apart
+        Map<Integer, Long> layout = roomService.getTableLayout(roomNumber);
+        if (layout == null) {
+            throw new RuntimeException("Room not found");
+        }
+        tableId = layout.get(tableNumber);
+        if (tableId == null) {
+            throw new RuntimeException("Table not found in specified room");
+        }
+        return tableId;
     }
 
     // ✅ Final and correct version of mapStudentToDTO()
@@ -95,6 +347,11 @@ public class StudentService {
         return dto;
     }
 
+    /**
+     * Update the student's current payment. A request with an amount is a new fee payment:
+     * it moves the payment date to today and is appended to the payment ledger.
+     */
+    @Transactional
     public String updatePayment(Long studentId, UpdatePaymentRequest request) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new RuntimeException("Student not found"));
@@ -103,11 +360,13 @@ public class StudentService {
         if (payment == null) {
             payment = new Payment();
             payment.setPaymentDate(LocalDate.now());
+            payment.setStudent(student);
             student.setPayment(payment);
         }
 
         if (request.getAmount() != null) {
             payment.setAmount(request.getAmount());
+            payment.setPaymentDate(LocalDate.now());
         }
         if (request.getPaid() != null) {
             payment.setPaid(request.getPaid());
@@ -115,19 +374,69 @@ public class StudentService {
         if (request.getMonths() != null && request.getMonths() > 0) {
             payment.setDurationMonths(request.getMonths());
             payment.setDueDate(LocalDate.now().plusMonths(request.getMonths()));
+            payment.setExpired(false);
         }
 
         studentRepository.save(student);
+        if (request.getAmount() != null) {
+            paymentLedger.record(student, request.getAmount(), request.getMonths(), payment.getDueDate());
+        }
+        eventPublisher.publishEvent(LibraryChangeEvent.paymentUpdated(student));
         return "Payment updated";
     }
 
-    public List<Map<String, Object>> getAllRooms() {
-        return roomRepository.findAll().stream().map(room -> {
-            Map<String, Object> map = new HashMap<>();
-            map.put("id", room.getId());
-            map.put("roomNumber", room.getRoomNumber());
-            map.put("name", room.getName());
-            return map;
-        }).toList();
+    /**
+     * One page of students ordered by id, continuing after the given cursor.
+     * The returned cursor is null once there are no more matching students.
+     */
+    public StudentPageDTO findStudentsPage(StudentFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Ask for one extra row to find out whether another page exists
+        List<StudentTableInfoDTO> rows = studentRepository.findStudentTableInfoPage(
+                decodeCursor(cursor),
+                likePattern(filter.getName()),
+                likePattern(filter.getRollNumber()),
+                likePattern(filter.getContact()),
+                filter.roomNumber(),
+                filter.paidStatus(),
+                filter.overdueBefore(),
+                filter.getDueFrom(),
+                filter.getDueTo(),
+                likePattern(filter.getSearch()),
+                Limit.of(pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new StudentPageDTO(rows, null);
+        }
+        List<StudentTableInfoDTO> page = rows.subList(0, pageSize);
+        return new StudentPageDTO(List.copyOf(page), encodeCursor(page.get(pageSize - 1).getId()));
+    }
+
+    private static String likePattern(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String escaped = value.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static String encodeCursor(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 }
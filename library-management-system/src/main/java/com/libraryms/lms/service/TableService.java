@@ -1,15 +1,28 @@
 package com.libraryms.lms.service;
 
+import com.libraryms.lms.dto.BatchItemResultDTO.Outcome;
+import com.libraryms.lms.dto.BatchReportDTO;
+import com.libraryms.lms.dto.TableOccupantDTO;
 import com.libraryms.lms.model.Student;
 import com.libraryms.lms.model.StudyTable;
 import com.libraryms.lms.repository.StudentRepository;
 import com.libraryms.lms.repository.StudyTableRepository;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
+@Timed(value = "library.service", description = "Service operations, tagged with class and method")
 public class TableService {
 
     @Autowired
@@ -18,75 +31,187 @@ public class TableService {
     @Autowired
     private  StudentRepository studentRepository;
 
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private SlotSchedule slotSchedule;
+
+    @Autowired
+    private SeatLocks seatLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private Waitlist waitlist;
+
 
     /**
      * Assign a student to a study table.
      * This sets both sides of the relationship and marks the table as occupied.
+     * Both the new table and the student's current table are locked for the duration.
+     * The table the student leaves goes to the waitlist if anyone is waiting for it.
      */
     public void assignStudentToTable(Long studentId, Long tableId) {
-        Optional<StudyTable> optionalTable = studyTableRepository.findById(tableId);
-        Optional<Student> optionalStudent = studentRepository.findById(studentId);
-
-        if (optionalTable.isEmpty() || optionalStudent.isEmpty()) {
-            throw new RuntimeException("Invalid table or student ID");
-        }
-
-        StudyTable table = optionalTable.get();
-        Student student = optionalStudent.get();
-
-        // Check if table is already occupied
-        if (table.isOccupied()) {
-            throw new RuntimeException("Table is already occupied.");
-        }
-
-        // Clear any existing assigned table for the student
-        if (student.getAssignedTable() != null) {
-            StudyTable previouslyAssignedTable = student.getAssignedTable();
-            previouslyAssignedTable.setOccupied(false);
-            previouslyAssignedTable.setStudent(null);
-            studyTableRepository.save(previouslyAssignedTable);
-        }
-
-        // Assign new table
-        table.setOccupied(true);
-        table.setStudent(student);
-        student.setAssignedTable(table);
-
-        // Save changes
-        studyTableRepository.save(table);
-        studentRepository.save(student);
+        Long previousTableId = studyTableRepository.findTableIdByStudentId(studentId).orElse(null);
+
+        seatLocks.withTableLocks(() -> {
+            // The index is only changed under this lock, so a losing request is rejected without a query
+            if (seatOccupancyIndex.isOccupied(tableId)) {
+                throw new RuntimeException("Table is already occupied.");
+            }
+            if (slotSchedule.hasUpcoming(tableId)) {
+                throw new RuntimeException("Table has upcoming slot bookings.");
+            }
+            Long freedTableId;
+            try {
+                freedTableId = transactionTemplate.execute(status -> {
+                    if (previousTableId != null) {
+                        waitlist.lockQueueIfWaiting();
+                    }
+                    Optional<StudyTable> optionalTable = studyTableRepository.findById(tableId);
+                    Optional<Student> optionalStudent = studentRepository.findById(studentId);
+
+                    if (optionalTable.isEmpty() || optionalStudent.isEmpty()) {
+                        throw new RuntimeException("Invalid table or student ID");
+                    }
+
+                    StudyTable table = optionalTable.get();
+                    Student student = optionalStudent.get();
+
+                    // Check if table is already occupied
+                    if (table.isOccupied()) {
+                        throw new RuntimeException("Table is already occupied.");
+                    }
+
+                    // Clear any existing assigned table for the student
+                    StudyTable previouslyAssignedTable = student.getAssignedTable();
+                    if (previouslyAssignedTable != null) {
+                        if (!previouslyAssignedTable.getId().equals(previousTableId)) {
+                            // Student was moved after we picked the locks
+                            throw new RuntimeException("Student was reassigned concurrently, please retry.");
+                        }
+                        previouslyAssignedTable.setOccupied(false);
+                        previouslyAssignedTable.setStudent(null);
+                        // Flushed on its own: ordered updates could otherwise write the new table first
+                        // and trip the unique student_id while the old row still holds it
+                        studyTableRepository.saveAndFlush(previouslyAssignedTable);
+                        eventPublisher.publishEvent(LibraryChangeEvent.tableFreed(previouslyAssignedTable.getId(), studentId));
+                    }
+
+                    // Assign new table
+                    table.setOccupied(true);
+                    table.setStudent(student);
+                    student.setAssignedTable(table);
+
+                    // Save changes
+                    studyTableRepository.save(table);
+                    studentRepository.save(student);
+                    eventPublisher.publishEvent(LibraryChangeEvent.tableOccupied(student));
+                    // Only a table nobody on the waitlist took is really free
+                    return previouslyAssignedTable != null
+                            && waitlist.handOff(List.of(previouslyAssignedTable.getId())).isEmpty()
+                            ? previouslyAssignedTable.getId() : null;
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                throw new RuntimeException("Table is already occupied.");
+            }
+            if (freedTableId != null) {
+                seatOccupancyIndex.markFree(freedTableId);
+            }
+            seatOccupancyIndex.markOccupied(tableId);
+            return null;
+        }, tableId, previousTableId);
     }
 
     /**
      * Free the table and unassign the student from it.
+     * If anyone is waiting for the table it is handed to them in the same transaction.
      */
     public void freeTable(Long tableId) {
-        Optional<StudyTable> optionalTable = studyTableRepository.findById(tableId);
-
-        if (optionalTable.isEmpty()) {
-            throw new RuntimeException("Table not found with ID: " + tableId);
-        }
-
-        StudyTable table = optionalTable.get();
-        Student student = table.getStudent();
-
-        // Remove the student from the table
-        table.setStudent(null);
-        table.setOccupied(false);
-
-        if (student != null) {
-            student.setAssignedTable(null);
-            studentRepository.save(student);
-        }
-
-        studyTableRepository.save(table);
+        seatLocks.withTableLocks(() -> {
+            boolean handedOff = transactionTemplate.execute(status -> {
+                waitlist.lockQueueIfWaiting();
+                Optional<StudyTable> optionalTable = studyTableRepository.findById(tableId);
+
+                if (optionalTable.isEmpty()) {
+                    throw new RuntimeException("Table not found with ID: " + tableId);
+                }
+
+                StudyTable table = optionalTable.get();
+                Student student = table.getStudent();
+
+                // Remove the student from the table
+                table.setStudent(null);
+                table.setOccupied(false);
+
+                if (student != null) {
+                    student.setAssignedTable(null);
+                    studentRepository.save(student);
+                }
+
+                studyTableRepository.save(table);
+                eventPublisher.publishEvent(LibraryChangeEvent.tableFreed(tableId, student != null ? student.getId() : null));
+                return !waitlist.handOff(List.of(tableId)).isEmpty();
+            });
+            if (!handedOff) {
+                seatOccupancyIndex.markFree(tableId);
+            }
+            return null;
+        }, tableId);
     }
 
+    /**
+     * Free many tables in one transaction with a single bulk unassign. Tables someone is
+     * waiting for are handed to the waitlist in the same transaction, as with single frees.
+     */
+    public BatchReportDTO freeTables(List<Long> tableIds) {
+        BatchOutcomes outcomes = new BatchOutcomes(tableIds);
+        List<Long> ids = outcomes.ids();
+
+        seatLocks.withTableLocks(() -> {
+            List<Long> freedTableIds = transactionTemplate.execute(status -> {
+                waitlist.lockQueueIfWaiting();
+                Map<Long, TableOccupantDTO> occupants = new HashMap<>();
+                studyTableRepository.findOccupants(ids).forEach(occupant -> occupants.put(occupant.getTableId(), occupant));
+                List<Long> toFree = new ArrayList<>();
+                for (Long id : ids) {
+                    TableOccupantDTO occupant = occupants.get(id);
+                    if (occupant == null) {
+                        outcomes.set(id, Outcome.NOT_FOUND, "Table not found with ID: " + id);
+                    } else if (!occupant.isOccupied() && occupant.getStudentId() == null) {
+                        outcomes.set(id, Outcome.ALREADY_FREE, null);
+                    } else {
+                        outcomes.set(id, Outcome.FREED, null);
+                        toFree.add(id);
+                    }
+                }
+                if (toFree.isEmpty()) {
+                    return List.of();
+                }
+                studyTableRepository.unassignTables(toFree);
+                toFree.forEach(id -> eventPublisher.publishEvent(
+                        LibraryChangeEvent.tableFreed(id, occupants.get(id).getStudentId())));
+                Set<Long> handedOff = waitlist.handOff(toFree);
+                handedOff.forEach(id -> outcomes.set(id, Outcome.HANDED_OFF, null));
+                return toFree.stream().filter(id -> !handedOff.contains(id)).toList();
+            });
+            freedTableIds.forEach(seatOccupancyIndex::markFree);
+            return null;
+        }, ids.toArray(Long[]::new));
+        return outcomes.report();
+    }
 
     public void removeStudentFromTable(Long tableId) {
         StudyTable table = studyTableRepository.findById(tableId)
                 .orElseThrow(() -> new RuntimeException("Table not found"));
+        Long studentId = table.getStudent() != null ? table.getStudent().getId() : null;
         table.setStudent(null);
         studyTableRepository.save(table);
+        eventPublisher.publishEvent(LibraryChangeEvent.tableFreed(tableId, studentId));
     }
 }
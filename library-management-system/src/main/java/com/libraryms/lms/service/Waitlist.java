@@ -0,0 +1,295 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.WaitlistEntryDTO;
+import com.libraryms.lms.dto.WaitlistRequestDTO;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.model.StudyTable;
+import com.libraryms.lms.model.WaitlistEntry;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import com.libraryms.lms.repository.WaitlistRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Students waiting for a table. Whoever frees a table hands it to the head of the queue
+ * inside the same transaction and under the same seat lock, so a handed-off table goes
+ * straight from one student to the next and is never seen as free in between.
+ * Hand-offs share one queue, so they run one at a time; the @Version column on
+ * WaitlistEntry guards against hand-offs in other JVMs. The queue lock is always taken
+ * before any table row is written, never after.
+ */
+@Service
+@RequiredArgsConstructor
+public class Waitlist {
+
+    private final WaitlistRepository waitlistRepository;
+    private final StudentRepository studentRepository;
+    private final StudyTableRepository studyTableRepository;
+    private final SeatOccupancyIndex seatOccupancyIndex;
+    private final SlotSchedule slotSchedule;
+    private final SeatLocks seatLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PaymentLedger paymentLedger;
+
+    // Held from reading the head of the queue until the hand-off transaction ends
+    private final ReentrantLock queueLock = new ReentrantLock();
+
+    /**
+     * Add a student to the queue. If a matching table is already free they are seated
+     * right away and the returned entry is SEATED.
+     */
+    public WaitlistEntryDTO join(WaitlistRequestDTO request) {
+        if (request.getName() == null || request.getName().isBlank()) {
+            throw new RuntimeException("Name is required");
+        }
+        String roomNumber = request.getRoomNumber() == null || request.getRoomNumber().isBlank()
+                ? null : request.getRoomNumber().trim().toUpperCase(Locale.ROOT);
+        if (roomNumber != null && !seatOccupancyIndex.hasRoom(roomNumber)) {
+            throw new RuntimeException("Room not found: " + roomNumber);
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setName(request.getName().trim());
+        entry.setContactNumber(request.getContactNumber());
+        entry.setAmountPaid(request.getAmountPaid());
+        entry.setRoomNumber(roomNumber);
+        entry.setPriority(request.getPriority());
+        entry.setRequestedAt(LocalDateTime.now());
+        Long id = waitlistRepository.save(entry).getId();
+
+        // Covers tables that were free already and any freed while the entry was being written
+        drainFreeTables();
+        return toDTO(waitlistRepository.findById(id).orElseThrow());
+    }
+
+    /**
+     * Everyone still waiting, in the order they will be served.
+     */
+    public List<WaitlistEntryDTO> queue() {
+        List<WaitlistEntry> entries = waitlistRepository.findQueue();
+        List<WaitlistEntryDTO> result = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            result.add(toDTO(entries.get(i), i + 1));
+        }
+        return result;
+    }
+
+    @Transactional
+    public WaitlistEntryDTO cancel(Long id) {
+        WaitlistEntry entry = waitlistRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found: " + id));
+        if (entry.getStatus() != WaitlistEntry.Status.WAITING) {
+            throw new RuntimeException("Waitlist entry is already " + entry.getStatus().name().toLowerCase(Locale.ROOT));
+        }
+        entry.setStatus(WaitlistEntry.Status.CANCELLED);
+        entry.setClosedAt(LocalDateTime.now());
+        return toDTO(waitlistRepository.save(entry), null);
+    }
+
+    /**
+     * Seat waiting students on tables the index shows as free. Hand-offs normally happen as
+     * tables are freed; this catches tables that were free before anyone was waiting, and
+     * tables added to the layout later. Returns the number of students seated.
+     */
+    @Scheduled(initialDelayString = "${library.waitlist.drain-interval-ms:60000}",
+            fixedDelayString = "${library.waitlist.drain-interval-ms:60000}")
+    public int drainFreeTables() {
+        if (!waitlistRepository.existsByStatus(WaitlistEntry.Status.WAITING)) {
+            return 0;
+        }
+        List<Long> free = seatOccupancyIndex.freeTables().stream().map(AvailableTableDTO::getTableId).toList();
+        if (free.isEmpty()) {
+            return 0;
+        }
+        return seatLocks.withTableLocks(() -> {
+            List<Long> stillFree = free.stream().filter(tableId -> !seatOccupancyIndex.isOccupied(tableId)).toList();
+            Set<Long> seated;
+            try {
+                seated = transactionTemplate.execute(status -> {
+                    lockQueueIfWaiting();
+                    return handOff(stillFree);
+                });
+            } catch (ObjectOptimisticLockingFailureException e) {
+                return 0; // a table changed outside this JVM, the next drain tries again
+            }
+            seated.forEach(seatOccupancyIndex::markOccupied);
+            return seated.size();
+        }, free.toArray(Long[]::new));
+    }
+
+    /**
+     * Take the queue lock until the current transaction ends, if anyone is waiting. Callers
+     * that may hand tables off call this first in their transaction, before reading or writing
+     * tables: a hand-off holding the queue lock writes tables, so taking it after writing
+     * tables can deadlock with one.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockQueueIfWaiting() {
+        if (queueLock.isHeldByCurrentThread()) {
+            return;
+        }
+        if (waitlistRepository.existsByStatus(WaitlistEntry.Status.WAITING)) {
+            lockQueueUntilCompletion();
+        } // the common case, no queue lock taken
+    }
+
+    /**
+     * Seat waiting students on the given tables, which the caller has just freed inside the
+     * current transaction while holding their seat locks. One query reads the head of the
+     * queue and the students and tables are written in batches, however many tables were freed.
+     * Tables still occupied in the database are skipped. Returns the ids of the tables handed
+     * off: the caller must leave those occupied in the index rather than mark them free.
+     * Nothing is handed off unless the caller called {@link #lockQueueIfWaiting()} first; a
+     * student who joined after that is seated by the next drain.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<Long> handOff(Collection<Long> tableIds) {
+        if (!queueLock.isHeldByCurrentThread()) {
+            return Set.of();
+        }
+        // Tables booked by the hour stay free for their bookings
+        List<AvailableTableDTO> seats = seatOccupancyIndex.describe(tableIds).stream()
+                .filter(seat -> !slotSchedule.hasUpcoming(seat.getTableId()))
+                .toList();
+        if (seats.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> rooms = new LinkedHashSet<>();
+        seats.forEach(seat -> rooms.add(seat.getRoomNumber()));
+
+        List<WaitlistEntry> head = waitlistRepository.findQueueFor(rooms, Limit.of(seats.size()));
+        List<Match> matches = match(head, seats);
+        if (matches.size() < seats.size() && head.size() == seats.size()) {
+            // Earlier entries wanted rooms that ran out; later ones may still fit the rest
+            matches = match(waitlistRepository.findQueueFor(rooms, Limit.unlimited()), seats);
+        }
+        if (matches.isEmpty()) {
+            return Set.of();
+        }
+
+        Map<Long, StudyTable> tables = new HashMap<>();
+        studyTableRepository.findAllById(matches.stream().map(match -> match.seat().getTableId()).toList())
+                .forEach(table -> tables.put(table.getId(), table));
+        matches = matches.stream()
+                .filter(match -> {
+                    StudyTable table = tables.get(match.seat().getTableId());
+                    return table != null && !table.isOccupied();
+                })
+                .toList();
+        if (matches.isEmpty()) {
+            return Set.of();
+        }
+
+        List<Student> students = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            Student student = StudentService.newStudentWithPayment(asRequest(match.entry()));
+            student.setAssignedTable(tables.get(match.seat().getTableId()));
+            students.add(student);
+        }
+        students = studentRepository.saveAll(students);
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> handedOff = new LinkedHashSet<>();
+        for (int i = 0; i < matches.size(); i++) {
+            Student student = students.get(i);
+            WaitlistEntry entry = matches.get(i).entry();
+            StudyTable table = tables.get(matches.get(i).seat().getTableId());
+            table.setStudent(student);
+            table.setOccupied(true);
+            entry.setStatus(WaitlistEntry.Status.SEATED);
+            entry.setStudentId(student.getId());
+            entry.setClosedAt(now);
+            handedOff.add(table.getId());
+        }
+        studyTableRepository.saveAll(tables.values());
+        waitlistRepository.saveAll(matches.stream().map(Match::entry).toList());
+        paymentLedger.recordNewStudents(students);
+        students.forEach(student -> eventPublisher.publishEvent(LibraryChangeEvent.studentCreated(student)));
+        return handedOff;
+    }
+
+    private void lockQueueUntilCompletion() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                queueLock.unlock();
+            }
+        });
+        queueLock.lock();
+    }
+
+    /**
+     * Pair queue entries with seats in queue order. An entry for a room takes that room's
+     * lowest free table; an entry for any room takes the first free table in layout order.
+     */
+    private static List<Match> match(List<WaitlistEntry> queue, List<AvailableTableDTO> seats) {
+        Map<String, ArrayDeque<AvailableTableDTO>> byRoom = new LinkedHashMap<>();
+        seats.forEach(seat -> byRoom.computeIfAbsent(seat.getRoomNumber(), room -> new ArrayDeque<>()).add(seat));
+        int left = seats.size();
+
+        List<Match> matches = new ArrayList<>();
+        for (WaitlistEntry entry : queue) {
+            if (left == 0) {
+                break;
+            }
+            ArrayDeque<AvailableTableDTO> pool = entry.getRoomNumber() != null
+                    ? byRoom.get(entry.getRoomNumber())
+                    : byRoom.values().stream().filter(room -> !room.isEmpty()).findFirst().orElse(null);
+            if (pool != null && !pool.isEmpty()) {
+                matches.add(new Match(entry, pool.poll()));
+                left--;
+            }
+        }
+        return matches;
+    }
+
+    private static CreateStudentRequestDTO asRequest(WaitlistEntry entry) {
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName(entry.getName());
+        dto.setContactNumber(entry.getContactNumber());
+        dto.setAmountPaid(entry.getAmountPaid());
+        return dto;
+    }
+
+    private WaitlistEntryDTO toDTO(WaitlistEntry entry) {
+        Integer position = entry.getStatus() == WaitlistEntry.Status.WAITING
+                ? (int) waitlistRepository.countAhead(entry.getPriority(), entry.getId()) + 1
+                : null;
+        return toDTO(entry, position);
+    }
+
+    private static WaitlistEntryDTO toDTO(WaitlistEntry entry, Integer position) {
+        return new WaitlistEntryDTO(entry.getId(), entry.getName(), entry.getContactNumber(),
+                entry.getRoomNumber(), entry.getPriority(), entry.getStatus().name(),
+                entry.getRequestedAt(), position, entry.getStudentId());
+    }
+
+    private record Match(WaitlistEntry entry, AvailableTableDTO seat) {
+    }
+}
@@ -0,0 +1,13 @@
+-- Indexes for the hot lookups; the same statements run on MySQL, PostgreSQL and H2.
+
+-- Free-table scans (findByIsOccupiedFalse)
+create index idx_study_table_occupied
+   on study_table (is_occupied);
+
+-- One table per number in a room; also serves findByRoomAndTableNumber
+alter table study_table
+   add constraint uk_study_table_room_number unique (room_id, table_number);
+
+-- Exact roll number lookups
+create index idx_student_roll_number
+   on student (roll_number);
@@ -0,0 +1,3 @@
+-- Optimistic locking on study tables; existing rows start at version 0.
+alter table study_table
+   add column version bigint default 0;
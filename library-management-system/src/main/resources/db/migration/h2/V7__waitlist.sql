@@ -0,0 +1,21 @@
+-- Queue of students waiting for a table.
+
+create table waitlist_entry (
+    amount_paid float(53) not null,
+    priority integer not null,
+    closed_at timestamp(6),
+    id bigint not null,
+    requested_at timestamp(6) not null,
+    student_id bigint,
+    version bigint default 0,
+    contact_number varchar(255),
+    name varchar(255) not null,
+    room_number varchar(255),
+    status enum ('CANCELLED','SEATED','WAITING') not null,
+    primary key (id)
+);
+
+create sequence waitlist_entry_seq start with 1 increment by 50;
+
+create index idx_waitlist_queue
+   on waitlist_entry (status, priority, id);
@@ -0,0 +1,21 @@
+-- Time-slot bookings of study tables.
+
+create table table_booking (
+    end_time timestamp(6) not null,
+    id bigint not null,
+    start_time timestamp(6) not null,
+    student_id bigint not null,
+    table_id bigint not null,
+    primary key (id)
+);
+
+create sequence table_booking_seq start with 1 increment by 50;
+
+create index idx_table_booking_table
+   on table_booking (table_id, start_time);
+
+create index idx_table_booking_student
+   on table_booking (student_id, start_time);
+
+create index idx_table_booking_end
+   on table_booking (end_time);
@@ -0,0 +1,26 @@
+-- Append-only log of seat and payment changes.
+
+create table audit_entry (
+    amount float(53),
+    due_date date,
+    paid boolean,
+    table_number integer,
+    id bigint not null,
+    occurred_at timestamp(6) not null,
+    student_id bigint,
+    table_id bigint,
+    action varchar(32) not null,
+    room_number varchar(255),
+    primary key (id)
+);
+
+create sequence audit_entry_seq start with 1 increment by 50;
+
+create index idx_audit_student
+   on audit_entry (student_id, id);
+
+create index idx_audit_table
+   on audit_entry (table_id, id);
+
+create index idx_audit_time
+   on audit_entry (occurred_at);
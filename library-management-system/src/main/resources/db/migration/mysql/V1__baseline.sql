@@ -0,0 +1,60 @@
+-- Schema exactly as Hibernate created it with ddl-auto=update before migrations were introduced:
+-- IDENTITY ids and Hibernate's generated constraint names. Databases that already have it are
+-- baselined at this version and only get the later migrations.
+
+create table payment (
+    id bigint not null auto_increment,
+    amount float(53) not null,
+    due_date date,
+    duration_months integer,
+    paid bit not null,
+    payment_date date,
+    student_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+create table room (
+    id bigint not null auto_increment,
+    name varchar(255),
+    room_number varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table student (
+    id bigint not null auto_increment,
+    contact_number varchar(255),
+    name varchar(255),
+    roll_number varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table study_table (
+    id bigint not null auto_increment,
+    is_occupied bit not null,
+    room_number varchar(255),
+    table_number integer not null,
+    room_id bigint,
+    student_id bigint,
+    primary key (id)
+) engine=InnoDB;
+
+alter table payment
+   add constraint UKb7kf42o45twn3wlx4gbkp3h3v unique (student_id);
+
+alter table study_table
+   add constraint UKj8j4rh8l5m47fc5r8qmc904f8 unique (student_id);
+
+alter table payment
+   add constraint FKq0mpbhvyrwyggk1gwjams69wf
+   foreign key (student_id)
+   references student (id);
+
+alter table study_table
+   add constraint FKt0wrd1pl0mhcn1c4805hfujtb
+   foreign key (room_id)
+   references room (id);
+
+alter table study_table
+   add constraint FKltjrh1gbi2eataohp82mha7jp
+   foreign key (student_id)
+   references student (id);
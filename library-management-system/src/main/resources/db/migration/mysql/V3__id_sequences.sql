@@ -0,0 +1,27 @@
+-- Pooled id sequences for the original tables, which used IDENTITY ids. MySQL has no sequences,
+-- so Hibernate keeps each one in a one-row table. The pooled optimizer reads the stored value as
+-- the top of a block of 50 ids, so it starts at max(id) + 50 and existing ids are never reused.
+
+create table student_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into student_seq select coalesce(max(id), 0) + 50 from student;
+
+create table payment_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into payment_seq select coalesce(max(id), 0) + 50 from payment;
+
+create table room_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into room_seq select coalesce(max(id), 0) + 50 from room;
+
+create table study_table_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into study_table_seq select coalesce(max(id), 0) + 50 from study_table;
@@ -0,0 +1,7 @@
+-- Memberships past their due date are flagged instead of deleted.
+
+alter table payment
+   add column expired bit default false not null;
+
+create index idx_payment_due_date
+   on payment (due_date);
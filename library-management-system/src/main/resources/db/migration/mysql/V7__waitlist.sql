@@ -0,0 +1,25 @@
+-- Queue of students waiting for a table.
+
+create table waitlist_entry (
+    amount_paid float(53) not null,
+    priority integer not null,
+    closed_at datetime(6),
+    id bigint not null,
+    requested_at datetime(6) not null,
+    student_id bigint,
+    version bigint default 0,
+    contact_number varchar(255),
+    name varchar(255) not null,
+    room_number varchar(255),
+    status enum ('CANCELLED','SEATED','WAITING') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table waitlist_entry_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into waitlist_entry_seq select coalesce(max(id), 0) + 50 from waitlist_entry;
+
+create index idx_waitlist_queue
+   on waitlist_entry (status, priority, id);
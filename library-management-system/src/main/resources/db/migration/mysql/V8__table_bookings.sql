@@ -0,0 +1,25 @@
+-- Time-slot bookings of study tables.
+
+create table table_booking (
+    end_time datetime(6) not null,
+    id bigint not null,
+    start_time datetime(6) not null,
+    student_id bigint not null,
+    table_id bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table table_booking_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into table_booking_seq select coalesce(max(id), 0) + 50 from table_booking;
+
+create index idx_table_booking_table
+   on table_booking (table_id, start_time);
+
+create index idx_table_booking_student
+   on table_booking (student_id, start_time);
+
+create index idx_table_booking_end
+   on table_booking (end_time);
@@ -0,0 +1,30 @@
+-- Append-only log of seat and payment changes.
+
+create table audit_entry (
+    amount float(53),
+    due_date date,
+    paid bit,
+    table_number integer,
+    id bigint not null,
+    occurred_at datetime(6) not null,
+    student_id bigint,
+    table_id bigint,
+    action varchar(32) not null,
+    room_number varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table audit_entry_seq (
+    next_val bigint
+) engine=InnoDB;
+
+insert into audit_entry_seq select coalesce(max(id), 0) + 50 from audit_entry;
+
+create index idx_audit_student
+   on audit_entry (student_id, id);
+
+create index idx_audit_table
+   on audit_entry (table_id, id);
+
+create index idx_audit_time
+   on audit_entry (occurred_at);
@@ -0,0 +1,54 @@
+-- Schema exactly as Hibernate created it with ddl-auto=update before migrations were introduced:
+-- IDENTITY ids and Hibernate's generated constraint names. Databases that already have it are
+-- baselined at this version and only get the later migrations.
+
+create table payment (
+    id bigint generated by default as identity,
+    amount float(53) not null,
+    due_date date,
+    duration_months integer,
+    paid boolean not null,
+    payment_date date,
+    student_id bigint unique,
+    primary key (id)
+);
+
+create table room (
+    id bigint generated by default as identity,
+    name varchar(255),
+    room_number varchar(255),
+    primary key (id)
+);
+
+create table student (
+    id bigint generated by default as identity,
+    contact_number varchar(255),
+    name varchar(255),
+    roll_number varchar(255),
+    primary key (id)
+);
+
+create table study_table (
+    id bigint generated by default as identity,
+    is_occupied boolean not null,
+    room_number varchar(255),
+    table_number integer not null,
+    room_id bigint,
+    student_id bigint unique,
+    primary key (id)
+);
+
+alter table if exists payment
+   add constraint FKq0mpbhvyrwyggk1gwjams69wf
+   foreign key (student_id)
+   references student;
+
+alter table if exists study_table
+   add constraint FKt0wrd1pl0mhcn1c4805hfujtb
+   foreign key (room_id)
+   references room;
+
+alter table if exists study_table
+   add constraint FKltjrh1gbi2eataohp82mha7jp
+   foreign key (student_id)
+   references student;
@@ -0,0 +1,10 @@
+-- Pooled id sequences for the original tables, which used IDENTITY ids.
+-- V4__SeedIdSequences moves them past the ids already in use.
+
+create sequence student_seq start with 1 increment by 50;
+
+create sequence payment_seq start with 1 increment by 50;
+
+create sequence room_seq start with 1 increment by 50;
+
+create sequence study_table_seq start with 1 increment by 50;
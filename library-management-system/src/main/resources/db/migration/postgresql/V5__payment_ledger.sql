@@ -0,0 +1,28 @@
+-- Append-only payment history and the monthly per-room revenue it rolls up into.
+
+create table monthly_room_revenue (
+    revenue numeric(14,2) not null,
+    revenue_month date not null,
+    payments bigint not null,
+    room_number varchar(255) not null,
+    primary key (revenue_month, room_number)
+);
+
+create table payment_ledger (
+    amount float(53) not null,
+    duration_months integer,
+    payment_date date not null,
+    valid_until date,
+    id bigint not null,
+    student_id bigint not null,
+    room_number varchar(255) not null,
+    primary key (id)
+);
+
+create sequence payment_ledger_seq start with 1 increment by 50;
+
+create index idx_payment_ledger_student
+   on payment_ledger (student_id, id);
+
+create index idx_payment_ledger_date
+   on payment_ledger (payment_date);
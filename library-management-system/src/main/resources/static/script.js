@@ -3,11 +3,21 @@ let students = [];
 let tables = [];
 let rooms = [];
 let allTables = []; // All 60 tables (4 rooms × 15 tables)
+const STUDENT_PAGE_SIZE = 50;
+const ANY_ROOM = '*'; // room option for "let the server choose the room"
+const AUTO_TABLE = 'auto'; // table option for "let the server choose the table"
+let studentSearchTerm = '';
+let studentNextCursor = null; // keyset cursor for the next page of /api/students
+let changeStream = null; // EventSource on /api/changes
+let changeStreamConnected = false;
+let lastChangeSeq = null; // sequence of the last change applied to the page
+let liveRefreshTimer = null;
 
 // Initialize the application
 document.addEventListener('DOMContentLoaded', function() {
     initializeRooms();
     loadDashboard();
+    connectChangeStream();
     loadStudents();
     loadTables();
     loadRooms();
@@ -75,21 +85,18 @@ function setupModals() {
 // Setup search functionality
 function setupSearch() {
     const searchInput = document.getElementById('searchStudent');
+    let debounceTimer = null;
     searchInput.addEventListener('input', function() {
         const searchTerm = this.value.toLowerCase();
-        filterStudents(searchTerm);
+        clearTimeout(debounceTimer);
+        debounceTimer = setTimeout(() => filterStudents(searchTerm), 250);
     });
 }
 
-// Filter students based on search term
+// Filter students based on search term (done server-side, one page at a time)
 function filterStudents(searchTerm) {
-    const filteredStudents = students.filter(student => 
-        student.studentName?.toLowerCase().includes(searchTerm) ||
-        student.rollNumber?.toLowerCase().includes(searchTerm) ||
-        student.contactNumber?.includes(searchTerm) ||
-        student.roomNumber?.toLowerCase().includes(searchTerm)
-    );
-    displayStudents(filteredStudents);
+    studentSearchTerm = searchTerm.trim();
+    loadStudents();
 }
 
 // Tab switching
@@ -123,13 +130,8 @@ async function clearStudentData() {
             // Show success message
             showNotification('✅ All student data cleared successfully!', 'success');
             
-            // Refresh all data
-            await Promise.all([
-                loadStudents(),
-                loadTables(),
-                loadDashboard(),
-                loadRooms()
-            ]);
+            // Other data arrives through the change stream
+            refreshAfterWrite();
             
             // Reset form
             document.getElementById('assignmentForm').reset();
@@ -468,33 +470,39 @@ function showTableDetails(tableId) {
     modal.style.display = "block";
 }
 
-// Load dashboard statistics
+// Load dashboard statistics (served from server-side counters)
 async function loadDashboard() {
     try {
-        const [studentsRes, tablesRes] = await Promise.all([
-            fetch('/api/students/complete-info'),
-            fetch('/api/students/available-tables')
-        ]);
-        
-        const studentsData = await studentsRes.json();
-        const tablesData = await tablesRes.json();
+        const response = await fetch('/api/stats');
+        const stats = await response.json();
         
         // Update dashboard stats
-        document.getElementById('totalStudents').textContent = studentsData.length;
-        document.getElementById('totalTables').textContent = allTables.length; // 60 total tables
-        document.getElementById('availableTables').textContent = tablesData.length;
-        document.getElementById('totalRevenue').textContent = '₹' + studentsData.reduce((sum, s) => sum + (s.amountPaid || 0), 0);
+        document.getElementById('totalStudents').textContent = stats.totalStudents;
+        document.getElementById('totalTables').textContent = stats.totalTables;
+        document.getElementById('availableTables').textContent = stats.availableTables;
+        document.getElementById('totalRevenue').textContent = '₹' + stats.totalRevenue;
+        
+    } catch (error) {
+        console.error('Error loading dashboard:', error);
+    }
+}
+
+// Load per-table occupancy for the room overview
+async function loadRoomOverview() {
+    try {
+        const response = await fetch('/api/students/complete-info');
+        const studentsData = await response.json();
         
         // Update table occupancy status
-        updateTableStatus(studentsData, tablesData);
+        updateTableStatus(studentsData);
         
     } catch (error) {
-        console.error('Error loading dashboard:', error);
+        console.error('Error loading room overview:', error);
     }
 }
 
 // Update table status based on student data
-function updateTableStatus(studentsData, availableTablesData) {
+function updateTableStatus(studentsData) {
     // Reset all tables to vacant
     allTables.forEach(table => {
         table.isOccupied = false;
@@ -503,38 +511,151 @@ function updateTableStatus(studentsData, availableTablesData) {
     });
     
     // Mark occupied tables
-    studentsData.forEach(student => {
-        if (student.roomNumber && student.tableNumber) {
-            // Use roomNumber as is
-            const tableId = `${student.roomNumber}-T${student.tableNumber}`;
-            const table = allTables.find(t => t.id === tableId);
-            if (table) {
-                table.isOccupied = true;
-                table.student = {
-                    id: student.id,
-                    name: student.studentName,
-                    rollNumber: student.rollNumber,
-                    contactNumber: student.contactNumber
-                };
-                table.payment = {
-                    amount: student.amountPaid,
-                    paid: student.paid,
-                    paymentDate: student.paymentDate,
-                    dueDate: student.dueDate
-                };
-            }
+    studentsData.forEach(placeStudent);
+    
+    // Re-render the layout
+    renderRoomOverview();
+}
+
+// Put one student row (as returned by /complete-info) on its table
+function placeStudent(student) {
+    if (student.roomNumber && student.tableNumber) {
+        // Use roomNumber as is
+        const tableId = `${student.roomNumber}-T${student.tableNumber}`;
+        const table = allTables.find(t => t.id === tableId);
+        if (table) {
+            table.isOccupied = true;
+            table.student = {
+                id: student.id,
+                name: student.studentName,
+                rollNumber: student.rollNumber,
+                contactNumber: student.contactNumber
+            };
+            table.payment = {
+                amount: student.amountPaid,
+                paid: student.paid,
+                paymentDate: student.paymentDate,
+                dueDate: student.dueDate
+            };
+        }
+    }
+}
+
+// Vacate whichever table the student currently holds on the page
+function vacateStudentTable(studentId) {
+    allTables.forEach(table => {
+        if (table.student && table.student.id == studentId) {
+            table.isOccupied = false;
+            table.student = null;
+            table.payment = null;
         }
     });
+}
+
+// Load the room overview snapshot, then follow the change stream from its sequence
+async function connectChangeStream() {
+    if (!window.EventSource) {
+        return loadRoomOverview();
+    }
+    try {
+        const response = await fetch('/api/changes/snapshot');
+        const snapshot = await response.json();
+        lastChangeSeq = snapshot.seq;
+        updateTableStatus(snapshot.students);
+    } catch (error) {
+        console.error('Error loading change snapshot:', error);
+        return;
+    }
+    
+    if (changeStream) changeStream.close();
+    // On reconnect the browser sends Last-Event-ID, so only missed changes are replayed
+    changeStream = new EventSource(`/api/changes?since=${lastChangeSeq}`);
+    changeStream.onopen = () => { changeStreamConnected = true; };
+    changeStream.onerror = () => { changeStreamConnected = false; };
+    changeStream.addEventListener('change', event => applyChange(JSON.parse(event.data)));
+    changeStream.addEventListener('reset', () => connectChangeStream());
+}
+
+// Apply one change event to the page in place
+function applyChange(change) {
+    if (lastChangeSeq !== null && change.seq <= lastChangeSeq) return;
+    lastChangeSeq = change.seq;
+    
+    switch (change.type) {
+        case 'STUDENT_CREATED':
+        case 'TABLE_OCCUPIED':
+        case 'PAYMENT_UPDATED':
+            vacateStudentTable(change.studentId);
+            placeStudent(change.student);
+            upsertStudentRow(change.student, change.type === 'STUDENT_CREATED');
+            break;
+        case 'TABLE_FREED':
+            if (change.studentId) {
+                vacateStudentTable(change.studentId);
+                upsertStudentRow({ ...students.find(s => s.id == change.studentId), roomNumber: null, tableNumber: 0 }, false);
+            }
+            break;
+        case 'STUDENT_DELETED':
+            vacateStudentTable(change.studentId);
+            students = students.filter(s => s.id != change.studentId);
+            break;
+        case 'DATA_CLEARED':
+            updateTableStatus([]);
+            students = [];
+            studentNextCursor = null;
+            break;
+    }
     
-    // Re-render the layout
     renderRoomOverview();
+    displayStudents(students);
+    scheduleLiveRefresh();
 }
 
-// Load students data
+// Replace a loaded student row, or append a new one when the whole unfiltered list is loaded
+function upsertStudentRow(student, isNew) {
+    if (!student || !student.id) return;
+    const index = students.findIndex(s => s.id == student.id);
+    if (index >= 0) {
+        students[index] = student;
+    } else if (isNew && !studentSearchTerm && !studentNextCursor) {
+        students.push(student);
+    }
+}
+
+// Counters and the free-table list are served from memory; batch bursts of changes into one fetch
+function scheduleLiveRefresh() {
+    clearTimeout(liveRefreshTimer);
+    liveRefreshTimer = setTimeout(() => {
+        loadDashboard();
+        loadTables();
+    }, 300);
+}
+
+// The change stream also delivers this desk's own writes; reload only when it is down
+function refreshAfterWrite() {
+    if (!changeStreamConnected) {
+        refreshData();
+    }
+}
+
+// Load the first page of students matching the current search
 async function loadStudents() {
+    students = [];
+    studentNextCursor = null;
+    await loadMoreStudents();
+}
+
+// Load the next page of students and append it to the list
+async function loadMoreStudents() {
     try {
-        const response = await fetch('/api/students/complete-info');
-        students = await response.json();
+        const params = new URLSearchParams({ limit: STUDENT_PAGE_SIZE });
+        if (studentSearchTerm) params.set('search', studentSearchTerm);
+        if (studentNextCursor) params.set('cursor', studentNextCursor);
+
+        const response = await fetch(`/api/students?${params}`);
+        const page = await response.json();
+        students = students.concat(page.items);
+        studentNextCursor = page.nextCursor;
         displayStudents(students);
     } catch (error) {
         console.error('Error loading students:', error);
@@ -598,6 +719,13 @@ function displayStudents(studentsToShow = students) {
                 </tbody>
             </table>
         </div>
+        ${studentNextCursor ? `
+            <div style="text-align: center; margin-top: 15px;">
+                <button class="btn btn-warning" onclick="loadMoreStudents()">
+                    <i class="fas fa-chevron-down"></i> Load More
+                </button>
+            </div>
+        ` : ''}
     `;
     
     content.innerHTML = table;
@@ -624,7 +752,8 @@ async function loadRooms() {
         const roomsData = await response.json();
         
         const roomSelect = document.getElementById('roomNumber');
-        roomSelect.innerHTML = '<option value="">Select Room</option>';
+        roomSelect.innerHTML = '<option value="">Select Room</option>'
+            + `<option value="${ANY_ROOM}">any room (auto)</option>`;
         
         roomsData.forEach(room => {
             const option = document.createElement('option');
@@ -648,10 +777,17 @@ function handleRoomChange() {
         return;
     }
     
+    // The server picks the seat: first free table of the room, or of the least occupied room
+    if (roomNumber === ANY_ROOM) {
+        tableSelect.innerHTML = `<option value="${AUTO_TABLE}">Auto-assign</option>`;
+        return;
+    }
+
     // Filter tables by selected room
     const roomTables = tables.filter(t => t.roomNumber === roomNumber);
     
-    tableSelect.innerHTML = '<option value="">Select Table</option>';
+    tableSelect.innerHTML = '<option value="">Select Table</option>'
+        + `<option value="${AUTO_TABLE}">Auto-assign</option>`;
     roomTables.forEach(table => {
         const option = document.createElement('option');
         option.value = table.tableNumber;
@@ -664,6 +800,10 @@ function handleRoomChange() {
 async function handleAssignment(event) {
     event.preventDefault();
     
+    if (document.getElementById('tableNumber').value === AUTO_TABLE) {
+        return handleAutoAssignment();
+    }
+
     const formData = {
         name: document.getElementById('studentName').value,
         contactNumber: document.getElementById('contactNumber').value,
@@ -687,10 +827,7 @@ async function handleAssignment(event) {
             document.getElementById('assignmentForm').reset();
             
             // Refresh data
-            loadDashboard();
-            loadStudents();
-            loadTables();
-            loadRooms();
+            refreshAfterWrite();
             
         } else {
             const error = await response.text();
@@ -702,6 +839,76 @@ async function handleAssignment(event) {
     }
 }
 
+// Let the server pick the table (POST /api/students/auto-assign)
+async function handleAutoAssignment() {
+    const roomNumber = document.getElementById('roomNumber').value;
+    const request = {
+        preferredRoom: roomNumber === ANY_ROOM ? null : roomNumber,
+        students: [{
+            name: document.getElementById('studentName').value,
+            contactNumber: document.getElementById('contactNumber').value,
+            amountPaid: parseFloat(document.getElementById('amountPaid').value)
+        }]
+    };
+
+    try {
+        const response = await fetch('/api/students/auto-assign', {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify(request)
+        });
+
+        if (response.ok) {
+            const [seat] = await response.json();
+            showMessage('success', `Student assigned to room ${seat.roomNumber}, table ${seat.tableNumber}!`);
+            document.getElementById('assignmentForm').reset();
+            refreshAfterWrite();
+        } else {
+            const error = await response.text();
+            // One student only fails when every table is taken, so offer a place in the queue
+            if (confirm('No free table right now. Add the student to the waitlist?')) {
+                return joinWaitlist(request.preferredRoom, request.students[0]);
+            }
+            showMessage('error', 'Error: ' + error);
+        }
+    } catch (error) {
+        console.error('Error auto-assigning student:', error);
+        showMessage('error', 'Error assigning student. Please try again.');
+    }
+}
+
+// Queue for the next freed table (POST /api/waitlist); seated at once if one frees up meanwhile
+async function joinWaitlist(roomNumber, student) {
+    try {
+        const response = await fetch('/api/waitlist', {
+            method: 'POST',
+            headers: {
+                'Content-Type': 'application/json'
+            },
+            body: JSON.stringify({ ...student, roomNumber: roomNumber })
+        });
+
+        if (response.ok) {
+            const entry = await response.json();
+            if (entry.status === 'SEATED') {
+                showMessage('success', 'A table just freed up, student assigned!');
+                refreshAfterWrite();
+            } else {
+                showMessage('success', `Student added to the waitlist at position ${entry.position}.`);
+            }
+            document.getElementById('assignmentForm').reset();
+        } else {
+            const error = await response.text();
+            showMessage('error', 'Error: ' + error);
+        }
+    } catch (error) {
+        console.error('Error joining waitlist:', error);
+        showMessage('error', 'Error adding student to the waitlist. Please try again.');
+    }
+}
+
 // Load fee management
 async function loadFeeManagement() {
     try {
@@ -874,8 +1081,7 @@ async function saveFeeUpdate(studentId) {
         document.getElementById('feeModal').style.display = "none";
         
         // Refresh data
-        loadDashboard();
-        loadStudents();
+        refreshAfterWrite();
         if (document.getElementById('fee-management-tab').style.display !== 'none') {
             loadFeeManagement();
         }
@@ -939,8 +1145,7 @@ async function removeStudent(studentId) {
         showMessage('success', 'Student removed successfully!');
         
         // Refresh data
-        loadDashboard();
-        loadStudents();
+        refreshAfterWrite();
         
     } catch (error) {
         console.error('Error removing student:', error);
@@ -967,6 +1172,7 @@ function showMessage(type, message) {
 // Refresh data
 function refreshData() {
     loadDashboard();
+    loadRoomOverview();
     loadStudents();
     loadTables();
     loadRooms();
@@ -0,0 +1,23 @@
+package com.libraryms.lms.config;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Baseline-to-head migration with the H2 migrations.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1"
+})
+@DirtiesContext
+class BaselineMigrationTest extends BaselineMigrationTestSupport {
+
+    @DynamicPropertySource
+    static void baselineDatabase(DynamicPropertyRegistry registry) {
+        String url = createBaselineDatabase("h2", "");
+        registry.add("spring.datasource.url", () -> url);
+    }
+}
@@ -0,0 +1,111 @@
+package com.libraryms.lms.config;
+
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.service.StudentService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.CoreMigrationType;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application on a database that ddl-auto=update created before migrations were
+ * introduced: the V1 schema with no Flyway history and rows whose ids came from IDENTITY
+ * columns. Flyway baselines it and migrates to head, Hibernate's validation has to pass, and
+ * new rows must get ids past the old ones. Subclasses pick the vendor's migrations.
+ */
+abstract class BaselineMigrationTestSupport {
+
+    // Ids the old IDENTITY columns handed out: room A with tables 101-115, two students with payments
+    private static final long ROOM_ID = 40;
+    private static final long LAST_TABLE_ID = 115;
+    private static final long LAST_STUDENT_ID = 71;
+    private static final long LAST_PAYMENT_ID = 81;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private StudentService studentService;
+
+    /**
+     * Create the pre-migration database and return its URL.
+     */
+    static String createBaselineDatabase(String vendor, String modeOptions) {
+        String url = "jdbc:h2:mem:baseline-" + UUID.randomUUID() + modeOptions + ";DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new ClassPathResource("db/migration/" + vendor + "/V1__baseline.sql"));
+            statement.execute("insert into room (id, name, room_number) values (" + ROOM_ID + ", 'Room A', 'A')");
+            for (int number = 1; number <= 15; number++) {
+                statement.execute("insert into study_table (id, is_occupied, room_number, table_number, room_id)"
+                        + " values (" + (100 + number) + ", false, 'A', " + number + ", " + ROOM_ID + ")");
+            }
+            statement.execute("insert into student (id, name, roll_number) values (70, 'Old Seated', 'R70')");
+            statement.execute("insert into student (id, name, roll_number) values ("
+                    + LAST_STUDENT_ID + ", 'Old Unseated', 'R71')");
+            statement.execute("insert into payment (id, amount, paid, payment_date, due_date, duration_months,"
+                    + " student_id) values (80, 500, true, current_date, current_date + 30, 1, 70)");
+            statement.execute("insert into payment (id, amount, paid, payment_date, due_date, duration_months,"
+                    + " student_id) values (" + LAST_PAYMENT_ID + ", 500, true, current_date, current_date + 30, 1, "
+                    + LAST_STUDENT_ID + ")");
+            statement.execute("update study_table set is_occupied = true, student_id = 70 where id = 101");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not create the baseline database", e);
+        }
+        return url;
+    }
+
+    @Test
+    void baselineDatabaseIsMigratedToHead() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertThat(applied[0].getType()).isEqualTo(CoreMigrationType.BASELINE);
+        assertThat(applied[0].getVersion().getVersion()).isEqualTo("1");
+        assertThat(flyway.info().pending()).isEmpty();
+
+        // Old rows are intact and picked up the new columns' defaults
+        assertThat(jdbcTemplate.queryForObject("select student_id from study_table where id = 101", Long.class))
+                .isEqualTo(70L);
+        assertThat(jdbcTemplate.queryForObject("select version from study_table where id = 101", Long.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from payment where expired", Long.class))
+                .isZero();
+
+        // DataInitializer added rooms B-D and their tables with sequence ids past the old ones
+        assertThat(jdbcTemplate.queryForObject("select count(*) from room", Long.class)).isEqualTo(4L);
+        assertThat(jdbcTemplate.queryForObject("select min(id) from room where id <> " + ROOM_ID, Long.class))
+                .isGreaterThan(ROOM_ID);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from study_table", Long.class)).isEqualTo(60L);
+        assertThat(jdbcTemplate.queryForObject("select min(id) from study_table where room_id <> " + ROOM_ID,
+                Long.class)).isGreaterThan(LAST_TABLE_ID);
+
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName("New Student");
+        dto.setRoomNumber("A");
+        dto.setTableNumber(2);
+        dto.setAmountPaid(500);
+        studentService.createStudentWithTable(dto);
+
+        Long studentId = jdbcTemplate.queryForObject("select id from student where name = 'New Student'", Long.class);
+        assertThat(studentId).isGreaterThan(LAST_STUDENT_ID);
+        assertThat(jdbcTemplate.queryForObject("select id from payment where student_id = ?", Long.class, studentId))
+                .isGreaterThan(LAST_PAYMENT_ID);
+        assertThat(jdbcTemplate.queryForObject("select student_id from study_table where id = 102", Long.class))
+                .isEqualTo(studentId);
+    }
+}
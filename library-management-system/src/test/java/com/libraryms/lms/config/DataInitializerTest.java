@@ -0,0 +1,55 @@
+package com.libraryms.lms.config;
+
+import com.libraryms.lms.repository.RoomRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class DataInitializerTest {
+
+    @Autowired
+    private DataInitializer dataInitializer;
+
+    @Autowired
+    private LibraryLayoutProperties layout;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private StudyTableRepository studyTableRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Test
+    void rerunOnlyAddsWhatTheLayoutIsMissing() throws Exception {
+        assertThat(roomRepository.count()).isEqualTo(4);
+        assertThat(studyTableRepository.count()).isEqualTo(60);
+        long students = studentRepository.count();
+
+        // Grow room A and add a new room E
+        layout.getRooms().get(0).setTables(20);
+        LibraryLayoutProperties.RoomLayout roomE = new LibraryLayoutProperties.RoomLayout();
+        roomE.setNumber("E");
+        roomE.setName("Room E");
+        roomE.setTables(120);
+        layout.getRooms().add(roomE);
+
+        dataInitializer.run();
+        dataInitializer.run();
+
+        assertThat(roomRepository.count()).isEqualTo(5);
+        assertThat(studyTableRepository.count()).isEqualTo(185);
+        assertThat(roomRepository.findByRoomNumber("E").orElseThrow().getName()).isEqualTo("Room E");
+        // Sample students are only seeded into an empty database
+        assertThat(studentRepository.count()).isEqualTo(students);
+    }
+}
@@ -0,0 +1,228 @@
+package com.libraryms.lms.config;
+
+import com.libraryms.lms.model.Room;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.repository.PaymentRepository;
+import com.libraryms.lms.repository.RoomRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import com.libraryms.lms.repository.TableBookingRepository;
+import com.libraryms.lms.repository.WaitlistRepository;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs each hot repository query, then asks the database for the plan of the exact statement
+ * Hibernate sent (same SQL, same parameters) and checks it uses the index the migrations made
+ * for it. Subclasses start the application on H2 in a vendor compatibility mode, with that
+ * vendor's dialect and migrations.
+ */
+abstract class IndexUsageTestSupport {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StudyTableRepository studyTableRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TableBookingRepository bookingRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    private final List<QueryInfo> captured = new ArrayList<>();
+    private volatile Thread capturing;
+    private final QueryExecutionListener recorder = new QueryExecutionListener() {
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (Thread.currentThread() == capturing) {
+                captured.addAll(queryInfoList);
+            }
+        }
+    };
+
+    @BeforeEach
+    void addRecorder() {
+        assertThat(dataSource).isInstanceOf(ProxyDataSource.class);
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().addListener(recorder);
+    }
+
+    @AfterEach
+    void removeRecorder() {
+        ((ProxyDataSource) dataSource).getProxyConfig().getQueryListener().getListeners().remove(recorder);
+    }
+
+    @Test
+    void freeTablesUseTheOccupiedIndex() {
+        assertPlan(() -> studyTableRepository.findByIsOccupiedFalse(), "idx_study_table_occupied");
+    }
+
+    @Test
+    void tableByRoomAndNumberUsesTheUniqueRoomNumber() {
+        Room room = roomRepository.findAll().get(0);
+        assertPlan(() -> studyTableRepository.findByRoomAndTableNumber(room, 3), "uk_study_table_room_number");
+    }
+
+    @Test
+    void tableOfAStudentUsesTheUniqueStudent() {
+        Long studentId = newStudentId();
+        assertPlan(() -> studyTableRepository.findTableIdByStudentId(studentId),
+                uniqueIndexOn("study_table", "student_id"));
+    }
+
+    @Test
+    void paymentOfAStudentUsesTheUniqueStudent() {
+        Long studentId = newStudentId();
+        assertPlan(() -> paymentRepository.findByStudentId(studentId), uniqueIndexOn("payment", "student_id"));
+    }
+
+    @Test
+    void paymentDeletesAndExpiriesUseTheUniqueStudent() {
+        List<Long> studentIds = List.of(newStudentId());
+        String index = uniqueIndexOn("payment", "student_id");
+        assertPlan(() -> transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return paymentRepository.markExpired(studentIds, LocalDate.now());
+        }), index);
+        assertPlan(() -> transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return paymentRepository.deleteByStudentIds(studentIds);
+        }), index);
+    }
+
+    @Test
+    void dueDatesAreReadInDueDateOrder() {
+        assertPlan(() -> paymentRepository.findAllDueDates(), "idx_payment_due_date");
+    }
+
+    @Test
+    void waitlistQueueUsesTheQueueIndex() {
+        assertPlan(() -> waitlistRepository.findQueue(), "idx_waitlist_queue");
+    }
+
+    @Test
+    void bookingLookupsUseTheTableAndStudentIndexes() {
+        LocalDateTime now = LocalDateTime.now();
+        Long tableId = studyTableRepository.findAll().get(0).getId();
+        assertPlan(() -> bookingRepository.findForTable(tableId, now, now.plusHours(2)), "idx_table_booking_table");
+        Long studentId = newStudentId();
+        assertPlan(() -> bookingRepository.findByStudentIdAndEndTimeGreaterThan(studentId, now),
+                "idx_table_booking_student");
+    }
+
+    private Long newStudentId() {
+        Student student = new Student();
+        student.setName("Index Probe");
+        return studentRepository.save(student).getId();
+    }
+
+    /**
+     * The baseline schema kept the names Hibernate generated for its unique constraints, so the
+     * backing index is looked up rather than named.
+     */
+    private String uniqueIndexOn(String table, String column) {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String tableName = metaData.storesUpperCaseIdentifiers() ? table.toUpperCase(Locale.ROOT) : table;
+            try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), tableName,
+                    true, false)) {
+                while (rows.next()) {
+                    if (column.equalsIgnoreCase(rows.getString("COLUMN_NAME"))) {
+                        return rows.getString("INDEX_NAME").toLowerCase(Locale.ROOT);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not read the indexes of " + table, e);
+        }
+        throw new AssertionError("No unique index on " + table + "." + column);
+    }
+
+    /**
+     * Run the call, then EXPLAIN every statement it sent and expect the index in one of the plans.
+     */
+    private void assertPlan(Runnable call, String index) {
+        captured.clear();
+        capturing = Thread.currentThread();
+        try {
+            call.run();
+        } finally {
+            capturing = null;
+        }
+        List<QueryInfo> statements = captured.stream()
+                .filter(query -> !query.getQuery().isBlank())
+                .toList();
+        assertThat(statements).as("statements sent").isNotEmpty();
+
+        List<String> plans = new ArrayList<>();
+        for (QueryInfo statement : statements) {
+            plans.add(explain(statement).toLowerCase(Locale.ROOT));
+        }
+        assertThat(plans).as("plans of %s", statements.stream().map(QueryInfo::getQuery).toList())
+                .anySatisfy(plan -> assertThat(plan).contains(index));
+    }
+
+    private String explain(QueryInfo statement) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + statement.getQuery())) {
+            List<List<ParameterSetOperation>> parameters = statement.getParametersList();
+            if (!parameters.isEmpty()) {
+                for (ParameterSetOperation operation : parameters.get(0)) {
+                    Object[] args = operation.getArgs();
+                    if (ParameterSetOperation.isSetNullParameterOperation(operation)) {
+                        explain.setNull((Integer) args[0], (Integer) args[1]);
+                    } else {
+                        explain.setObject((Integer) args[0], args[1]);
+                    }
+                }
+            }
+            StringBuilder plan = new StringBuilder();
+            try (ResultSet rows = explain.executeQuery()) {
+                while (rows.next()) {
+                    plan.append(rows.getString(1)).append('\n');
+                }
+            }
+            return plan.toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not explain " + statement.getQuery(), e);
+        }
+    }
+}
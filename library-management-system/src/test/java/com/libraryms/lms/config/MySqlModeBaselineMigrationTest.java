@@ -0,0 +1,27 @@
+package com.libraryms.lms.config;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Baseline-to-head migration with the MySQL migrations and dialect, on H2 in MySQL mode.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.locations=classpath:db/migration/mysql,classpath:db/migration/common",
+        "spring.flyway.baseline-on-migrate=true",
+        "spring.flyway.baseline-version=1",
+        "spring.jpa.properties.jakarta.persistence.database-product-name=MySQL",
+        "spring.jpa.properties.jakarta.persistence.database-major-version=8",
+        "spring.jpa.properties.jakarta.persistence.database-minor-version=0"
+})
+@DirtiesContext
+class MySqlModeBaselineMigrationTest extends BaselineMigrationTestSupport {
+
+    @DynamicPropertySource
+    static void baselineDatabase(DynamicPropertyRegistry registry) {
+        String url = createBaselineDatabase("mysql", ";MODE=MySQL;DATABASE_TO_LOWER=TRUE");
+        registry.add("spring.datasource.url", () -> url);
+    }
+}
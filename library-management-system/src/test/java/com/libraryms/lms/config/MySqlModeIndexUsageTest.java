@@ -0,0 +1,18 @@
+package com.libraryms.lms.config;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+/**
+ * Index usage with the MySQL migrations and dialect (picked from the product name), on H2 in MySQL mode.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:mysqlmode-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.flyway.locations=classpath:db/migration/mysql,classpath:db/migration/common",
+        "spring.jpa.properties.jakarta.persistence.database-product-name=MySQL",
+        "spring.jpa.properties.jakarta.persistence.database-major-version=8",
+        "spring.jpa.properties.jakarta.persistence.database-minor-version=0"
+})
+@DirtiesContext
+class MySqlModeIndexUsageTest extends IndexUsageTestSupport {
+}
@@ -0,0 +1,24 @@
+package com.libraryms.lms.config;
+
+import com.libraryms.lms.service.PaymentLedger;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+/**
+ * Index usage with the PostgreSQL migrations and dialect (picked from the product name), on H2 in PostgreSQL mode.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:postgresqlmode-${random.uuid};MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1",
+        "spring.flyway.locations=classpath:db/migration/postgresql,classpath:db/migration/common",
+        "spring.jpa.properties.jakarta.persistence.database-product-name=PostgreSQL",
+        "spring.jpa.properties.jakarta.persistence.database-major-version=16",
+        "spring.jpa.properties.jakarta.persistence.database-minor-version=0"
+})
+@DirtiesContext
+class PostgreSqlModeIndexUsageTest extends IndexUsageTestSupport {
+
+    // The rollup rows are created with ON CONFLICT DO NOTHING, which H2's PostgreSQL mode lacks
+    @MockitoBean
+    private PaymentLedger paymentLedger;
+}
@@ -0,0 +1,114 @@
+package com.libraryms.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class ChangeStreamControllerTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("^id:(\\d+)$", Pattern.MULTILINE);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void reconnectingClientOnlyReceivesMissedChanges() throws Exception {
+        JsonNode snapshot = objectMapper.readTree(mockMvc.perform(get("/api/changes/snapshot"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        long seq = snapshot.get("seq").asLong();
+
+        enroll("Stream One", "B", 5);
+        enroll("Stream Two", "B", 6);
+        mockMvc.perform(delete("/api/students/" + studentId("Stream One"))).andExpect(status().isOk());
+
+        MockHttpServletResponse fromSnapshot = openStream(get("/api/changes").param("since", Long.toString(seq)));
+        List<Long> ids = awaitEventIds(fromSnapshot, 3);
+        assertThat(ids).containsExactly(seq + 1, seq + 2, seq + 3);
+        assertThat(fromSnapshot.getContentAsString())
+                .contains("\"type\":\"STUDENT_CREATED\"", "\"type\":\"STUDENT_DELETED\"", "\"studentName\":\"Stream Two\"");
+
+        // Browser reconnect: Last-Event-ID wins over the original since parameter
+        MockHttpServletResponse resumed = openStream(get("/api/changes")
+                .param("since", Long.toString(seq))
+                .header("Last-Event-ID", Long.toString(seq + 2)));
+        assertThat(awaitEventIds(resumed, 1)).containsExactly(seq + 3);
+    }
+
+    @Test
+    void clientFromBeforeTheHistoryIsToldToReset() throws Exception {
+        MockHttpServletResponse stale = openStream(get("/api/changes").param("since", "1"));
+
+        awaitEventIds(stale, 1);
+        assertThat(stale.getContentAsString()).startsWith("event:reset");
+    }
+
+    private MockHttpServletResponse openStream(RequestBuilder builder) throws Exception {
+        MvcResult result = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    private static List<Long> awaitEventIds(MockHttpServletResponse response, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5_000;
+        List<Long> ids = List.of();
+        while (System.currentTimeMillis() < deadline) {
+            Matcher matcher = EVENT_ID.matcher(response.getContentAsString());
+            ids = matcher.results().map(m -> Long.parseLong(m.group(1))).collect(Collectors.toList());
+            if (ids.size() >= expected) {
+                break;
+            }
+            Thread.sleep(20);
+        }
+        return ids;
+    }
+
+    private Long studentId(String name) throws Exception {
+        JsonNode students = objectMapper.readTree(mockMvc.perform(get("/api/students/complete-info"))
+                .andReturn().getResponse().getContentAsString());
+        for (JsonNode student : students) {
+            if (student.get("studentName").asText().equals(name)) {
+                return student.get("id").asLong();
+            }
+        }
+        throw new IllegalStateException("No student " + name);
+    }
+
+    private void enroll(String name, String room, int table) throws Exception {
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "%s", "contactNumber": "9300000000",
+                                 "roomNumber": "%s", "tableNumber": %d, "amountPaid": 350}
+                                """.formatted(name, room, table)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,126 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.repository.RoomRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.service.DataCleanupService;
+import com.libraryms.lms.service.SeatOccupancyIndex;
+import com.libraryms.lms.service.StudentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataCleanupService dataCleanupService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @MockitoSpyBean
+    private StudentRepository studentRepository;
+
+    @MockitoSpyBean
+    private RoomRepository roomRepository;
+
+    @MockitoSpyBean
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Test
+    void unchangedDataIsRevalidatedWithoutRepositoryCalls() throws Exception {
+        String etag = etagOf("/api/students/complete-info");
+
+        clearInvocations(studentRepository, roomRepository, seatOccupancyIndex);
+        for (String path : new String[]{"/api/students/complete-info", "/api/students/available-tables", "/api/students/rooms"}) {
+            mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+        }
+        verifyNoInteractions(studentRepository, roomRepository, seatOccupancyIndex);
+    }
+
+    @Test
+    void committedWritesChangeTheETag() throws Exception {
+        String before = etagOf("/api/students/available-tables");
+
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "ETag Test", "contactNumber": "9400000000",
+                                 "roomNumber": "D", "tableNumber": 9, "amountPaid": 300}
+                                """))
+                .andExpect(status().isOk());
+        String afterAssign = etagOf("/api/students/available-tables");
+        assertThat(afterAssign).isNotEqualTo(before);
+
+        mockMvc.perform(get("/api/students/available-tables").header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+
+        // Bulk statements bypass entity events and are covered by the service's change event
+        dataCleanupService.clearStudentData();
+        assertThat(etagOf("/api/students/available-tables")).isNotEqualTo(afterAssign);
+    }
+
+    @Test
+    void aPollBetweenTheCommitAndTheIndexUpdateKeepsTheOldETag() throws Exception {
+        // Poll once the assignment has committed but before the index shows it
+        AtomicReference<String> duringUpdate = new AtomicReference<>();
+        doAnswer(invocation -> {
+            duringUpdate.set(etagOf("/api/students/available-tables"));
+            return invocation.callRealMethod();
+        }).when(seatOccupancyIndex).markOccupied(any());
+
+        CreateStudentRequestDTO request = new CreateStudentRequestDTO();
+        request.setName("ETag Gap");
+        request.setRoomNumber("D");
+        request.setTableNumber(11);
+        request.setAmountPaid(300);
+        try {
+            studentService.createStudentWithTable(request);
+        } finally {
+            reset(seatOccupancyIndex);
+        }
+
+        // The stale body's ETag is not the one for the updated index, so revalidating it gets the new list
+        assertThat(etagOf("/api/students/available-tables")).isNotEqualTo(duringUpdate.get());
+        mockMvc.perform(get("/api/students/available-tables").header(HttpHeaders.IF_NONE_MATCH, duringUpdate.get()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.roomNumber == 'D' && @.tableNumber == 11)]").isEmpty());
+    }
+
+    private String etagOf(String path) throws Exception {
+        return mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
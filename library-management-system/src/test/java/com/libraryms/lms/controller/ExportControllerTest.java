@@ -0,0 +1,138 @@
+package com.libraryms.lms.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libraryms.lms.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void studentsAreStreamedAsCsvOrNdjsonWithFilters() throws Exception {
+        Long quoted = assign("Export, \"Quoted\"", "C", 1, 400);
+        Long unpaid = assign("Export Unpaid", "C", 2, 450);
+        assign("Export Other Room", "D", 1, 300);
+        mockMvc.perform(post("/api/students/" + unpaid + "/payment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"paid\": false, \"months\": 3}"))
+                .andExpect(status().isOk());
+
+        String csv = export("/api/export/students?format=csv&room=c", "text/csv");
+        assertThat(csv.split("\n")).containsExactly(
+                "id,studentName,rollNumber,contactNumber,roomNumber,tableNumber,amountPaid,paid,paymentDate,dueDate",
+                quoted + ",\"Export, \"\"Quoted\"\"\",,9200000000,C,1,400.0,true,"
+                        + LocalDate.now() + "," + LocalDate.now().plusMonths(1),
+                unpaid + ",Export Unpaid,,9200000000,C,2,450.0,false,"
+                        + LocalDate.now() + "," + LocalDate.now().plusMonths(3));
+
+        // Exactly one compact object per line, nothing between the lines
+        MvcResult roomC = exportResult("/api/export/students?room=c", "application/x-ndjson");
+        byte[] body = roomC.getResponse().getContentAsByteArray();
+        StringBuilder expected = new StringBuilder();
+        for (JsonNode row : ndjson(roomC.getResponse().getContentAsString())) {
+            expected.append(objectMapper.writeValueAsString(row)).append('\n');
+        }
+        assertThat(body).isEqualTo(expected.toString().getBytes(StandardCharsets.UTF_8));
+        assertThat(ndjson(new String(body, StandardCharsets.UTF_8)))
+                .extracting(row -> row.get("id").asLong()).containsExactly(quoted, unpaid);
+
+        List<JsonNode> all = ndjson(export("/api/export/students", "application/x-ndjson"));
+        assertThat(all).hasSize((int) studentRepository.count());
+
+        List<JsonNode> unpaidDueLater = ndjson(export("/api/export/students?status=unpaid&dueFrom="
+                + LocalDate.now().plusMonths(2) + "&dueTo=" + LocalDate.now().plusMonths(4), "application/x-ndjson"));
+        assertThat(unpaidDueLater).extracting(row -> row.get("id").asLong()).containsExactly(unpaid);
+        assertThat(unpaidDueLater.get(0).get("dueDate").asText()).isEqualTo(LocalDate.now().plusMonths(3).toString());
+    }
+
+    @Test
+    void paymentsAreStreamedFromTheLedger() throws Exception {
+        Long studentId = assign("Export Payer", "D", 7, 500);
+        mockMvc.perform(post("/api/students/" + studentId + "/payment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 1500, \"paid\": true, \"months\": 3}"))
+                .andExpect(status().isOk());
+
+        List<JsonNode> payments = ndjson(export("/api/export/payments?room=D&from=" + LocalDate.now(),
+                "application/x-ndjson"));
+        assertThat(payments).allSatisfy(row -> assertThat(row.get("roomNumber").asText()).isEqualTo("D"));
+        assertThat(payments).filteredOn(row -> row.get("studentId").asLong() == studentId)
+                .extracting(row -> row.get("amount").asDouble()).containsExactly(500.0, 1500.0);
+
+        String csv = export("/api/export/payments?format=csv&room=D&to=" + LocalDate.now().minusDays(1), "text/csv");
+        assertThat(csv).isEqualTo("id,studentId,roomNumber,amount,durationMonths,paymentDate,validUntil\n");
+    }
+
+    private String export(String url, String contentType) throws Exception {
+        return exportResult(url, contentType).getResponse().getContentAsString();
+    }
+
+    private MvcResult exportResult(String url, String contentType) throws Exception {
+        MvcResult started = mockMvc.perform(get(url))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(contentType))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, startsWith("attachment")))
+                .andReturn();
+    }
+
+    private List<JsonNode> ndjson(String body) throws Exception {
+        List<JsonNode> rows = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(objectMapper.readTree(line));
+            }
+        }
+        return rows;
+    }
+
+    private Long assign(String name, String room, int table, double amount) throws Exception {
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "name", name, "contactNumber", "9200000000",
+                                "roomNumber", room, "tableNumber", table, "amountPaid", amount))))
+                .andExpect(status().isOk());
+        return studentRepository.findAll().stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst().orElseThrow().getId();
+    }
+}
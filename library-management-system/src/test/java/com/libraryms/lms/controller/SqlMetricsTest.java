@@ -0,0 +1,72 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.config.SqlCountFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every statement counts as slow here, so the slow-query path runs without sleeping
+@SpringBootTest(properties = {
+        "library.sql.slow-query-threshold-ms=0",
+        "library.sql.slow-query-sample-rate=0"
+})
+@AutoConfigureMockMvc
+@DirtiesContext
+class SqlMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void statementsPerRequestAreReportedInHeaderAndHistogram() throws Exception {
+        mockMvc.perform(get("/api/students/available-tables/consistency"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlCountFilter.HEADER, "1"));
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlCountFilter.HEADER, "0"));
+
+        DistributionSummary consistency = meterRegistry.get("library.http.sql.statements")
+                .tag("method", "GET").tag("uri", "/api/students/available-tables/consistency")
+                .summary();
+        assertThat(consistency.count()).isEqualTo(1);
+        assertThat(consistency.max()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("library.sql.slow").counter().count()).isPositive();
+    }
+
+    @Test
+    void serviceMethodsAndHibernateAreMetered() throws Exception {
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Metrics Test", "contactNumber": "9300000000",
+                                 "roomNumber": "B", "tableNumber": 4, "amountPaid": 300}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlCountFilter.HEADER));
+
+        assertThat(meterRegistry.get("library.service")
+                .tag("class", "com.libraryms.lms.service.StudentService")
+                .tag("method", "createStudentWithTable")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.statements").functionCounter().count()).isPositive();
+
+        mockMvc.perform(get("/actuator/metrics/library.http.sql.statements"))
+                .andExpect(status().isOk());
+    }
+}
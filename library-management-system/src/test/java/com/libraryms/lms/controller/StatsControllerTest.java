@@ -0,0 +1,98 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.LibraryStatsDTO;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.service.LibraryStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class StatsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LibraryStats libraryStats;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void countersFollowWritesAndMatchReconciliation() throws Exception {
+        LibraryStatsDTO before = libraryStats.snapshot();
+
+        enroll("Stats One", "C", 3, 400);
+        enroll("Stats Two", "C", 4, 250);
+        Long second = studentRepository.findAll().stream()
+                .filter(s -> s.getName().equals("Stats Two")).findFirst().orElseThrow().getId();
+
+        // Payment update replaces the student's amount in the revenue total
+        mockMvc.perform(post("/api/students/" + second + "/payment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 600, \"months\": 2}"))
+                .andExpect(status().isOk());
+
+        LibraryStatsDTO afterWrites = libraryStats.snapshot();
+        assertThat(afterWrites.getTotalStudents()).isEqualTo(before.getTotalStudents() + 2);
+        assertThat(afterWrites.getTotalRevenue()).isEqualTo(before.getTotalRevenue() + 1000);
+        assertThat(afterWrites.getOccupiedTables()).isEqualTo(before.getOccupiedTables() + 2);
+
+        mockMvc.perform(delete("/api/students/" + second)).andExpect(status().isOk());
+
+        LibraryStatsDTO afterDelete = libraryStats.snapshot();
+        assertThat(afterDelete.getTotalStudents()).isEqualTo(before.getTotalStudents() + 1);
+        assertThat(afterDelete.getTotalRevenue()).isEqualTo(before.getTotalRevenue() + 400);
+        assertThat(afterDelete.getAvailableTables()).isEqualTo(before.getAvailableTables() - 1);
+
+        libraryStats.reconcile();
+        LibraryStatsDTO reconciled = libraryStats.snapshot();
+        assertThat(reconciled.getTotalStudents()).isEqualTo(afterDelete.getTotalStudents());
+        assertThat(reconciled.getTotalRevenue()).isEqualTo(afterDelete.getTotalRevenue());
+        assertThat(reconciled.getOverdueStudents()).isEqualTo(afterDelete.getOverdueStudents());
+    }
+
+    @Test
+    void statsEndpointDoesNotQueryTheDatabase() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        mockMvc.perform(get("/api/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalTables").value(60))
+                .andExpect(jsonPath("$.rooms.length()").value(4));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void enroll(String name, String room, int table, double amount) throws Exception {
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "%s", "contactNumber": "9100000000",
+                                 "roomNumber": "%s", "tableNumber": %d, "amountPaid": %s}
+                                """.formatted(name, room, table, amount)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,97 @@
+package com.libraryms.lms.controller;
+
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.service.StudentService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class StudentCompleteInfoQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void completeInfoIsServedWithoutStatements() throws Exception {
+        enroll("C", 1, 3);
+        long fewStudents = statementsForCompleteInfo();
+
+        enroll("D", 1, 15);
+        long manyStudents = statementsForCompleteInfo();
+
+        // Rows come from the read model, kept current by the assignments above
+        assertThat(fewStudents).isZero();
+        assertThat(manyStudents).isEqualTo(fewStudents);
+    }
+
+    @Test
+    void projectionMatchesEntityMapping() throws Exception {
+        enroll("A", 10, 12);
+
+        List<StudentTableInfoDTO> projected = studentRepository.findAllStudentTableInfo();
+        List<StudentTableInfoDTO> mapped = studentRepository.findAll().stream()
+                .map(studentService::mapStudentToDTO)
+                .toList();
+
+        assertThat(projected).containsExactlyInAnyOrderElementsOf(mapped);
+    }
+
+    private long statementsForCompleteInfo() throws Exception {
+        int expected = (int) studentRepository.count();
+        statistics.clear();
+        mockMvc.perform(get("/api/students/complete-info"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(expected));
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void enroll(String room, int fromTable, int toTable) throws Exception {
+        for (int table = fromTable; table <= toTable; table++) {
+            String body = """
+                    {"name": "Student %s%d", "contactNumber": "90000000%d",
+                     "roomNumber": "%s", "tableNumber": %d, "amountPaid": 500}
+                    """.formatted(room, table, table, room, table);
+            mockMvc.perform(post("/api/students/assign")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk());
+        }
+    }
+}
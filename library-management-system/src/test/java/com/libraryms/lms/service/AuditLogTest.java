@@ -0,0 +1,113 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AuditStatusDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.UpdatePaymentRequest;
+import com.libraryms.lms.model.AuditEntry;
+import com.libraryms.lms.repository.AuditEntryRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@DirtiesContext
+class AuditLogTest {
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AuditEntryRepository auditEntryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void seatAndPaymentChangesCanBeQueriedByStudentTableAndTime() {
+        LocalDateTime start = LocalDateTime.now().minusSeconds(1);
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName("Audited Student");
+        dto.setContactNumber("9400000000");
+        dto.setRoomNumber("C");
+        dto.setTableNumber(4);
+        dto.setAmountPaid(500);
+        studentService.createStudentWithTable(dto);
+        Long studentId = studentRepository.findAll().stream()
+                .filter(s -> s.getName().equals("Audited Student"))
+                .findFirst().orElseThrow().getId();
+        Long firstTable = seatOccupancyIndex.findTableId("C", 4);
+
+        tableService.assignStudentToTable(studentId, seatOccupancyIndex.findTableId("C", 6));
+        UpdatePaymentRequest payment = new UpdatePaymentRequest();
+        payment.setAmount(900.0);
+        payment.setPaid(true);
+        payment.setMonths(2);
+        studentService.updatePayment(studentId, payment);
+        studentService.deleteStudent(studentId);
+        auditLog.flush();
+
+        assertThat(auditLog.search(studentId, null, null, null, null, 100))
+                .extracting(AuditEntry::getAction, AuditEntry::getRoomNumber, AuditEntry::getTableNumber)
+                .containsExactly(
+                        tuple("STUDENT_DELETED", "C", 6),
+                        tuple("PAYMENT_UPDATED", "C", 6),
+                        tuple("TABLE_OCCUPIED", "C", 6),
+                        tuple("TABLE_FREED", "C", 4),
+                        tuple("STUDENT_CREATED", "C", 4));
+        AuditEntry paid = auditLog.search(studentId, null, null, null, null, 100).get(1);
+        assertThat(paid.getAmount()).isEqualTo(900.0);
+        assertThat(paid.getDueDate()).isEqualTo(LocalDate.now().plusMonths(2));
+
+        assertThat(auditLog.search(null, firstTable, start, LocalDateTime.now(), null, 100))
+                .extracting(AuditEntry::getAction).containsExactly("TABLE_FREED", "STUDENT_CREATED");
+        assertThat(auditLog.search(studentId, null, LocalDateTime.now().plusMinutes(1), null, null, 100)).isEmpty();
+
+        // Paging: the second page continues after the smallest id of the first
+        List<AuditEntry> firstPage = auditLog.search(studentId, null, null, null, null, 2);
+        List<AuditEntry> secondPage = auditLog.search(studentId, null, null, null, firstPage.get(1).getId(), 2);
+        assertThat(secondPage).extracting(AuditEntry::getAction).containsExactly("TABLE_OCCUPIED", "TABLE_FREED");
+        assertThat(auditLog.status().getDropped()).isZero();
+    }
+
+    @Test
+    void fullBufferDropsEntriesInsteadOfBlocking() {
+        // Not started, so nothing drains the buffer until flush()
+        AuditLog small = new AuditLog(auditEntryRepository, seatOccupancyIndex, transactionManager,
+                new SimpleMeterRegistry(), 2, 10, 100);
+        for (long table = 1; table <= 5; table++) {
+            small.onChange(LibraryChangeEvent.tableFreed(table, null));
+        }
+
+        AuditStatusDTO status = small.status();
+        assertThat(status.getCapacity()).isEqualTo(2);
+        assertThat(status.getQueued()).isEqualTo(2);
+        assertThat(status.getDropped()).isEqualTo(3);
+
+        small.flush();
+        assertThat(small.status().getQueued()).isZero();
+        assertThat(small.status().getWritten()).isEqualTo(2);
+    }
+}
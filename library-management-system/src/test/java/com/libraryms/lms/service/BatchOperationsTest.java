@@ -0,0 +1,189 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AutoAssignRequestDTO;
+import com.libraryms.lms.dto.BatchItemResultDTO;
+import com.libraryms.lms.dto.BatchItemResultDTO.Outcome;
+import com.libraryms.lms.dto.BatchReportDTO;
+import com.libraryms.lms.dto.BookingRequestDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.SeatAllocationDTO;
+import com.libraryms.lms.dto.WaitlistRequestDTO;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.repository.PaymentRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.TableBookingRepository;
+import com.libraryms.lms.repository.WaitlistRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@DirtiesContext
+class BatchOperationsTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private Waitlist waitlist;
+
+    @Autowired
+    private DataCleanupService dataCleanupService;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private StudentReadModel studentReadModel;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TableBookingRepository bookingRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void emptyLibrary() {
+        waitlistRepository.deleteAll();
+        dataCleanupService.clearStudentData();
+    }
+
+    @Test
+    void studentsAreDeletedTogetherWithPerIdOutcomes() {
+        List<Long> seated = ids(seat("C", 3));
+        Long unseated = studentRepository.save(newStudent()).getId();
+        BookingRequestDTO booking = new BookingRequestDTO();
+        booking.setStudentId(seated.get(0));
+        booking.setRoomNumber("D");
+        booking.setTableNumber(5);
+        booking.setStart(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(1));
+        booking.setHours(2);
+        bookingService.book(booking);
+        long students = studentRepository.count();
+
+        List<Long> request = new ArrayList<>(seated);
+        request.add(unseated);
+        request.add(seated.get(1)); // duplicate, reported once
+        request.add(-1L);
+        BatchReportDTO report = studentService.deleteStudents(request);
+
+        assertThat(report.getRequested()).isEqualTo(5);
+        assertThat(report.getSucceeded()).isEqualTo(4);
+        assertThat(report.getItems()).extracting(BatchItemResultDTO::getId, BatchItemResultDTO::getOutcome)
+                .containsExactly(
+                        tuple(seated.get(0), Outcome.DELETED),
+                        tuple(seated.get(1), Outcome.DELETED),
+                        tuple(seated.get(2), Outcome.DELETED),
+                        tuple(unseated, Outcome.DELETED),
+                        tuple(-1L, Outcome.NOT_FOUND));
+        assertThat(studentRepository.count()).isEqualTo(students - 4);
+        assertThat(paymentRepository.count()).isEqualTo(studentRepository.count());
+        assertThat(seatOccupancyIndex.freeCountByRoom().get("C")).isEqualTo(15);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+        assertThat(studentReadModel.checkDrift().getMissing() + studentReadModel.checkDrift().getUnexpected()).isZero();
+        // Upcoming slots of deleted students are released once the batch commits
+        assertThat(bookingRepository.count()).isZero();
+    }
+
+    @Test
+    void tablesAreFreedTogetherAndHandedToTheWaitlist() {
+        List<SeatAllocationDTO> roomC = seat("C", 15);
+        WaitlistRequestDTO waiting = new WaitlistRequestDTO();
+        waiting.setName("Waiting For C");
+        waiting.setContactNumber("9500000000");
+        waiting.setAmountPaid(500);
+        waiting.setRoomNumber("C");
+        waitlist.join(waiting);
+
+        Long freeTable = seatOccupancyIndex.findTableId("D", 1);
+        BatchReportDTO report = tableService.freeTables(List.of(
+                roomC.get(0).getTableId(), roomC.get(1).getTableId(), freeTable, -1L));
+
+        assertThat(report.getItems()).extracting(BatchItemResultDTO::getOutcome)
+                .containsExactly(Outcome.HANDED_OFF, Outcome.FREED, Outcome.ALREADY_FREE, Outcome.NOT_FOUND);
+        assertThat(report.getSucceeded()).isEqualTo(3);
+        assertThat(seatOccupancyIndex.freeCountByRoom().get("C")).isEqualTo(1);
+        assertThat(waitlist.queue()).isEmpty();
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void statementsDoNotGrowWithTheBatchSize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        List<Long> few = ids(seat("C", 5));
+        List<Long> many = ids(seat("D", 15));
+        statistics.clear();
+        studentService.deleteStudents(few);
+        long fewStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        studentService.deleteStudents(many);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(fewStatements);
+
+        List<Long> fewTables = tableIds(seat("A", 5));
+        List<Long> manyTables = tableIds(seat("B", 15));
+        statistics.clear();
+        tableService.freeTables(fewTables);
+        fewStatements = statistics.getPrepareStatementCount();
+        statistics.clear();
+        tableService.freeTables(manyTables);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(fewStatements);
+    }
+
+    private List<SeatAllocationDTO> seat(String room, int count) {
+        AutoAssignRequestDTO request = new AutoAssignRequestDTO();
+        request.setPreferredRoom(room);
+        request.setStudents(IntStream.range(0, count).mapToObj(i -> newStudentRequest()).toList());
+        return studentService.createStudentsWithAutoAllocation(request);
+    }
+
+    private static List<Long> ids(List<SeatAllocationDTO> allocation) {
+        return allocation.stream().map(SeatAllocationDTO::getStudentId).toList();
+    }
+
+    private static List<Long> tableIds(List<SeatAllocationDTO> allocation) {
+        return allocation.stream().map(SeatAllocationDTO::getTableId).toList();
+    }
+
+    private static CreateStudentRequestDTO newStudentRequest() {
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName("Batch Student");
+        dto.setContactNumber("9500000000");
+        dto.setAmountPaid(500);
+        return dto;
+    }
+
+    private static Student newStudent() {
+        return StudentService.newStudentWithPayment(newStudentRequest());
+    }
+}
@@ -0,0 +1,69 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.BulkImportReportDTO;
+import com.libraryms.lms.dto.BulkImportRowResultDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class BulkImportServiceTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void importsValidRowsInBatchesAndReportsFailures() throws Exception {
+        StringBuilder csv = new StringBuilder("name,contactNumber,roomNumber,tableNumber,amountPaid\n");
+        for (String room : new String[]{"C", "D"}) {
+            for (int table = 1; table <= 15; table++) {
+                csv.append("\"Import, ").append(room).append(table).append("\",9100000").append(table)
+                        .append(',').append(room).append(',').append(table).append(",450\n");
+            }
+        }
+        csv.append("Duplicate Seat,9100000000,C,1,450\n");
+        csv.append("Sample Seat Taken,9100000000,A,1,450\n");
+        csv.append("Nowhere,9100000000,Z,1,450\n");
+        csv.append("Bad Number,9100000000,B,two,450\n");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+
+        BulkImportReportDTO report = bulkImportService.importCsv(
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getTotalRows()).isEqualTo(34);
+        assertThat(report.getImported()).isEqualTo(30);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getRows().get(0).getName()).isEqualTo("Import, C1");
+        assertThat(report.getRows()).filteredOn(r -> !r.isImported())
+                .extracting(BulkImportRowResultDTO::getMessage)
+                .containsExactly(
+                        "Table is assigned to an earlier row in this file",
+                        "Table is already occupied",
+                        "Table not found in specified room",
+                        "Invalid number: For input string: \"two\"");
+
+        // 30 students + 30 payments + 30 table updates would be 90 statements without batching
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(15);
+        assertThat(seatOccupancyIndex.freeCountByRoom()).containsEntry("C", 0).containsEntry("D", 0);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+}
@@ -0,0 +1,198 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.CleanupPhaseDTO;
+import com.libraryms.lms.dto.CleanupReportDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.repository.PaymentRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@DirtiesContext
+class DataCleanupServiceTest {
+
+    @Autowired
+    private DataCleanupService dataCleanupService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudyTableRepository studyTableRepository;
+
+    @Autowired
+    private StudentReadModel studentReadModel;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @MockitoSpyBean
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @MockitoSpyBean
+    private SeatLocks seatLocks;
+
+    @Test
+    void bulkModeClearsEverythingWithSetStatements() throws Exception {
+        enrollRoom("C");
+        long students = studentRepository.count();
+
+        CleanupReportDTO report = dataCleanupService.clearStudentData();
+
+        assertThat(report.getPhases()).extracting(CleanupPhaseDTO::getPhase)
+                .containsExactly("unassign tables", "delete payments", "delete students", "waitlist hand-off");
+        assertThat(rows(report, "delete students")).isEqualTo(students);
+        assertThat(rows(report, "waitlist hand-off")).isZero();
+        assertThat(rows(report, "unassign tables")).isEqualTo(students);
+        assertCleared();
+    }
+
+    @Test
+    void chunkedModeCommitsInSlices() throws Exception {
+        enrollRoom("D");
+        long students = studentRepository.count();
+
+        CleanupReportDTO report = dataCleanupService.clearStudentDataInChunks(4);
+
+        assertThat(report.getChunks()).isEqualTo((int) Math.ceil(students / 4.0));
+        assertThat(rows(report, "delete students")).isEqualTo(students);
+        assertCleared();
+    }
+
+    @Test
+    void chunkedModeLeavesStudentsSeatedAfterItsLastSliceAlone() throws Exception {
+        enrollRoom("B");
+        // Seat a student after the last slice was read, just before the final pass takes the seat locks
+        AtomicBoolean seated = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (seated.compareAndSet(false, true)) {
+                CreateStudentRequestDTO request = new CreateStudentRequestDTO();
+                request.setName("Latecomer");
+                request.setRoomNumber("A");
+                request.setTableNumber(1);
+                request.setAmountPaid(300);
+                studentService.createStudentWithTable(request);
+            }
+            return invocation.callRealMethod();
+        }).when(seatLocks).withAllTableLocks(any());
+
+        CleanupReportDTO report = dataCleanupService.clearStudentDataInChunks(4);
+
+        assertThat(rows(report, "delete students")).isEqualTo(15);
+        assertThat(rows(report, "unassign orphaned tables")).isZero();
+        Student latecomer = studentRepository.findAll().get(0);
+        assertThat(studentRepository.count()).isEqualTo(1);
+        assertThat(paymentRepository.count()).isEqualTo(1);
+        assertThat(studyTableRepository.findTableIdByStudentId(latecomer.getId()))
+                .contains(seatOccupancyIndex.findTableId("A", 1));
+        assertThat(seatOccupancyIndex.isOccupied(seatOccupancyIndex.findTableId("A", 1))).isTrue();
+        assertThat(studentReadModel.students()).extracting("id").containsExactly(latecomer.getId());
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void bulkModeKeepsAssignmentsOutUntilTheIndexIsReloaded() throws Exception {
+        if (seatOccupancyIndex.isFree("A", 1)) {
+            studentService.createStudentWithTable(request("Seated Before", "A", 1));
+        }
+
+        // Assign A1 from another thread while the cleanup is inside its transaction
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AtomicReference<Future<String>> assigning = new AtomicReference<>();
+        AtomicReference<Thread> assigningThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            assigning.set(pool.submit(() -> {
+                assigningThread.set(Thread.currentThread());
+                return studentService.createStudentWithTable(request("Seated After", "A", 1));
+            }));
+            awaitBlocked(assigningThread);
+            return invocation.callRealMethod();
+        }).when(seatOccupancyIndex).reloadAfterCommit();
+
+        try {
+            dataCleanupService.clearStudentData();
+        } finally {
+            reset(seatOccupancyIndex);
+        }
+        // It waited for the cleanup instead of failing on the table it still saw occupied
+        assertThat(assigning.get().get(30, TimeUnit.SECONDS)).contains("successfully");
+        pool.shutdown();
+
+        Student student = studentRepository.findAll().get(0);
+        assertThat(studentRepository.count()).isEqualTo(1);
+        assertThat(student.getName()).isEqualTo("Seated After");
+        assertThat(studyTableRepository.findTableIdByStudentId(student.getId()))
+                .contains(seatOccupancyIndex.findTableId("A", 1));
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    // Wait until the thread has started and is parked on a lock
+    private static void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Thread t = thread.get();
+            if (t != null && (t.getState() == Thread.State.WAITING || t.getState() == Thread.State.TIMED_WAITING)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static CreateStudentRequestDTO request(String name, String room, int table) {
+        CreateStudentRequestDTO request = new CreateStudentRequestDTO();
+        request.setName(name);
+        request.setRoomNumber(room);
+        request.setTableNumber(table);
+        request.setAmountPaid(300);
+        return request;
+    }
+
+    private void assertCleared() {
+        assertThat(studentRepository.count()).isZero();
+        assertThat(paymentRepository.count()).isZero();
+        assertThat(seatOccupancyIndex.freeTables()).hasSize(60);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    private static int rows(CleanupReportDTO report, String phase) {
+        return report.getPhases().stream()
+                .filter(p -> p.getPhase().equals(phase))
+                .mapToInt(CleanupPhaseDTO::getRowsAffected)
+                .sum();
+    }
+
+    private void enrollRoom(String room) throws Exception {
+        StringBuilder csv = new StringBuilder("name,contactNumber,roomNumber,tableNumber,amountPaid\n");
+        for (int table = 1; table <= 15; table++) {
+            csv.append("Cleanup ").append(room).append(table).append(",9200000000,")
+                    .append(room).append(',').append(table).append(",300\n");
+        }
+        bulkImportService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,115 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.model.Payment;
+import com.libraryms.lms.repository.PaymentRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"library.expiry.release-after-days=2", "library.expiry.batch-size=2"})
+@AutoConfigureMockMvc
+@DirtiesContext
+class MembershipExpiryTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MembershipExpiry membershipExpiry;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void expiredMembershipsAreFlaggedAndLongExpiredTablesReleased() throws Exception {
+        LocalDate today = LocalDate.now();
+        Long longExpired = assign("Long Expired", 7);
+        Long expiredA = assign("Expired A", 8);
+        Long expiredB = assign("Expired B", 9);
+        Long current = assign("Current", 10);
+        setDueDate(longExpired, today.minusDays(5));
+        setDueDate(expiredA, today.minusDays(1));
+        setDueDate(expiredB, today.minusDays(1));
+
+        membershipExpiry.rebuild();
+
+        assertThat(payment(longExpired).isExpired()).isTrue();
+        assertThat(payment(expiredA).isExpired()).isTrue();
+        assertThat(payment(expiredB).isExpired()).isTrue();
+        assertThat(payment(current).isExpired()).isFalse();
+        assertThat(seatOccupancyIndex.isFree("C", 7)).isTrue();
+        assertThat(seatOccupancyIndex.isFree("C", 8)).isFalse();
+
+        // Overdue members come from the queue, longest overdue first
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/payments/overdue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].studentId").value(longExpired))
+                .andExpect(jsonPath("$[0].tableId").doesNotExist())
+                .andExpect(jsonPath("$[1].expired").value(true));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // Next wake-up: the grace period of the two members due yesterday runs out first
+        assertThat(membershipExpiry.nextWakeUp())
+                .isEqualTo(today.plusDays(2).atStartOfDay(ZoneId.systemDefault()).toInstant());
+
+        mockMvc.perform(post("/api/students/" + expiredA + "/payment")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\": 500, \"paid\": true, \"months\": 1}"))
+                .andExpect(status().isOk());
+        assertThat(payment(expiredA).isExpired()).isFalse();
+        assertThat(membershipExpiry.overdue()).extracting("studentId").containsExactly(longExpired, expiredB);
+        assertThat(membershipExpiry.expiringWithin(31)).extracting("studentId").contains(expiredA, current);
+    }
+
+    private Long assign(String name, int table) throws Exception {
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "%s", "contactNumber": "9100000000",
+                                 "roomNumber": "C", "tableNumber": %d, "amountPaid": 300}
+                                """.formatted(name, table)))
+                .andExpect(status().isOk());
+        return studentRepository.findAll().stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst().orElseThrow().getId();
+    }
+
+    private void setDueDate(Long studentId, LocalDate dueDate) {
+        Payment payment = payment(studentId);
+        payment.setDueDate(dueDate);
+        paymentRepository.save(payment);
+    }
+
+    private Payment payment(Long studentId) {
+        return paymentRepository.findByStudentId(studentId).orElseThrow();
+    }
+}
@@ -0,0 +1,186 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.MonthlyRevenueDTO;
+import com.libraryms.lms.model.MonthlyRoomRevenue;
+import com.libraryms.lms.model.PaymentLedgerEntry;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.model.StudyTable;
+import com.libraryms.lms.repository.MonthlyRoomRevenueRepository;
+import com.libraryms.lms.repository.PaymentLedgerRepository;
+import com.libraryms.lms.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class PaymentLedgerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentLedger paymentLedger;
+
+    @Autowired
+    private PaymentLedgerRepository ledgerRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DataCleanupService dataCleanupService;
+
+    @Autowired
+    private MonthlyRoomRevenueRepository revenueRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void everyFeePaymentIsKeptAndRolledUp() throws Exception {
+        Long studentId = assign("Ledger One", "C", 4, 400);
+        assign("Ledger Two", "C", 5, 450);
+        assign("Ledger Three", "D", 4, 300);
+
+        for (int months : new int[]{1, 3}) {
+            mockMvc.perform(post("/api/students/" + studentId + "/payment")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"amount\": " + (months * 400) + ", \"paid\": true, \"months\": " + months + "}"))
+                    .andExpect(status().isOk());
+        }
+
+        List<PaymentLedgerEntry> history = paymentLedger.history(studentId);
+        assertThat(history).extracting(PaymentLedgerEntry::getAmount).containsExactly(1200.0, 400.0, 400.0);
+        assertThat(history.get(0).getDurationMonths()).isEqualTo(3);
+        assertThat(paymentLedger.latest(studentId)).contains(history.get(0));
+        mockMvc.perform(get("/api/payments/student/" + studentId + "/latest"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(1200.0));
+
+        // The current payment still holds only the latest state
+        assertThat(studentRepository.findById(studentId).orElseThrow().getPayment().getAmount()).isEqualTo(1200.0);
+
+        YearMonth thisMonth = YearMonth.now();
+        MonthlyRevenueDTO roomC = paymentLedger.monthlyRevenue(thisMonth, thisMonth, "C").get(0);
+        assertThat(roomC.getRevenue()).isEqualByComparingTo("2450");
+        assertThat(roomC.getPayments()).isEqualTo(4);
+        assertRollupsMatchLedger();
+    }
+
+    @Test
+    void revenueReportReadsOnlyTheRollups() throws Exception {
+        assign("Report One", "A", 9, 500);
+        assign("Report Two", "B", 9, 500);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get("/api/payments/revenue"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].month").value(YearMonth.now().toString()));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void ledgerOutlivesDeletedStudents() throws Exception {
+        assign("Leaving Student", "B", 12, 350);
+        long entries = ledgerRepository.count();
+        BigDecimal revenue = totalRevenue();
+
+        dataCleanupService.clearStudentData();
+
+        assertThat(studentRepository.count()).isZero();
+        assertThat(ledgerRepository.count()).isEqualTo(entries);
+        assertThat(totalRevenue()).isEqualByComparingTo(revenue);
+    }
+
+    @Test
+    void missingRollupRowIsCreatedInThePaymentsTransaction() {
+        // A room prepareRollups never saw
+        StudyTable table = new StudyTable();
+        table.setRoomNumber("Z");
+        Student student = new Student();
+        student.setId(-1L);
+        student.setAssignedTable(table);
+        MonthlyRoomRevenue.Key key = new MonthlyRoomRevenue.Key(LocalDate.now().withDayOfMonth(1), "Z");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            paymentLedger.record(student, 300, 1, LocalDate.now().plusMonths(1));
+            status.setRollbackOnly();
+        });
+        assertThat(revenueRepository.findById(key)).isEmpty();
+
+        transactionTemplate.executeWithoutResult(status ->
+                paymentLedger.record(student, 300, 1, LocalDate.now().plusMonths(1)));
+        transactionTemplate.executeWithoutResult(status ->
+                paymentLedger.record(student, 200, 1, LocalDate.now().plusMonths(1)));
+        MonthlyRoomRevenue rollup = revenueRepository.findById(key).orElseThrow();
+        assertThat(rollup.getRevenue()).isEqualByComparingTo("500");
+        assertThat(rollup.getPayments()).isEqualTo(2);
+    }
+
+    private void assertRollupsMatchLedger() {
+        Map<String, BigDecimal> fromLedger = new HashMap<>();
+        List<Object[]> rows = entityManager.createQuery(
+                "select e.roomNumber, sum(e.amount) from PaymentLedgerEntry e group by e.roomNumber", Object[].class)
+                .getResultList();
+        rows.forEach(row -> fromLedger.put((String) row[0], BigDecimal.valueOf((Double) row[1])));
+
+        YearMonth thisMonth = YearMonth.now();
+        Map<String, BigDecimal> fromRollups = new HashMap<>();
+        paymentLedger.monthlyRevenue(thisMonth, thisMonth, null)
+                .forEach(row -> fromRollups.put(row.getRoomNumber(), row.getRevenue()));
+
+        assertThat(fromRollups.keySet()).isEqualTo(fromLedger.keySet());
+        fromLedger.forEach((room, sum) -> assertThat(fromRollups.get(room)).isEqualByComparingTo(sum));
+    }
+
+    private BigDecimal totalRevenue() {
+        YearMonth thisMonth = YearMonth.now();
+        return paymentLedger.monthlyRevenue(thisMonth, thisMonth, null).stream()
+                .map(MonthlyRevenueDTO::getRevenue)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private Long assign(String name, String room, int table, double amount) throws Exception {
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "%s", "contactNumber": "9200000000",
+                                 "roomNumber": "%s", "tableNumber": %d, "amountPaid": %s}
+                                """.formatted(name, room, table, amount)))
+                .andExpect(status().isOk());
+        return studentRepository.findAll().stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst().orElseThrow().getId();
+    }
+}
@@ -0,0 +1,95 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.config.DataInitializer;
+import com.libraryms.lms.config.LibraryLayoutProperties;
+import com.libraryms.lms.dto.CacheStatsDTO;
+import com.libraryms.lms.repository.RoomRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class RoomServiceCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private DataInitializer dataInitializer;
+
+    @Autowired
+    private LibraryLayoutProperties layout;
+
+    @MockitoSpyBean
+    private RoomRepository roomRepository;
+
+    @Test
+    void roomsAreServedFromCacheAndAssignmentSkipsRoomLookups() throws Exception {
+        roomService.getAllRooms();
+        roomService.getTableLayout("A");
+        clearInvocations(roomRepository);
+
+        mockMvc.perform(get("/api/students/rooms")).andExpect(status().isOk());
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Cache Test", "contactNumber": "9500000000",
+                                 "roomNumber": "A", "tableNumber": 12, "amountPaid": 300}
+                                """))
+                .andExpect(status().isOk());
+        assertThat(roomService.getTableLayout("A")).hasSize(15);
+
+        verifyNoInteractions(roomRepository);
+        assertThat(stats(RoomService.ROOMS).getHits()).isPositive();
+        assertThat(stats(RoomService.ROOM_LAYOUT).getHits()).isPositive();
+    }
+
+    @Test
+    void layoutChangesEvictOnlyTheTouchedRooms() throws Exception {
+        Map<Integer, Long> roomA = roomService.getTableLayout("A");
+        assertThat(roomA).hasSize(15);
+        assertThat(roomService.getTableLayout("F")).isNull();
+
+        // Room F appears and room A is left alone
+        LibraryLayoutProperties.RoomLayout roomF = new LibraryLayoutProperties.RoomLayout();
+        roomF.setNumber("F");
+        roomF.setTables(3);
+        layout.getRooms().add(roomF);
+        try {
+            dataInitializer.run();
+        } finally {
+            layout.getRooms().remove(roomF);
+        }
+
+        long hitsBefore = stats(RoomService.ROOM_LAYOUT).getHits();
+        assertThat(roomService.getTableLayout("A")).isSameAs(roomA);
+        assertThat(stats(RoomService.ROOM_LAYOUT).getHits()).isEqualTo(hitsBefore + 1);
+        assertThat(roomService.getTableLayout("F")).hasSize(3);
+        assertThat(roomService.getAllRooms()).extracting("roomNumber").contains("F");
+    }
+
+    private CacheStatsDTO stats(String cache) {
+        return roomService.cacheStats().stream()
+                .filter(s -> s.getCache().equals(cache))
+                .findFirst().orElseThrow();
+    }
+}
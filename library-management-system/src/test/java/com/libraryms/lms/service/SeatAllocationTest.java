@@ -0,0 +1,125 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AutoAssignRequestDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.SeatAllocationDTO;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@DirtiesContext
+class SeatAllocationTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudyTableRepository studyTableRepository;
+
+    @Autowired
+    private DataCleanupService dataCleanupService;
+
+    @BeforeEach
+    void emptyLibrary() {
+        dataCleanupService.clearStudentData();
+    }
+
+    @Test
+    void seatsComeFromThePreferredRoomThenTheLeastOccupiedOnes() {
+        assertThat(seats(allocate("a", 1))).containsExactly("A1");
+        assertThat(seats(allocate("B", 3))).containsExactly("B1", "B2", "B3");
+
+        // Room A has 14 free tables, so the group of 15 moves to an empty room as a whole
+        assertThat(seats(allocate("A", 15))).allMatch(seat -> seat.startsWith("C")).hasSize(15);
+        assertThat(seats(allocate(null, 1))).containsExactly("D1");
+
+        // No room holds 30: split across rooms, least occupied first (A and D before B)
+        Map<String, Long> perRoom = allocate(null, 30).stream()
+                .collect(Collectors.groupingBy(SeatAllocationDTO::getRoomNumber, Collectors.counting()));
+        assertThat(perRoom).containsExactlyInAnyOrderEntriesOf(Map.of("A", 14L, "D", 14L, "B", 2L));
+
+        // 10 tables left: a group of 11 fails as a whole and leaves them free
+        long students = studentRepository.count();
+        assertThatThrownBy(() -> allocate(null, 11)).hasMessageContaining("Not enough free tables");
+        assertThat(studentRepository.count()).isEqualTo(students);
+        assertThat(seatOccupancyIndex.freeTables()).hasSize(10);
+        assertThat(seats(allocate("B", 10))).hasSize(10);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void concurrentAutoAndManualAssignmentsNeverShareATable() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicInteger seated = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            int n = i;
+            futures.add(pool.submit(() -> {
+                try {
+                    if (n % 2 == 0) {
+                        seated.addAndGet(allocate(null, 1 + n % 3).size());
+                    } else {
+                        CreateStudentRequestDTO dto = student("Manual " + n);
+                        dto.setRoomNumber(n % 4 == 1 ? "C" : "D");
+                        dto.setTableNumber(1 + n % 15);
+                        studentService.createStudentWithTable(dto);
+                        seated.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    // Taken table or library full
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        long occupied = studyTableRepository.findAllSeats().stream().filter(seat -> seat.isOccupied()).count();
+        assertThat(occupied).isEqualTo(seated.get()).isEqualTo(studentRepository.count());
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    private List<SeatAllocationDTO> allocate(String preferredRoom, int count) {
+        AutoAssignRequestDTO request = new AutoAssignRequestDTO();
+        request.setPreferredRoom(preferredRoom);
+        request.setStudents(IntStream.range(0, count).mapToObj(i -> student("Auto " + i)).toList());
+        return studentService.createStudentsWithAutoAllocation(request);
+    }
+
+    private static CreateStudentRequestDTO student(String name) {
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName(name);
+        dto.setContactNumber("9100000000");
+        dto.setAmountPaid(500);
+        return dto;
+    }
+
+    private static List<String> seats(List<SeatAllocationDTO> allocation) {
+        return allocation.stream().map(seat -> seat.getRoomNumber() + seat.getTableNumber()).toList();
+    }
+}
@@ -0,0 +1,162 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fires thousands of parallel seat assignments at a small set of tables and checks
+ * that no table ever ends up with two students.
+ */
+@SpringBootTest
+@DirtiesContext
+class SeatAssignmentStressTest {
+
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS = 3000;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void parallelAssignmentsNeverDoubleBook() throws Exception {
+        List<AvailableTableDTO> seats = seatOccupancyIndex.freeTables().stream()
+                .filter(t -> t.getRoomNumber().equals("C") || t.getRoomNumber().equals("D"))
+                .toList();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long elapsed = runConcurrently(ATTEMPTS, i -> {
+            AvailableTableDTO seat = seats.get(ThreadLocalRandom.current().nextInt(seats.size()));
+            CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+            dto.setName("Stress " + i);
+            dto.setContactNumber("7000" + i);
+            dto.setRoomNumber(seat.getRoomNumber());
+            dto.setTableNumber(seat.getTableNumber());
+            dto.setAmountPaid(300);
+            try {
+                studentService.createStudentWithTable(dto);
+                created.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertThat(e).hasMessageContaining("occupied");
+                rejected.incrementAndGet();
+            }
+        });
+        report("create", ATTEMPTS, elapsed);
+
+        assertThat(created.get() + rejected.get()).isEqualTo(ATTEMPTS);
+        assertThat(created.get()).isEqualTo(seats.size());
+        assertNoDoubleBooking();
+
+        // Now shuffle the seated students around the same tables while others free seats
+        List<Long> stressStudents = studentRepository.findAll().stream()
+                .filter(s -> s.getName().startsWith("Stress"))
+                .map(Student::getId)
+                .toList();
+        elapsed = runConcurrently(ATTEMPTS, i -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            AvailableTableDTO seat = seats.get(random.nextInt(seats.size()));
+            try {
+                if (i % 4 == 0) {
+                    tableService.freeTable(seat.getTableId());
+                } else {
+                    tableService.assignStudentToTable(stressStudents.get(random.nextInt(stressStudents.size())), seat.getTableId());
+                }
+            } catch (RuntimeException expectedUnderContention) {
+                // occupied table or concurrently moved student
+            }
+        });
+        report("move/free", ATTEMPTS, elapsed);
+
+        assertNoDoubleBooking();
+        assertThat(seatOccupancyIndex.checkConsistency().getMismatches()).isEmpty();
+    }
+
+    private void assertNoDoubleBooking() {
+        transactionTemplate.executeWithoutResult(status -> {
+            // Every seated student sits at exactly one table
+            Long tablesSharingStudent = entityManager.createQuery("""
+                    select count(t) from StudyTable t
+                    where t.student is not null
+                      and exists (select 1 from StudyTable o where o.student = t.student and o.id <> t.id)
+                    """, Long.class).getSingleResult();
+            assertThat(tablesSharingStudent).isZero();
+
+            // Occupied flag and student link always agree
+            Long inconsistent = entityManager.createQuery("""
+                    select count(t) from StudyTable t
+                    where (t.isOccupied = true and t.student is null)
+                       or (t.isOccupied = false and t.student is not null)
+                    """, Long.class).getSingleResult();
+            assertThat(inconsistent).isZero();
+        });
+    }
+
+    private long runConcurrently(int attempts, IntTask task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            int attempt = i;
+            futures.add(pool.submit(() -> {
+                start.await();
+                task.run(attempt);
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - began;
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+        return elapsed;
+    }
+
+    private static void report(String phase, int attempts, long elapsedNanos) {
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        System.out.printf("⏱️ %s: %d attempts on %d threads in %.2fs (%.0f ops/s)%n",
+                phase, attempts, THREADS, seconds, attempts / seconds);
+    }
+
+    @FunctionalInterface
+    private interface IntTask {
+        void run(int i) throws Exception;
+    }
+}
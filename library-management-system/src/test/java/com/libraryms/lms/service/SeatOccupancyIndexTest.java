@@ -0,0 +1,131 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AvailableTableDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class SeatOccupancyIndexTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private SeatLocks seatLocks;
+
+    @Test
+    void tracksAssignmentsAndFreesWithoutDrift() throws Exception {
+        int freeInC = seatOccupancyIndex.freeCountByRoom().get("C");
+        assertThat(seatOccupancyIndex.isFree("C", 7)).isTrue();
+
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "Index Test", "contactNumber": "9000000000",
+                                 "roomNumber": "C", "tableNumber": 7, "amountPaid": 400}
+                                """))
+                .andExpect(status().isOk());
+
+        assertThat(seatOccupancyIndex.isFree("C", 7)).isFalse();
+        assertThat(seatOccupancyIndex.freeCountByRoom().get("C")).isEqualTo(freeInC - 1);
+        assertThat(seatOccupancyIndex.freeTables())
+                .noneMatch(t -> t.getRoomNumber().equals("C") && t.getTableNumber() == 7);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+
+        tableService.freeTable(seatOccupancyIndex.findTableId("C", 7));
+
+        assertThat(seatOccupancyIndex.isFree("C", 7)).isTrue();
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void reservationsSurviveAReload() {
+        List<AvailableTableDTO> reserved = seatOccupancyIndex.reserve("D", 3);
+        try {
+            seatOccupancyIndex.load();
+
+            List<AvailableTableDTO> next = seatOccupancyIndex.reserve("D", 3);
+            seatOccupancyIndex.release(next.stream().map(AvailableTableDTO::getTableId).toList());
+            assertThat(next).extracting(AvailableTableDTO::getTableId)
+                    .doesNotContainAnyElementsOf(reserved.stream().map(AvailableTableDTO::getTableId).toList());
+        } finally {
+            seatOccupancyIndex.release(reserved.stream().map(AvailableTableDTO::getTableId).toList());
+        }
+    }
+
+    @Test
+    void reloadWaitsForSeatChangesInProgress() throws Exception {
+        Long tableId = seatOccupancyIndex.findTableId("D", 12);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        // A writer between its commit and the index update holds the table's seat lock
+        Future<?> writer = pool.submit(() -> seatLocks.withTableLocks(() -> {
+            locked.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }, tableId));
+        locked.await();
+
+        AtomicReference<Thread> reloadThread = new AtomicReference<>();
+        Future<?> reload = pool.submit(() -> {
+            reloadThread.set(Thread.currentThread());
+            seatOccupancyIndex.load();
+        });
+        awaitBlocked(reloadThread);
+        assertThat(reload.isDone()).isFalse();
+
+        done.countDown();
+        writer.get(10, TimeUnit.SECONDS);
+        reload.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+    }
+
+    @Test
+    void unknownSeatsAreNeverFree() {
+        assertThat(seatOccupancyIndex.isFree("Z", 1)).isFalse();
+        assertThat(seatOccupancyIndex.isFree("A", 999)).isFalse();
+        assertThat(seatOccupancyIndex.findTableId("A", 999)).isNull();
+    }
+
+    // Wait until the thread has started and is parked on a lock
+    private static void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Thread t = thread.get();
+            if (t != null && (t.getState() == Thread.State.WAITING || t.getState() == Thread.State.TIMED_WAITING)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.RegionStatsDTO;
+import com.libraryms.lms.model.StudyTable;
+import com.libraryms.lms.repository.StudyTableRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class SecondLevelCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StudyTableRepository studyTableRepository;
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private SecondLevelCacheStats secondLevelCacheStats;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void repeatedTableLoadsAreServedFromTheCache() {
+        Collection<Long> tableIds = roomService.getTableLayout("C").values();
+
+        long cold = statementsToLoad(tableIds);
+        long warm = statementsToLoad(tableIds);
+        System.out.println("📊 Loading " + tableIds.size() + " tables: " + cold + " statements cold, " + warm + " warm");
+
+        assertThat(cold).isGreaterThanOrEqualTo(tableIds.size());
+        assertThat(warm).isZero();
+
+        RegionStatsDTO tables = region("studyTable");
+        System.out.println("📊 Second-level cache: " + secondLevelCacheStats.regionStats());
+        assertThat(tables.getHits()).isGreaterThanOrEqualTo(tableIds.size());
+        assertThat(tables.getHitRate()).isGreaterThan(0.0);
+        assertThat(region("room").getHits()).isPositive();
+    }
+
+    @Test
+    void savedTablesAreNotServedStale() throws Exception {
+        Long tableId = roomService.getTableLayout("D").get(9);
+        assertThat(studyTableRepository.findById(tableId).orElseThrow().isOccupied()).isFalse();
+
+        mockMvc.perform(post("/api/students/assign")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name": "L2 Test", "contactNumber": "9300000000",
+                                 "roomNumber": "D", "tableNumber": 9, "amountPaid": 300}
+                                """))
+                .andExpect(status().isOk());
+
+        StudyTable table = studyTableRepository.findById(tableId).orElseThrow();
+        assertThat(table.isOccupied()).isTrue();
+        assertThat(table.getStudent().getName()).isEqualTo("L2 Test");
+    }
+
+    // Separate context, with its own database, with the cache off.
+    // Fields of the enclosing instance belong to the default context, so this class wires its own.
+    @Nested
+    @ActiveProfiles("nocache")
+    class WithoutCache {
+
+        @Autowired
+        private RoomService uncachedRooms;
+
+        @Autowired
+        private StudyTableRepository uncachedTables;
+
+        @Autowired
+        private SecondLevelCacheStats uncachedStats;
+
+        @Autowired
+        private EntityManagerFactory uncachedFactory;
+
+        @Test
+        void everyLoadHitsTheDatabase() {
+            Statistics stats = uncachedFactory.unwrap(SessionFactory.class).getStatistics();
+            Collection<Long> tableIds = uncachedRooms.getTableLayout("C").values();
+
+            long cold = statementsToLoad(uncachedTables, stats, tableIds);
+            long warm = statementsToLoad(uncachedTables, stats, tableIds);
+
+            assertThat(warm).isEqualTo(cold).isGreaterThanOrEqualTo(tableIds.size());
+            assertThat(uncachedStats.regionStats()).isEmpty();
+        }
+    }
+
+    // Each findById runs in its own transaction, so only the second-level cache can save a query
+    private long statementsToLoad(Collection<Long> tableIds) {
+        return statementsToLoad(studyTableRepository, statistics, tableIds);
+    }
+
+    private static long statementsToLoad(StudyTableRepository tables, Statistics stats, Collection<Long> tableIds) {
+        stats.clear();
+        for (Long id : tableIds) {
+            assertThat(tables.findById(id)).isPresent();
+        }
+        return stats.getPrepareStatementCount();
+    }
+
+    private RegionStatsDTO region(String name) {
+        return secondLevelCacheStats.regionStats().stream()
+                .filter(r -> r.getRegion().equals(name))
+                .findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,264 @@
+package com.libraryms.lms.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.libraryms.lms.dto.AutoAssignRequestDTO;
+import com.libraryms.lms.dto.AvailableTableDTO;
+import com.libraryms.lms.dto.BookingRequestDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.SeatAllocationDTO;
+import com.libraryms.lms.dto.WaitlistEntryDTO;
+import com.libraryms.lms.dto.WaitlistRequestDTO;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.model.TableBooking;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.TableBookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class SlotBookingTest {
+
+    private static final LocalDateTime TOMORROW = LocalDate.now().plusDays(1).atStartOfDay();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SlotSchedule slotSchedule;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private Waitlist waitlist;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TableBookingRepository bookingRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void slotsOnATableNeverOverlapAndFreeWindowsSkipThem() throws Exception {
+        Long morning = student("Morning Shift");
+        Long evening = student("Evening Shift");
+        Long c1 = seatOccupancyIndex.findTableId("C", 1);
+
+        TableBooking first = bookingService.book(request(morning, "C", 1, 8, 3));
+        assertThatThrownBy(() -> bookingService.book(request(evening, "C", 1, 10, 2)))
+                .hasMessageContaining("already booked");
+        TableBooking adjacent = bookingService.book(request(evening, "c", 1, 11, 2));
+        assertThatThrownBy(() -> bookingService.book(request(morning, "C", 2, 9, 1)))
+                .hasMessageContaining("Student already has a booking");
+        // A1 is held for the month by the sample data
+        assertThatThrownBy(() -> bookingService.book(request(evening, "A", 1, 20, 1)))
+                .hasMessageContaining("taken for the month");
+
+        assertThat(tableIds(bookingService.availableTables(TOMORROW.plusHours(8), 1, "C")))
+                .doesNotContain(c1).contains(seatOccupancyIndex.findTableId("C", 2));
+        assertThat(tableIds(bookingService.availableTables(TOMORROW.plusHours(13), 1, "C"))).contains(c1);
+        assertThat(bookingService.availableTables(TOMORROW.plusHours(10), 2, null))
+                .hasSize(seatOccupancyIndex.freeTables().size() - 1);
+
+        JsonNode available = objectMapper.readTree(mockMvc.perform(get("/api/bookings/available")
+                        .param("start", TOMORROW.plusHours(12).toString())
+                        .param("hours", "2")
+                        .param("room", "c"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        assertThat(StreamSupport.stream(available.spliterator(), false).map(table -> table.get("tableId").asLong()))
+                .hasSize(14).doesNotContain(c1);
+
+        // The schedule rebuilt from the database answers the same
+        slotSchedule.load();
+        assertThat(slotSchedule.isFree(c1, TOMORROW.plusHours(10), TOMORROW.plusHours(11))).isFalse();
+        assertThat(slotSchedule.isFree(c1, TOMORROW.plusHours(13), TOMORROW.plusHours(20))).isTrue();
+
+        bookingService.cancel(first.getId());
+        assertThat(slotSchedule.isFree(c1, TOMORROW.plusHours(8), TOMORROW.plusHours(11))).isTrue();
+
+        // Deleting the student releases their upcoming slot
+        assertThat(studentService.deleteStudent(evening)).isTrue();
+        assertThat(bookingRepository.findById(adjacent.getId())).isEmpty();
+        assertThat(slotSchedule.isFree(c1, TOMORROW.plusHours(11), TOMORROW.plusHours(13))).isTrue();
+    }
+
+    @Test
+    void slotsMustBeWholeHoursAndNotInThePast() {
+        Long studentId = student("Odd Hours");
+        BookingRequestDTO halfPast = request(studentId, "D", 1, 8, 1);
+        halfPast.setStart(halfPast.getStart().plusMinutes(30));
+        assertThatThrownBy(() -> bookingService.book(halfPast)).hasMessageContaining("on the hour");
+        assertThatThrownBy(() -> bookingService.book(request(studentId, "D", 1, 8, 13))).hasMessageContaining("1 to 12");
+        BookingRequestDTO yesterday = request(studentId, "D", 1, 8, 1);
+        yesterday.setStart(yesterday.getStart().minusDays(2));
+        assertThatThrownBy(() -> bookingService.book(yesterday)).hasMessageContaining("past");
+        assertThatThrownBy(() -> bookingService.book(request(studentId, "D", 99, 8, 1))).hasMessageContaining("Table not found");
+    }
+
+    @Test
+    void onlyBookingsNotYetOverAreLoaded() {
+        int before = slotSchedule.size();
+        Long studentId = student("Loader");
+        List<TableBooking> bookings = new ArrayList<>();
+        List<Long> tables = seatOccupancyIndex.tableIds();
+        for (int day = -3; day < 40; day++) {
+            for (Long tableId : tables) {
+                LocalDateTime start = TOMORROW.plusDays(day).plusHours(8 + tableId % 4);
+                bookings.add(new TableBooking(null, tableId, studentId, start, start.plusHours(2)));
+            }
+        }
+        bookingRepository.saveAll(bookings);
+
+        try {
+            slotSchedule.load();
+            // Two days of history are skipped; today's slots may already be over
+            int upcoming = 40 * tables.size();
+            assertThat(slotSchedule.size() - before).isBetween(upcoming, upcoming + tables.size());
+            Long d5 = seatOccupancyIndex.findTableId("D", 5);
+            LocalDateTime booked = TOMORROW.plusDays(30).plusHours(8 + d5 % 4);
+            assertThat(slotSchedule.isFree(d5, booked.plusHours(1), booked.plusHours(3))).isFalse();
+            assertThat(slotSchedule.isFree(d5, booked.plusHours(2), booked.plusHours(6))).isTrue();
+        } finally {
+            bookingRepository.deleteAllInBatch(bookings);
+            slotSchedule.load();
+        }
+    }
+
+    @Test
+    void monthlyHoldsSkipTablesWithUpcomingSlots() {
+        Long booker = student("Hourly Booker");
+        Long d1 = seatOccupancyIndex.findTableId("D", 1);
+        TableBooking booking = bookingService.book(request(booker, "D", 1, 9, 2));
+
+        CreateStudentRequestDTO onD1 = newStudent("Wants D1");
+        onD1.setRoomNumber("D");
+        onD1.setTableNumber(1);
+        assertThatThrownBy(() -> studentService.createStudentWithTable(onD1))
+                .hasMessageContaining("upcoming slot bookings");
+        assertThatThrownBy(() -> tableService.assignStudentToTable(booker, d1))
+                .hasMessageContaining("upcoming slot bookings");
+
+        // Auto-allocation fills the rest of room D around the booked table
+        List<AvailableTableDTO> freeInD = seatOccupancyIndex.freeTables().stream()
+                .filter(table -> table.getRoomNumber().equals("D")).toList();
+        AutoAssignRequestDTO fillD = new AutoAssignRequestDTO();
+        fillD.setPreferredRoom("D");
+        fillD.setStudents(IntStream.range(0, freeInD.size() - 1).mapToObj(i -> newStudent("Monthly " + i)).toList());
+        assertThat(studentService.createStudentsWithAutoAllocation(fillD))
+                .extracting(SeatAllocationDTO::getTableId).doesNotContain(d1).hasSize(freeInD.size() - 1);
+        assertThat(seatOccupancyIndex.isOccupied(d1)).isFalse();
+
+        // Nobody waiting for room D gets the booked table
+        WaitlistRequestDTO waiting = new WaitlistRequestDTO();
+        waiting.setName("Waiting For D");
+        waiting.setRoomNumber("D");
+        WaitlistEntryDTO entry = waitlist.join(waiting);
+        assertThat(entry.getStatus()).isEqualTo("WAITING");
+        assertThat(waitlist.drainFreeTables()).isZero();
+
+        // Once the slot is gone the table can be held for the month again
+        bookingService.cancel(booking.getId());
+        assertThat(waitlist.drainFreeTables()).isEqualTo(1);
+        assertThat(seatOccupancyIndex.isOccupied(d1)).isTrue();
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void aStudentBookingSeveralTablesAtOnceGetsOneSlotPerWindow() throws Exception {
+        Long studentId = student("Double Booker");
+        LocalDateTime start = TOMORROW.plusDays(1).plusHours(14);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<TableBooking>> attempts = new ArrayList<>();
+        List<AvailableTableDTO> tables = seatOccupancyIndex.freeTables().stream()
+                .filter(table -> table.getRoomNumber().equals("C")).limit(8).toList();
+        for (AvailableTableDTO table : tables) {
+            BookingRequestDTO request = request(studentId, "C", table.getTableNumber(), 0, 2);
+            request.setStart(start);
+            attempts.add(pool.submit(() -> {
+                go.await();
+                return bookingService.book(request);
+            }));
+        }
+        go.countDown();
+
+        int booked = 0;
+        for (Future<TableBooking> attempt : attempts) {
+            try {
+                attempt.get();
+                booked++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).hasMessageContaining("Student already has a booking");
+            }
+        }
+        pool.shutdown();
+        assertThat(booked).isEqualTo(1);
+        assertThat(bookingRepository.findByStudentIdAndEndTimeGreaterThan(studentId, start)).hasSize(1);
+    }
+
+    private static CreateStudentRequestDTO newStudent(String name) {
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName(name);
+        dto.setContactNumber("9500000000");
+        dto.setAmountPaid(500);
+        return dto;
+    }
+
+    private Long student(String name) {
+        Student student = new Student();
+        student.setName(name);
+        student.setContactNumber("9500000000");
+        return studentRepository.save(student).getId();
+    }
+
+    private static BookingRequestDTO request(Long studentId, String room, int table, int hour, int hours) {
+        BookingRequestDTO dto = new BookingRequestDTO();
+        dto.setStudentId(studentId);
+        dto.setRoomNumber(room);
+        dto.setTableNumber(table);
+        dto.setStart(TOMORROW.plusHours(hour));
+        dto.setHours(hours);
+        return dto;
+    }
+
+    private static List<Long> tableIds(List<AvailableTableDTO> tables) {
+        return tables.stream().map(AvailableTableDTO::getTableId).toList();
+    }
+}
@@ -0,0 +1,72 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.StudentFilter;
+import com.libraryms.lms.dto.StudentPageDTO;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class StudentPageTest {
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (studentRepository.count() < 20) {
+            for (int i = 0; i < 25; i++) {
+                Student student = new Student();
+                student.setName((i % 2 == 0 ? "Even " : "Odd ") + i);
+                student.setRollNumber("PG" + i);
+                student.setContactNumber("80000000" + i);
+                studentRepository.save(student);
+            }
+        }
+    }
+
+    @Test
+    void walksAllStudentsWithCursor() {
+        List<StudentTableInfoDTO> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            StudentPageDTO page = studentService.findStudentsPage(new StudentFilter(), cursor, 7);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(7);
+            seen.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize((int) studentRepository.count());
+        assertThat(seen).extracting(StudentTableInfoDTO::getId).isSorted().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void appliesFiltersOnServer() {
+        StudentFilter filter = new StudentFilter();
+        filter.setName("odd");
+        StudentPageDTO page = studentService.findStudentsPage(filter, null, 100);
+
+        assertThat(page.getItems()).hasSize(12).allMatch(s -> s.getStudentName().startsWith("Odd"));
+        assertThat(page.getNextCursor()).isNull();
+
+        StudentFilter search = new StudentFilter();
+        search.setSearch("pg1");
+        assertThat(studentService.findStudentsPage(search, null, 100).getItems())
+                .extracting(StudentTableInfoDTO::getRollNumber)
+                .allMatch(roll -> roll.startsWith("PG1"));
+    }
+}
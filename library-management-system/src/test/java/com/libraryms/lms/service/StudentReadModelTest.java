@@ -0,0 +1,160 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.ReadModelDriftDTO;
+import com.libraryms.lms.dto.StudentTableInfoDTO;
+import com.libraryms.lms.dto.UpdatePaymentRequest;
+import com.libraryms.lms.model.Student;
+import com.libraryms.lms.repository.StudentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@DirtiesContext
+class StudentReadModelTest {
+
+    @Autowired
+    private StudentReadModel studentReadModel;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private DataCleanupService dataCleanupService;
+
+    @Autowired
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void emptyLibrary() {
+        dataCleanupService.clearStudentData();
+    }
+
+    @Test
+    void writesKeepTheModelInStepWithTheDatabase() {
+        assertThat(studentReadModel.students()).isEmpty();
+
+        Long first = enroll("Model One", "C", 4);
+        Long second = enroll("Model Two", "C", 5);
+        assertThat(studentReadModel.student(first).getRoomNumber()).isEqualTo("C");
+        assertThat(studentReadModel.student(first).getTableNumber()).isEqualTo(4);
+
+        UpdatePaymentRequest payment = new UpdatePaymentRequest();
+        payment.setPaid(false);
+        payment.setMonths(2);
+        studentService.updatePayment(first, payment);
+        assertThat(studentReadModel.student(first).isPaid()).isFalse();
+        assertThat(studentReadModel.student(first).getDueDate()).isEqualTo(LocalDate.now().plusMonths(2));
+
+        tableService.freeTable(seatOccupancyIndex.findTableId("C", 5));
+        assertThat(studentReadModel.student(second).getTableNumber()).isZero();
+        assertThat(studentReadModel.student(second).getRoomNumber()).isNull();
+
+        studentService.deleteStudent(first);
+        assertThat(studentReadModel.students()).extracting(StudentTableInfoDTO::getId).containsExactly(second);
+
+        assertThat(studentReadModel.students()).isEqualTo(studentRepository.findAllStudentTableInfo());
+        assertNoDrift(studentReadModel.checkDrift());
+    }
+
+    @Test
+    void driftIsReportedAndRepairedByARebuild() {
+        Long enrolled = enroll("Model Enrolled", "D", 9);
+        // Written behind the services' back, so no event reaches the model
+        Student hidden = new Student();
+        hidden.setName("Model Hidden");
+        hidden.setContactNumber("9300000000");
+        Long hiddenId = studentRepository.save(hidden).getId();
+        Student renamed = studentRepository.findById(enrolled).orElseThrow();
+        renamed.setName("Model Renamed");
+        studentRepository.save(renamed);
+
+        ReadModelDriftDTO drift = studentReadModel.checkDrift();
+        assertThat(drift.getMissing()).isEqualTo(1);
+        assertThat(drift.getStale()).isEqualTo(1);
+        assertThat(drift.getUnexpected()).isZero();
+        assertThat(drift.getExamples()).hasSize(2);
+        assertThat(drift.isRebuilt()).isFalse();
+        assertThat(studentReadModel.student(hiddenId)).isNull();
+
+        double repairedBefore = meterRegistry.counter("library.read_model.drift").count();
+        ReadModelDriftDTO rebuilt = studentReadModel.rebuild();
+        assertThat(rebuilt.isRebuilt()).isTrue();
+        assertThat(rebuilt.getMissing()).isEqualTo(1);
+        assertThat(meterRegistry.counter("library.read_model.drift").count()).isEqualTo(repairedBefore + 2);
+        assertThat(studentReadModel.student(hiddenId).getStudentName()).isEqualTo("Model Hidden");
+        assertThat(studentReadModel.student(enrolled).getStudentName()).isEqualTo("Model Renamed");
+        assertNoDrift(studentReadModel.checkDrift());
+    }
+
+    @Test
+    void readsNeverWaitForTheWriteSide() throws Exception {
+        Long enrolled = enroll("Model Reader", "B", 7);
+
+        // A writer (or a rebuild) holding the model must not hold up readers
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            synchronized (studentReadModel) {
+                held.countDown();
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        writer.start();
+        held.await();
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            Future<StudentTableInfoDTO> read = reader.submit(() -> studentReadModel.student(enrolled));
+            assertThat(read.get(5, TimeUnit.SECONDS).getStudentName()).isEqualTo("Model Reader");
+        } finally {
+            done.countDown();
+            writer.join();
+            reader.shutdown();
+        }
+    }
+
+    private static void assertNoDrift(ReadModelDriftDTO drift) {
+        assertThat(drift.getMissing() + drift.getUnexpected() + drift.getStale()).isZero();
+        assertThat(drift.getModelStudents()).isEqualTo(drift.getDatabaseStudents());
+        assertThat(drift.getSeats().isConsistent()).isTrue();
+    }
+
+    private Long enroll(String name, String room, int table) {
+        CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+        dto.setName(name);
+        dto.setContactNumber("9300000000");
+        dto.setRoomNumber(room);
+        dto.setTableNumber(table);
+        dto.setAmountPaid(500);
+        studentService.createStudentWithTable(dto);
+        return studentRepository.findAll().stream()
+                .filter(s -> s.getName().equals(name))
+                .findFirst().orElseThrow().getId();
+    }
+}
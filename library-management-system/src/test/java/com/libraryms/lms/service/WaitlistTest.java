@@ -0,0 +1,248 @@
+package com.libraryms.lms.service;
+
+import com.libraryms.lms.dto.AutoAssignRequestDTO;
+import com.libraryms.lms.dto.CreateStudentRequestDTO;
+import com.libraryms.lms.dto.SeatAllocationDTO;
+import com.libraryms.lms.dto.WaitlistEntryDTO;
+import com.libraryms.lms.dto.WaitlistRequestDTO;
+import com.libraryms.lms.model.WaitlistEntry;
+import com.libraryms.lms.repository.StudentRepository;
+import com.libraryms.lms.repository.StudyTableRepository;
+import com.libraryms.lms.repository.WaitlistRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+@DirtiesContext
+class WaitlistTest {
+
+    @Autowired
+    private Waitlist waitlist;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private TableService tableService;
+
+    @Autowired
+    private DataCleanupService dataCleanupService;
+
+    @MockitoSpyBean
+    private SeatOccupancyIndex seatOccupancyIndex;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudyTableRepository studyTableRepository;
+
+    @Autowired
+    private WaitlistRepository waitlistRepository;
+
+    @BeforeEach
+    void fullLibraryAndEmptyQueue() {
+        waitlistRepository.deleteAll();
+        dataCleanupService.clearStudentData();
+        fill(seatOccupancyIndex.freeTables().size());
+    }
+
+    @Test
+    void freedTablesGoStraightToTheHeadOfTheQueue() {
+        WaitlistEntryDTO anyRoom = waitlist.join(request("Any Room", null, 0));
+        WaitlistEntryDTO roomB = waitlist.join(request("Room B Only", "b", 0));
+        WaitlistEntryDTO urgent = waitlist.join(request("Urgent", null, 5));
+        assertThat(waitlist.queue()).extracting(WaitlistEntryDTO::getId, WaitlistEntryDTO::getPosition)
+                .containsExactly(tuple(urgent.getId(), 1), tuple(anyRoom.getId(), 2), tuple(roomB.getId(), 3));
+
+        // Higher priority first
+        Long a1 = seatOccupancyIndex.findTableId("A", 1);
+        tableService.freeTable(a1);
+        assertSeated(urgent.getId(), a1);
+
+        // Then first come, first served
+        Long studentOnB2 = studyTableRepository.findById(seatOccupancyIndex.findTableId("B", 2)).orElseThrow()
+                .getStudent().getId();
+        assertThat(studentService.deleteStudent(studentOnB2)).isTrue();
+        assertSeated(anyRoom.getId(), seatOccupancyIndex.findTableId("B", 2));
+        assertThat(seatOccupancyIndex.freeTables()).isEmpty();
+
+        // Nobody waiting for room A, so this one really is freed
+        tableService.freeTable(seatOccupancyIndex.findTableId("A", 2));
+        assertThat(seatOccupancyIndex.freeTables()).extracting(seat -> seat.getRoomNumber() + seat.getTableNumber())
+                .containsExactly("A2");
+        assertThat(waitlist.queue()).extracting(WaitlistEntryDTO::getId).containsExactly(roomB.getId());
+
+        // Moving a student out of room B hands their old table on as well
+        Long studentOnB3 = studyTableRepository.findById(seatOccupancyIndex.findTableId("B", 3)).orElseThrow()
+                .getStudent().getId();
+        tableService.assignStudentToTable(studentOnB3, seatOccupancyIndex.findTableId("A", 2));
+        assertSeated(roomB.getId(), seatOccupancyIndex.findTableId("B", 3));
+        assertThat(waitlist.queue()).isEmpty();
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void cleanupSeatsTheWholeQueueInOneGo() {
+        List<WaitlistEntryDTO> queued = IntStream.range(0, 5)
+                .mapToObj(i -> waitlist.join(request("Queued " + i, i % 2 == 0 ? "C" : null, 0)))
+                .toList();
+        assertThat(queued).allMatch(entry -> entry.getStatus().equals("WAITING"));
+
+        dataCleanupService.clearStudentData();
+        assertThat(waitlist.queue()).isEmpty();
+        assertThat(studentRepository.count()).isEqualTo(5);
+        assertThat(seats(waitlistRepository.findAll())).containsExactlyInAnyOrder("C1", "C2", "C3", "A1", "A2");
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+
+        fill(seatOccupancyIndex.freeTables().size());
+        waitlist.join(request("After Chunks", "D", 0));
+        dataCleanupService.clearStudentDataInChunks(7);
+        assertThat(studentRepository.count()).isEqualTo(1);
+        assertThat(seatOccupancyIndex.freeTables()).hasSize(59);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void joiningWhileATableIsFreeSeatsRightAwayAndCancelledEntriesAreSkipped() {
+        WaitlistEntryDTO cancelled = waitlist.join(request("Changed Mind", null, 9));
+        assertThat(waitlist.cancel(cancelled.getId()).getStatus()).isEqualTo("CANCELLED");
+
+        tableService.freeTable(seatOccupancyIndex.findTableId("D", 15));
+        WaitlistEntryDTO walkIn = waitlist.join(request("Walk In", null, 0));
+        assertThat(walkIn.getStatus()).isEqualTo("SEATED");
+        assertThat(walkIn.getPosition()).isNull();
+        assertSeated(walkIn.getId(), seatOccupancyIndex.findTableId("D", 15));
+        assertThat(waitlistRepository.findById(cancelled.getId()).orElseThrow().getStudentId()).isNull();
+    }
+
+    @Test
+    void concurrentFreesNeverSeatOneEntryTwiceOrLeaveATableHalfTaken() throws Exception {
+        int waiting = 30;
+        for (int i = 0; i < waiting; i++) {
+            waitlist.join(request("Waiting " + i, null, i % 3));
+        }
+        List<Long> tables = seatOccupancyIndex.tableIds();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Long tableId = tables.get(i);
+            futures.add(pool.submit(() -> tableService.freeTable(tableId)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        List<WaitlistEntry> entries = waitlistRepository.findAll();
+        assertThat(entries).filteredOn(entry -> entry.getStatus() == WaitlistEntry.Status.SEATED).hasSize(waiting)
+                .extracting(WaitlistEntry::getStudentId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(seatOccupancyIndex.freeTables()).hasSize(10);
+        assertThat(entries).filteredOn(entry -> entry.getStudentId() != null)
+                .allMatch(entry -> studyTableRepository.findTableIdByStudentId(entry.getStudentId()).isPresent());
+        assertThat(studentRepository.count()).isEqualTo(60 + waiting);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    @Test
+    void freeingATableWhileACleanupHoldsTheTableRowsDoesNotDeadlock() throws Exception {
+        WaitlistEntryDTO queued = waitlist.join(request("During Cleanup", null, 0));
+        Long a1 = seatOccupancyIndex.findTableId("A", 1);
+
+        // Pause the cleanup right after its bulk writes and free a table meanwhile
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        AtomicReference<Future<?>> freeing = new AtomicReference<>();
+        AtomicReference<Thread> freeingThread = new AtomicReference<>();
+        doAnswer(invocation -> {
+            freeing.set(pool.submit(() -> {
+                freeingThread.set(Thread.currentThread());
+                tableService.freeTable(a1);
+            }));
+            awaitBlocked(freeingThread);
+            return invocation.callRealMethod();
+        }).when(seatOccupancyIndex).reloadAfterCommit();
+
+        try {
+            dataCleanupService.clearStudentData();
+        } finally {
+            reset(seatOccupancyIndex);
+        }
+        freeing.get().get(30, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // The cleanup seated the queue on A1; the free, run after it, emptied it again
+        WaitlistEntry entry = waitlistRepository.findById(queued.getId()).orElseThrow();
+        assertThat(entry.getStatus()).isEqualTo(WaitlistEntry.Status.SEATED);
+        assertThat(studyTableRepository.findTableIdByStudentId(entry.getStudentId())).isEmpty();
+        assertThat(seatOccupancyIndex.freeTables()).hasSize(60);
+        assertThat(seatOccupancyIndex.checkConsistency().isConsistent()).isTrue();
+    }
+
+    // Wait until the thread has started and is parked on a lock
+    private static void awaitBlocked(AtomicReference<Thread> thread) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            Thread t = thread.get();
+            if (t != null && (t.getState() == Thread.State.WAITING || t.getState() == Thread.State.TIMED_WAITING)) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private void assertSeated(Long entryId, Long tableId) {
+        WaitlistEntry entry = waitlistRepository.findById(entryId).orElseThrow();
+        assertThat(entry.getStatus()).isEqualTo(WaitlistEntry.Status.SEATED);
+        assertThat(studyTableRepository.findTableIdByStudentId(entry.getStudentId())).contains(tableId);
+        assertThat(seatOccupancyIndex.isOccupied(tableId)).isTrue();
+    }
+
+    private List<String> seats(List<WaitlistEntry> entries) {
+        return entries.stream()
+                .map(entry -> studyTableRepository.findById(
+                        studyTableRepository.findTableIdByStudentId(entry.getStudentId()).orElseThrow()).orElseThrow())
+                .map(table -> table.getRoom().getRoomNumber() + table.getTableNumber())
+                .toList();
+    }
+
+    private List<SeatAllocationDTO> fill(int count) {
+        AutoAssignRequestDTO request = new AutoAssignRequestDTO();
+        request.setStudents(IntStream.range(0, count).mapToObj(i -> {
+            CreateStudentRequestDTO dto = new CreateStudentRequestDTO();
+            dto.setName("Regular " + i);
+            dto.setContactNumber("9300000000");
+            dto.setAmountPaid(500);
+            return dto;
+        }).toList());
+        return studentService.createStudentsWithAutoAllocation(request);
+    }
+
+    private static WaitlistRequestDTO request(String name, String room, int priority) {
+        WaitlistRequestDTO dto = new WaitlistRequestDTO();
+        dto.setName(name);
+        dto.setContactNumber("9400000000");
+        dto.setAmountPaid(600);
+        dto.setRoomNumber(room);
+        dto.setPriority(priority);
+        return dto;
+    }
+}